@@ -2,6 +2,7 @@
 
 from pathlib import Path
 import argparse
+import struct
 import sys
 import pandas as pd
 import matplotlib.pyplot as plt
@@ -31,6 +32,49 @@ def safe_read_csv(path, verbose=False):
         print(f"Loaded {len(df)} rows, columns: {list(df.columns)}")
     return df
 
+BINARY_MAGIC = b"UAVMCOL1"
+
+def read_binary_metrics(path, verbose=False):
+    """Read a columnar metrics_*.bin file (layout in README, "Binary results format").
+
+    Columns are memory-mapped and wrapped without parsing; returns the same columns as the CSV.
+    """
+    import numpy as np
+    raw = np.memmap(path, dtype=np.uint8, mode='r')
+    header = raw[:64].tobytes()
+    if header[:8] != BINARY_MAGIC:
+        raise RuntimeError(f"'{path}' is not a binary metrics file")
+    version, ncols, nrows, dict_off, dict_len = struct.unpack_from('<IIqqq', header, 8)
+    if version != 1:
+        raise RuntimeError(f"Unsupported binary metrics version {version} in '{path}'")
+
+    directory = np.dtype([('name', 'S16'), ('dtype', 'S8'), ('offset', '<i8'), ('min', '<f8'), ('max', '<f8')])
+    entries = np.frombuffer(raw, dtype=directory, count=ncols, offset=64)
+    cols = {e['name'].decode(): np.frombuffer(raw, dtype=np.dtype(e['dtype'].decode()),
+                                              count=nrows, offset=int(e['offset']))
+            for e in entries}
+
+    # Event type dictionary: u32 count, then u16 length + UTF-8 bytes per type
+    d = raw[dict_off:dict_off + dict_len].tobytes()
+    (ntypes,) = struct.unpack_from('<I', d, 0)
+    pos, types = 4, []
+    for _ in range(ntypes):
+        (n,) = struct.unpack_from('<H', d, pos)
+        types.append(d[pos + 2:pos + 2 + n].decode('utf-8'))
+        pos += 2 + n
+
+    if verbose:
+        print(f"Mapped {nrows} rows, columns: {list(cols)}")
+    return pd.DataFrame({
+        'Timestamp': cols['timestamp'],
+        'EventType': np.asarray(types, dtype=object)[cols['type']],
+        'EntityId': cols['targetId'],
+        'Cost': cols['cost'],
+        'Latency': cols['latency'],
+        'Energy': cols['energy'],
+        'Successful': cols['success'].astype(bool),
+    })
+
 def coerce_numeric(series, name, verbose=False):
     coerced = pd.to_numeric(series, errors='coerce')
     n_bad = coerced.isna().sum()
@@ -43,7 +87,10 @@ def visualize_metrics(csv_file: str, out_file: str = None, show: bool = False, n
     if not csv_path.exists():
         raise FileNotFoundError(f"File not found: {csv_file}")
 
-    df = safe_read_csv(csv_path, verbose=verbose)
+    if csv_path.suffix == '.bin':
+        df = read_binary_metrics(csv_path, verbose=verbose)
+    else:
+        df = safe_read_csv(csv_path, verbose=verbose)
     col_map = find_columns(df)
 
     # Check required columns
@@ -174,8 +221,8 @@ def visualize_metrics(csv_file: str, out_file: str = None, show: bool = False, n
     return stats
 
 def main():
-    p = argparse.ArgumentParser(description="Visualize UAV-MEC simulation metrics from CSV")
-    p.add_argument('csv_file', help='Path to metrics CSV file')
+    p = argparse.ArgumentParser(description="Visualize UAV-MEC simulation metrics from CSV or binary export")
+    p.add_argument('csv_file', help='Path to metrics CSV (or columnar .bin) file')
     p.add_argument('--out', '-o', help='Output image file (PNG)', default=None)
     p.add_argument('--show', action='store_true', help='Show plot interactively')
     p.add_argument('--no-save', action='store_true', help='Do not save output image file')
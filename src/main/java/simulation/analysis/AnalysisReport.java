@@ -1,6 +1,7 @@
 package simulation.analysis;
 
 import simulation.model.MetricEntry;
+import simulation.model.MetricStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.List;
@@ -11,65 +12,55 @@ import java.util.List;
 public class AnalysisReport {
     private static final Logger logger = LoggerFactory.getLogger(AnalysisReport.class);
 
-    private final List<MetricEntry> metrics;
+    private final MetricStore metrics;
     private double costStats_mean = 0;
     private double costStats_median = 0;
     private double costStats_stdDev = 0;
     private double latencyStats_mean = 0;
     private double latencyStats_max = 0;
+    private final LogHistogram latencyHistogram = new LogHistogram(1e-3, 1e7, 3);
     private double energyStats_mean = 0;
     private double taskCompletionRate = 0;
     private double slaViolationRate = 0;
 
     public AnalysisReport(List<MetricEntry> metrics) {
+        this(MetricStore.of(metrics));
+    }
+
+    public AnalysisReport(MetricStore metrics) {
         this.metrics = metrics;
         analyzeMetrics();
     }
 
     private void analyzeMetrics() {
-        if (metrics.isEmpty()) return;
-
-        // Cost analysis
-        double totalCost = 0;
-        int costCount = 0;
-        for (MetricEntry metric : metrics) {
-            if (metric.getCost() > 0) {
-                totalCost += metric.getCost();
-                costCount++;
-            }
-        }
-        if (costCount > 0) costStats_mean = totalCost / costCount;
-
-        // Latency analysis
-        double totalLatency = 0;
-        double maxLatency = 0;
-        int latencyCount = 0;
-        for (MetricEntry metric : metrics) {
-            if (metric.getLatency() > 0) {
-                totalLatency += metric.getLatency();
-                maxLatency = Math.max(maxLatency, metric.getLatency());
-                latencyCount++;
-            }
-        }
-        if (latencyCount > 0) {
-            latencyStats_mean = totalLatency / latencyCount;
-            latencyStats_max = maxLatency;
-        }
+        int n = metrics.size();
+        if (n == 0) return;
 
-        // Energy analysis
+        // Cost, latency and energy in one pass over the non-zero values
+        StreamingStatistics cost = new StreamingStatistics();
         double totalEnergy = 0;
         int energyCount = 0;
-        for (MetricEntry metric : metrics) {
-            if (metric.getEnergyConsumption() > 0) {
-                totalEnergy += metric.getEnergyConsumption();
+        for (int i = 0; i < n; i++) {
+            double c = metrics.getCost(i);
+            if (c > 0) cost.add(c);
+            double latency = metrics.getLatency(i);
+            if (latency > 0) latencyHistogram.record(latency);
+            double energy = metrics.getEnergyConsumption(i);
+            if (energy > 0) {
+                totalEnergy += energy;
                 energyCount++;
             }
         }
+        costStats_mean = cost.getMean();
+        costStats_median = cost.getMedian();
+        costStats_stdDev = cost.getStdDev();
+        latencyStats_mean = latencyHistogram.getMean();
+        latencyStats_max = latencyHistogram.getMax();
         if (energyCount > 0) energyStats_mean = totalEnergy / energyCount;
 
         // Success rate
-        long successCount = metrics.stream().filter(MetricEntry::isSuccessful).count();
-        taskCompletionRate = ((double) successCount / metrics.size()) * 100;
+        long successCount = metrics.countSuccessful();
+        taskCompletionRate = ((double) successCount / n) * 100;
         slaViolationRate = 100 - taskCompletionRate;
 
         logger.info("Analysis Report: Cost ${:.2f}, Latency {:.2f}ms, Success {:.2f}%",
@@ -85,6 +76,8 @@ public class AnalysisReport {
         html.append(String.format("<p>Std Dev: $%.4f</p>", costStats_stdDev));
         html.append(String.format("<p><b>Latency Analysis</b></p>"));
         html.append(String.format("<p>Mean Latency: %.2f ms</p>", latencyStats_mean));
+        html.append(String.format("<p>p95 / p99 / p99.9 Latency: %.2f / %.2f / %.2f ms</p>",
+                getLatencyPercentile(95), getLatencyPercentile(99), getLatencyPercentile(99.9)));
         html.append(String.format("<p>Max Latency: %.2f ms</p>", latencyStats_max));
         html.append(String.format("<p><b>Performance</b></p>"));
         html.append(String.format("<p>Task Completion: %.2f%%</p>", taskCompletionRate));
@@ -95,8 +88,13 @@ public class AnalysisReport {
 
     // ===== Getters =====
     public double getCostMean() { return costStats_mean; }
+    public double getCostMedian() { return costStats_median; }
+    public double getCostStdDev() { return costStats_stdDev; }
     public double getLatencyMean() { return latencyStats_mean; }
     public double getLatencyMax() { return latencyStats_max; }
+    /** Latency at a percentile in [0, 100]: within 0.1% from 2 s up, to the millisecond below */
+    public double getLatencyPercentile(double percentile) { return latencyHistogram.getValueAtPercentile(percentile); }
+    public LogHistogram getLatencyHistogram() { return latencyHistogram; }
     public double getEnergyMean() { return energyStats_mean; }
     public double getTaskCompletionRate() { return taskCompletionRate; }
     public double getSLAViolationRate() { return slaViolationRate; }
@@ -0,0 +1,155 @@
+package simulation.analysis;
+
+import simulation.model.MetricStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary Metrics Format: little-endian, fixed-width columnar layout (see README)
+ *
+ *   0   magic "UAVMCOL1"          8 bytes
+ *   8   version                   u32
+ *   12  column count              u32
+ *   16  row count                 i64
+ *   24  dictionary offset         i64
+ *   32  dictionary length         i64
+ *   40  reserved                  24 bytes
+ *   64  column directory          48 bytes per column:
+ *         name (ASCII, NUL-padded) 16, numpy dtype (NUL-padded) 8, data offset i64, min f64, max f64
+ *   ..  dictionary                u32 count, then per type: u16 length + UTF-8 bytes
+ *   ..  column data               rowCount values each, every column 8-byte aligned
+ */
+final class BinaryMetricsFormat {
+
+    static final byte[] MAGIC = "UAVMCOL1".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int DIRECTORY_ENTRY_SIZE = 48;
+    static final int NAME_SIZE = 16;
+    static final int DTYPE_SIZE = 8;
+
+    static final String[] NAMES = {"timestamp", "targetId", "cost", "latency", "energy", "success", "type"};
+    static final String[] DTYPES = {"<i8", "<i8", "<f8", "<f8", "<f8", "|u1", "<i4"};
+    static final int[] WIDTHS = {8, 8, 8, 8, 8, 1, 4};
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private BinaryMetricsFormat() {}
+
+    static void write(Path path, MetricStore store) throws IOException {
+        int n = store.size();
+        int columns = NAMES.length;
+
+        // Dictionary
+        int types = store.getTypeCount();
+        byte[][] typeBytes = new byte[types][];
+        long dictionaryLength = 4;
+        for (int t = 0; t < types; t++) {
+            typeBytes[t] = store.getTypeName(t).getBytes(StandardCharsets.UTF_8);
+            dictionaryLength += 2 + typeBytes[t].length;
+        }
+        long dictionaryOffset = HEADER_SIZE + (long) columns * DIRECTORY_ENTRY_SIZE;
+
+        long[] offsets = new long[columns];
+        long position = align(dictionaryOffset + dictionaryLength);
+        for (int c = 0; c < columns; c++) {
+            offsets[c] = position;
+            position = align(position + (long) n * WIDTHS[c]);
+        }
+
+        // Min and max in one pass per column
+        double[] min = new double[columns];
+        double[] max = new double[columns];
+        for (int c = 0; c < columns; c++) {
+            min[c] = n > 0 ? Double.POSITIVE_INFINITY : 0;
+            max[c] = n > 0 ? Double.NEGATIVE_INFINITY : 0;
+            for (int i = 0; i < n; i++) {
+                double v = value(store, c, i);
+                if (v < min[c]) min[c] = v;
+                if (v > max[c]) max[c] = v;
+            }
+        }
+
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer head = ByteBuffer.allocate((int) offsets[0]).order(ByteOrder.LITTLE_ENDIAN);
+            head.put(MAGIC).putInt(VERSION).putInt(columns).putLong(n)
+                    .putLong(dictionaryOffset).putLong(dictionaryLength);
+            head.position(HEADER_SIZE);
+            for (int c = 0; c < columns; c++) {
+                putPadded(head, NAMES[c], NAME_SIZE);
+                putPadded(head, DTYPES[c], DTYPE_SIZE);
+                head.putLong(offsets[c]).putDouble(min[c]).putDouble(max[c]);
+            }
+            head.putInt(types);
+            for (byte[] b : typeBytes) {
+                head.putShort((short) b.length).put(b);
+            }
+            head.position(head.capacity()).flip();
+            writeFully(channel, head);
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            for (int c = 0; c < columns; c++) {
+                channel.position(offsets[c]);
+                for (int i = 0; i < n; i++) {
+                    if (buffer.remaining() < 8) {
+                        buffer.flip();
+                        writeFully(channel, buffer);
+                        buffer.clear();
+                    }
+                    switch (c) {
+                        case 0: buffer.putLong(store.getTimestamp(i)); break;
+                        case 1: buffer.putLong(store.getTargetId(i)); break;
+                        case 2: buffer.putDouble(store.getCost(i)); break;
+                        case 3: buffer.putDouble(store.getLatency(i)); break;
+                        case 4: buffer.putDouble(store.getEnergyConsumption(i)); break;
+                        case 5: buffer.put((byte) (store.isSuccess(i) ? 1 : 0)); break;
+                        default: buffer.putInt(store.getTypeCode(i));
+                    }
+                }
+                buffer.flip();
+                writeFully(channel, buffer);
+                buffer.clear();
+            }
+            // Gaps between columns read as zeros; extend the file to the last aligned column
+            if (channel.size() < position) {
+                channel.position(position - 1);
+                writeFully(channel, ByteBuffer.wrap(new byte[1]));
+            }
+        }
+    }
+
+    private static double value(MetricStore store, int column, int row) {
+        switch (column) {
+            case 0: return store.getTimestamp(row);
+            case 1: return store.getTargetId(row);
+            case 2: return store.getCost(row);
+            case 3: return store.getLatency(row);
+            case 4: return store.getEnergyConsumption(row);
+            case 5: return store.isSuccess(row) ? 1 : 0;
+            default: return store.getTypeCode(row);
+        }
+    }
+
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static void putPadded(ByteBuffer buffer, String s, int size) {
+        byte[] b = s.getBytes(StandardCharsets.US_ASCII);
+        buffer.put(b);
+        for (int i = b.length; i < size; i++) buffer.put((byte) 0);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+}
@@ -0,0 +1,145 @@
+package simulation.analysis;
+
+import java.io.IOException;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Binary Metrics Reader: memory-maps a file written by MetricsExporter.exportToBinary
+ * Each column is mapped read-only on first access and returned as a typed buffer view over
+ * the mapping, so reading a column copies nothing. Views are independent (own position).
+ */
+public class BinaryMetricsReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final long rowCount;
+    private final String[] typeNames;
+    private final Map<String, Integer> columnIndex = new LinkedHashMap<>();
+    private final String[] dtypes;
+    private final long[] offsets;
+    private final double[] min;
+    private final double[] max;
+    private final ByteBuffer[] mapped;
+
+    public BinaryMetricsReader(String filename) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = map(0, Math.min(channel.size(), BinaryMetricsFormat.HEADER_SIZE));
+            byte[] magic = new byte[BinaryMetricsFormat.MAGIC.length];
+            if (header.capacity() == BinaryMetricsFormat.HEADER_SIZE) header.get(magic);
+            if (!Arrays.equals(magic, BinaryMetricsFormat.MAGIC)) {
+                throw new IOException("Not a binary metrics file: " + filename);
+            }
+            int version = header.getInt(8);
+            if (version != BinaryMetricsFormat.VERSION) {
+                throw new IOException("Unsupported binary metrics version " + version + ": " + filename);
+            }
+            int columns = header.getInt(12);
+            this.rowCount = header.getLong(16);
+            long dictionaryOffset = header.getLong(24);
+            long dictionaryLength = header.getLong(32);
+
+            this.dtypes = new String[columns];
+            this.offsets = new long[columns];
+            this.min = new double[columns];
+            this.max = new double[columns];
+            this.mapped = new ByteBuffer[columns];
+            ByteBuffer directory = map(BinaryMetricsFormat.HEADER_SIZE,
+                    (long) columns * BinaryMetricsFormat.DIRECTORY_ENTRY_SIZE);
+            for (int c = 0; c < columns; c++) {
+                columnIndex.put(ascii(directory, BinaryMetricsFormat.NAME_SIZE), c);
+                dtypes[c] = ascii(directory, BinaryMetricsFormat.DTYPE_SIZE);
+                offsets[c] = directory.getLong();
+                min[c] = directory.getDouble();
+                max[c] = directory.getDouble();
+            }
+
+            ByteBuffer dictionary = map(dictionaryOffset, dictionaryLength);
+            this.typeNames = new String[dictionary.getInt()];
+            for (int t = 0; t < typeNames.length; t++) {
+                byte[] b = new byte[Short.toUnsignedInt(dictionary.getShort())];
+                dictionary.get(b);
+                typeNames[t] = new String(b, StandardCharsets.UTF_8);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private ByteBuffer map(long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Region too large to map: " + size + " bytes");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static String ascii(ByteBuffer buffer, int size) {
+        byte[] b = new byte[size];
+        buffer.get(b);
+        int length = 0;
+        while (length < size && b[length] != 0) length++;
+        return new String(b, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    public long getRowCount() { return rowCount; }
+    public Set<String> getColumnNames() { return Collections.unmodifiableSet(columnIndex.keySet()); }
+    public String getDtype(String column) { return dtypes[index(column)]; }
+    public double getMin(String column) { return min[index(column)]; }
+    public double getMax(String column) { return max[index(column)]; }
+    public int getTypeCount() { return typeNames.length; }
+    public String getTypeName(int code) { return typeNames[code]; }
+
+    // ===== Column views =====
+
+    public DoubleBuffer getDoubleColumn(String column) throws IOException {
+        return column(column, "<f8").asDoubleBuffer();
+    }
+
+    public LongBuffer getLongColumn(String column) throws IOException {
+        return column(column, "<i8").asLongBuffer();
+    }
+
+    /** Event type codes; see getTypeName */
+    public IntBuffer getTypeCodes() throws IOException {
+        return column("type", "<i4").asIntBuffer();
+    }
+
+    /** Success flags, 1 or 0 */
+    public ByteBuffer getSuccess() throws IOException {
+        return column("success", "|u1");
+    }
+
+    private ByteBuffer column(String name, String dtype) throws IOException {
+        int c = index(name);
+        if (!dtypes[c].equals(dtype)) {
+            throw new IllegalArgumentException("Column " + name + " has dtype " + dtypes[c] + ", not " + dtype);
+        }
+        if (mapped[c] == null) {
+            long width = Long.parseLong(dtype.substring(2));
+            mapped[c] = map(offsets[c], rowCount * width);
+        }
+        return mapped[c].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private int index(String column) {
+        Integer c = columnIndex.get(column);
+        if (c == null) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        return c;
+    }
+
+    /**
+     * Close the file; views already returned stay readable until they are garbage collected,
+     * columns not yet accessed can no longer be mapped
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,275 @@
+package simulation.analysis;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Log Histogram: fixed-memory, log-linear bucketed recorder (HdrHistogram layout)
+ * Values are quantized to multiples of the lowest discernible value, then counted in
+ * power-of-two buckets each split into linear sub-buckets, so every recorded value keeps
+ * the configured number of significant decimal digits across the whole trackable range.
+ * Memory is fixed at construction; recording is O(1) with no allocation.
+ *
+ * Histograms with the same configuration merge losslessly (counts add), which makes them
+ * suitable for combining tail behaviour across many runs. Values above the trackable range
+ * are counted in the top bucket; exact min, max and sum are kept separately.
+ * Not thread-safe.
+ */
+public class LogHistogram {
+
+    private final double lowestDiscernible;
+    private final double highestTrackable;
+    private final int significantDigits;
+
+    private final int subBucketHalfCountMagnitude;
+    private final int subBucketHalfCount;
+    private final long subBucketMask;
+    private final long maxUnits;
+    private final long[] counts;
+
+    private long totalCount = 0;
+    private double sum = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param lowestDiscernible resolution unit (values are recorded as multiples of it)
+     * @param highestTrackable largest value recorded without clamping
+     * @param significantDigits decimal digits of precision kept, 1 to 5
+     */
+    public LogHistogram(double lowestDiscernible, double highestTrackable, int significantDigits) {
+        if (!(lowestDiscernible > 0) || !(highestTrackable >= 2 * lowestDiscernible)) {
+            throw new IllegalArgumentException("Need 0 < 2 * lowestDiscernible <= highestTrackable: "
+                    + lowestDiscernible + ", " + highestTrackable);
+        }
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException("Significant digits must be 1 to 5: " + significantDigits);
+        }
+        this.lowestDiscernible = lowestDiscernible;
+        this.highestTrackable = highestTrackable;
+        this.significantDigits = significantDigits;
+
+        long largestSingleUnitValue = 2 * (long) Math.pow(10, significantDigits);
+        int subBucketCountMagnitude = (int) Math.ceil(Math.log(largestSingleUnitValue) / Math.log(2));
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        int subBucketCount = 1 << subBucketCountMagnitude;
+        this.subBucketHalfCount = subBucketCount / 2;
+        this.subBucketMask = subBucketCount - 1;
+
+        // Beyond 2^52 units doubles no longer resolve the lowest discernible value
+        this.maxUnits = (long) Math.min(Math.ceil(highestTrackable / lowestDiscernible), 0x1p52);
+        int buckets = 1;
+        long smallestUntrackable = subBucketCount;
+        while (smallestUntrackable <= maxUnits) {
+            smallestUntrackable <<= 1;
+            buckets++;
+        }
+        this.counts = new long[(buckets + 1) * subBucketHalfCount];
+    }
+
+    /**
+     * Empty histogram with the same configuration
+     */
+    public LogHistogram copyConfiguration() {
+        return new LogHistogram(lowestDiscernible, highestTrackable, significantDigits);
+    }
+
+    public void record(double value) {
+        record(value, 1);
+    }
+
+    public void record(double value, long count) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot record NaN");
+        }
+        long units = value <= 0 ? 0 : (long) Math.min(maxUnits, Math.floor(value / lowestDiscernible));
+        counts[countsIndex(units)] += count;
+        totalCount += count;
+        sum += value * count;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Add another histogram's counts (lossless; configurations must match)
+     */
+    public void add(LogHistogram other) {
+        if (!sameConfiguration(other)) {
+            throw new IllegalArgumentException("Cannot merge histograms with different configurations");
+        }
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        totalCount += other.totalCount;
+        sum += other.sum;
+        if (other.min < min) min = other.min;
+        if (other.max > max) max = other.max;
+    }
+
+    public boolean sameConfiguration(LogHistogram other) {
+        return lowestDiscernible == other.lowestDiscernible
+                && highestTrackable == other.highestTrackable
+                && significantDigits == other.significantDigits;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    // ===== Index arithmetic (HdrHistogram) =====
+
+    private int countsIndex(long units) {
+        int bucket = 64 - Long.numberOfLeadingZeros(units | subBucketMask) - (subBucketHalfCountMagnitude + 1);
+        int subBucket = (int) (units >>> bucket);
+        return ((bucket + 1) << subBucketHalfCountMagnitude) + (subBucket - subBucketHalfCount);
+    }
+
+    private long unitsAt(int index) {
+        int bucket = (index >> subBucketHalfCountMagnitude) - 1;
+        int subBucket = (index & (subBucketHalfCount - 1)) + subBucketHalfCount;
+        if (bucket < 0) {
+            subBucket -= subBucketHalfCount;
+            bucket = 0;
+        }
+        return (long) subBucket << bucket;
+    }
+
+    private long bucketWidth(int index) {
+        int bucket = Math.max(0, (index >> subBucketHalfCountMagnitude) - 1);
+        return 1L << bucket;
+    }
+
+    // ===== Queries =====
+
+    /**
+     * Value at a percentile in [0, 100]: the highest value equivalent to the bucket holding
+     * that rank (HdrHistogram convention), capped at the recorded max; 0 when empty
+     */
+    public double getValueAtPercentile(double percentile) {
+        if (totalCount == 0) return 0;
+        double p = Math.min(100, Math.max(0, percentile));
+        long rank = Math.max(1, (long) Math.ceil(p / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                double highestEquivalent = (unitsAt(i) + bucketWidth(i)) * lowestDiscernible;
+                return Math.max(min, Math.min(max, highestEquivalent));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Fraction of recorded values at or below a threshold (e.g. an SLA deadline), in [0, 1]
+     */
+    public double getFractionAtOrBelow(double value) {
+        if (totalCount == 0) return 0;
+        if (value >= max) return 1;
+        long units = value < 0 ? -1 : (long) Math.min(maxUnits, Math.floor(value / lowestDiscernible));
+        if (units < 0) return 0;
+        int last = countsIndex(units);
+        long below = 0;
+        for (int i = 0; i <= last; i++) below += counts[i];
+        return (double) below / totalCount;
+    }
+
+    public long getTotalCount() { return totalCount; }
+    public double getMean() { return totalCount > 0 ? sum / totalCount : 0; }
+    public double getMin() { return totalCount > 0 ? min : 0; }
+    public double getMax() { return totalCount > 0 ? max : 0; }
+    public double getLowestDiscernible() { return lowestDiscernible; }
+    public double getHighestTrackable() { return highestTrackable; }
+    public int getSignificantDigits() { return significantDigits; }
+    /** Size of the fixed counts array */
+    public int getBucketCount() { return counts.length; }
+
+    // ===== JSON (sparse counts, lossless) =====
+
+    /**
+     * Write configuration, summary percentiles and non-zero counts as one JSON object
+     */
+    public void writeJson(JsonWriter out) throws IOException {
+        out.beginObject();
+        out.name("lowestDiscernible").value(lowestDiscernible);
+        out.name("highestTrackable").value(highestTrackable);
+        out.name("significantDigits").value(significantDigits);
+        out.name("count").value(totalCount);
+        out.name("sum").value(sum);
+        out.name("min").value(getMin());
+        out.name("max").value(getMax());
+        out.name("mean").value(getMean());
+        out.name("percentiles").beginObject();
+        for (double p : new double[]{50, 90, 95, 99, 99.9}) {
+            out.name("p" + (p == Math.rint(p) ? String.valueOf((int) p) : String.valueOf(p)))
+                    .value(getValueAtPercentile(p));
+        }
+        out.endObject();
+        // Pairs of [counts index, count]
+        out.name("counts").beginArray();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) continue;
+            out.beginArray().value(i).value(counts[i]).endArray();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    public static LogHistogram readJson(JsonReader in) throws IOException {
+        double lowest = 0, highest = 0, sum = 0, min = 0, max = 0;
+        int digits = 0;
+        long count = 0;
+        long[][] pairs = new long[0][];
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "lowestDiscernible": lowest = in.nextDouble(); break;
+                case "highestTrackable": highest = in.nextDouble(); break;
+                case "significantDigits": digits = in.nextInt(); break;
+                case "count": count = in.nextLong(); break;
+                case "sum": sum = in.nextDouble(); break;
+                case "min": min = in.nextDouble(); break;
+                case "max": max = in.nextDouble(); break;
+                case "counts": {
+                    List<long[]> list = new ArrayList<>();
+                    in.beginArray();
+                    while (in.peek() != JsonToken.END_ARRAY) {
+                        in.beginArray();
+                        list.add(new long[]{in.nextLong(), in.nextLong()});
+                        in.endArray();
+                    }
+                    in.endArray();
+                    pairs = list.toArray(new long[0][]);
+                    break;
+                }
+                default: in.skipValue(); // Derived fields (mean, percentiles)
+            }
+        }
+        in.endObject();
+
+        LogHistogram h = new LogHistogram(lowest, highest, digits);
+        for (long[] pair : pairs) h.counts[(int) pair[0]] = pair[1];
+        h.totalCount = count;
+        h.sum = sum;
+        if (count > 0) {
+            h.min = min;
+            h.max = max;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Histogram{count=%d, mean=%.4f, p50=%.4f, p99=%.4f, p99.9=%.4f, max=%.4f}",
+                totalCount, getMean(), getValueAtPercentile(50), getValueAtPercentile(99),
+                getValueAtPercentile(99.9), getMax());
+    }
+}
@@ -1,96 +1,153 @@
 
 package simulation.analysis;
 
-import com.opencsv.CSVWriter;
-
 import simulation.model.MetricEntry;
+import simulation.model.MetricStore;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileWriter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MetricsExporter {
     private static final Logger logger = LoggerFactory.getLogger(MetricsExporter.class);
 
     public static void exportToCSV(String filename, List<MetricEntry> metrics) {
-        try (CSVWriter writer = new CSVWriter(new FileWriter(filename))) {
-            // Write header
-            String[] header = {
-                "Timestamp", "EventType", "EntityId", 
-                "Cost", "Latency", "Energy", "Successful", "CustomValues"
-            };
-            writer.writeNext(header);
-
-            // Write metrics
-            for (MetricEntry metric : metrics) {
-                writer.writeNext(metric.toCSVRow());
-            }
+        exportToCSV(filename, MetricStore.of(metrics));
+    }
 
-            logger.info("Exported {} metrics to {}", metrics.size(), filename);
-        } catch (IOException e) {
-            logger.error("Failed to export metrics to CSV", e);
-            throw new RuntimeException("CSV export failed", e);
+    /**
+     * Write rows straight from the columns; same format as MetricEntry.toCSVRow
+     */
+    public static void exportToCSV(String filename, MetricStore store) {
+        try (MetricsStreamWriter writer = new MetricsStreamWriter(filename, null, isGzip(filename), false)) {
+            writer.writeAll(store);
         }
+        logger.info("Exported {} metrics to {}", store.size(), filename);
     }
 
     public static void exportToJSON(String filename, List<MetricEntry> metrics) {
-        com.google.gson.Gson gson = new com.google.gson.GsonBuilder().setPrettyPrinting().create();
-        try (FileWriter writer = new FileWriter(filename)) {
-            gson.toJson(metrics, writer);
-            logger.info("Exported {} metrics to {}", metrics.size(), filename);
+        exportToJSON(filename, MetricStore.of(metrics));
+    }
+
+    /**
+     * Stream rows as a pretty-printed array with MetricEntry's field names
+     */
+    public static void exportToJSON(String filename, MetricStore store) {
+        try (MetricsStreamWriter writer = new MetricsStreamWriter(null, filename, isGzip(filename), true)) {
+            writer.writeAll(store);
+        }
+        logger.info("Exported {} metrics to {}", store.size(), filename);
+    }
+
+    /**
+     * Fixed-width columnar binary file with per-column min/max; read with BinaryMetricsReader
+     * or numpy (layout in BinaryMetricsFormat and the README)
+     */
+    public static void exportToBinary(String filename, MetricStore store) {
+        try {
+            BinaryMetricsFormat.write(Paths.get(filename), store);
+            logger.info("Exported {} metrics to {}", store.size(), filename);
+        } catch (IOException e) {
+            logger.error("Failed to export metrics to binary", e);
+            throw new RuntimeException("Binary export failed", e);
+        }
+    }
+
+    /**
+     * Named histograms as one JSON object; counts are kept, so files from many runs can be
+     * read back with importHistograms and merged losslessly
+     */
+    public static void exportHistograms(String filename, Map<String, LogHistogram> histograms) {
+        Path path = Paths.get(filename);
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            try (JsonWriter out = new JsonWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+                out.setIndent("  ");
+                out.beginObject();
+                for (Map.Entry<String, LogHistogram> e : histograms.entrySet()) {
+                    out.name(e.getKey());
+                    e.getValue().writeJson(out);
+                }
+                out.endObject();
+            }
+            logger.info("Exported {} histograms to {}", histograms.size(), filename);
+        } catch (IOException e) {
+            logger.error("Failed to export histograms", e);
+            throw new RuntimeException("Histogram export failed", e);
+        }
+    }
+
+    public static Map<String, LogHistogram> importHistograms(String filename) {
+        Map<String, LogHistogram> histograms = new LinkedHashMap<>();
+        try (JsonReader in = new JsonReader(Files.newBufferedReader(Paths.get(filename), StandardCharsets.UTF_8))) {
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                histograms.put(name, LogHistogram.readJson(in));
+            }
+            in.endObject();
         } catch (IOException e) {
-            logger.error("Failed to export metrics to JSON", e);
-            throw new RuntimeException("JSON export failed", e);
+            logger.error("Failed to import histograms", e);
+            throw new RuntimeException("Histogram import failed", e);
         }
+        return histograms;
+    }
+
+    private static boolean isGzip(String filename) {
+        return filename.endsWith(".gz");
     }
 
     public static String generateSummaryReport(List<MetricEntry> metrics) {
+        return generateSummaryReport(MetricStore.of(metrics));
+    }
+
+    public static String generateSummaryReport(MetricStore store) {
+        int n = store.size();
         StringBuilder report = new StringBuilder();
         report.append("=== Simulation Metrics Summary ===\n\n");
-        report.append(String.format("Total Metrics: %d\n", metrics.size()));
+        report.append(String.format("Total Metrics: %d\n", n));
         
         // Count by event type
-        java.util.Map<String, Long> eventCounts = metrics.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                MetricEntry::getEventType, 
-                java.util.stream.Collectors.counting()
-            ));
+        long[] eventCounts = store.countByType();
         
         report.append("\nEvent Distribution:\n");
-        eventCounts.forEach((event, count) -> 
-            report.append(String.format("  %s: %d\n", event, count))
-        );
+        for (int code = 0; code < eventCounts.length; code++) {
+            report.append(String.format("  %s: %d\n", store.getTypeName(code), eventCounts[code]));
+        }
 
         // Cost statistics
-        double totalCost = metrics.stream()
-            .mapToDouble(MetricEntry::getCost)
-            .sum();
-        double avgCost = metrics.stream()
-            .mapToDouble(MetricEntry::getCost)
-            .average()
-            .orElse(0.0);
+        double totalCost = 0;
+        double totalLatency = 0;
+        for (int i = 0; i < n; i++) {
+            totalCost += store.getCost(i);
+            totalLatency += store.getLatency(i);
+        }
+        double avgCost = n > 0 ? totalCost / n : 0.0;
 
         report.append(String.format("\nCost Analysis:\n"));
         report.append(String.format("  Total Cost: $%.4f\n", totalCost));
         report.append(String.format("  Average Cost: $%.4f\n", avgCost));
 
         // Latency statistics
-        double avgLatency = metrics.stream()
-            .mapToDouble(MetricEntry::getLatency)
-            .average()
-            .orElse(0.0);
+        double avgLatency = n > 0 ? totalLatency / n : 0.0;
 
         report.append(String.format("\nLatency Analysis:\n"));
         report.append(String.format("  Average Latency: %.2f ms\n", avgLatency));
 
         // Success rate
-        long successCount = metrics.stream()
-            .filter(MetricEntry::isSuccessful)
-            .count();
-        double successRate = (double) successCount / metrics.size() * 100;
+        long successCount = store.countSuccessful();
+        double successRate = (double) successCount / n * 100;
 
         report.append(String.format("\nSuccess Rate: %.2f%%\n", successRate));
 
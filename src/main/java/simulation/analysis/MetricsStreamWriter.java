@@ -0,0 +1,133 @@
+package simulation.analysis;
+
+import com.google.gson.stream.JsonWriter;
+import com.opencsv.CSVWriter;
+
+import simulation.model.MetricEntry;
+import simulation.model.MetricStore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Metrics Stream Writer: writes metric rows to CSV and/or JSON as they are produced
+ * Rows go through 64 KB buffers (optionally gzip-compressed) and are never kept in memory.
+ * CSV rows match MetricEntry.toCSVRow; JSON is an array of objects with MetricEntry's
+ * field names, compact by default (pretty printing makes the file several times larger).
+ */
+public class MetricsStreamWriter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MetricsStreamWriter.class);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String[] HEADER = {
+        "Timestamp", "EventType", "EntityId",
+        "Cost", "Latency", "Energy", "Successful", "CustomValues"
+    };
+
+    private final CSVWriter csv;
+    private final JsonWriter json;
+    private final String[] row = new String[HEADER.length];
+    private long rowCount = 0;
+
+    /**
+     * @param csvFile CSV output, or null for none
+     * @param jsonFile JSON output, or null for none
+     * @param gzip gzip-compress both outputs (callers choose the .gz file names)
+     * @param prettyJson indent JSON like the list exporter
+     */
+    public MetricsStreamWriter(String csvFile, String jsonFile, boolean gzip, boolean prettyJson) {
+        try {
+            this.csv = csvFile == null ? null : new CSVWriter(open(csvFile, gzip));
+            if (csv != null) csv.writeNext(HEADER);
+
+            this.json = jsonFile == null ? null : new JsonWriter(open(jsonFile, gzip));
+            if (json != null) {
+                if (prettyJson) json.setIndent("  ");
+                json.beginArray();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to open metrics stream", e);
+            throw new RuntimeException("Metrics stream open failed", e);
+        }
+    }
+
+    private static Writer open(String file, boolean gzip) throws IOException {
+        Path path = Paths.get(file);
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        OutputStream out = Files.newOutputStream(path);
+        if (gzip) out = new GZIPOutputStream(out, BUFFER_SIZE);
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public void write(MetricEntry m) {
+        write(m.getType(), m.getTargetId(), m.isSuccess(), m.getTimestamp(),
+                m.getCost(), m.getLatency(), m.getEnergyConsumption());
+    }
+
+    public void write(String type, long targetId, boolean success, long timestamp,
+                      double cost, double latency, double energy) {
+        if (csv != null) {
+            row[0] = String.valueOf(timestamp);
+            row[1] = type;
+            row[2] = String.valueOf(targetId);
+            row[3] = String.valueOf(cost);
+            row[4] = String.valueOf(latency);
+            row[5] = String.valueOf(energy);
+            row[6] = String.valueOf(success);
+            row[7] = "";
+            csv.writeNext(row);
+        }
+        if (json != null) {
+            try {
+                json.beginObject();
+                json.name("type").value(type);
+                json.name("targetId").value(targetId);
+                json.name("success").value(success);
+                json.name("timestamp").value(timestamp);
+                json.name("cost").value(cost);
+                json.name("latency").value(latency);
+                json.name("energyConsumption").value(energy);
+                json.endObject();
+            } catch (IOException e) {
+                logger.error("Failed to stream metric to JSON", e);
+                throw new RuntimeException("JSON export failed", e);
+            }
+        }
+        rowCount++;
+    }
+
+    public void writeAll(MetricStore store) {
+        int n = store.size();
+        for (int i = 0; i < n; i++) {
+            write(store.getType(i), store.getTargetId(i), store.isSuccess(i), store.getTimestamp(i),
+                    store.getCost(i), store.getLatency(i), store.getEnergyConsumption(i));
+        }
+    }
+
+    public long getRowCount() { return rowCount; }
+
+    @Override
+    public void close() {
+        try {
+            if (csv != null) {
+                boolean failed = csv.checkError(); // Flushes; opencsv records write errors
+                csv.close();
+                if (failed) throw new IOException("CSV writer reported an error");
+            }
+            if (json != null) {
+                json.endArray();
+                json.close();
+            }
+        } catch (IOException e) {
+            logger.error("Failed to close metrics stream", e);
+            throw new RuntimeException("Metrics stream close failed", e);
+        }
+    }
+}
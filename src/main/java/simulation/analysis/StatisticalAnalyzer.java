@@ -1,10 +1,11 @@
 
 package simulation.analysis;
 
+import java.nio.DoubleBuffer;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import simulation.model.MetricEntry;
+import simulation.model.MetricStore;
 
 public class StatisticalAnalyzer {
 
@@ -15,89 +16,93 @@ public class StatisticalAnalyzer {
         public double min;
         public double max;
         public int count;
+        public double p95;
+        public double p99;
+        public double p999;
 
         public Statistics(double mean, double median, double stdDev, 
                          double min, double max, int count) {
+            this(mean, median, stdDev, min, max, count, 0, 0, 0);
+        }
+
+        public Statistics(double mean, double median, double stdDev, double min, double max, int count,
+                          double p95, double p99, double p999) {
             this.mean = mean;
             this.median = median;
             this.stdDev = stdDev;
             this.min = min;
             this.max = max;
             this.count = count;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.p999 = p999;
         }
 
         @Override
         public String toString() {
             return String.format(
-                "Stats{mean=%.4f, median=%.4f, stdDev=%.4f, min=%.4f, max=%.4f, count=%d}",
-                mean, median, stdDev, min, max, count
+                "Stats{mean=%.4f, median=%.4f, stdDev=%.4f, min=%.4f, max=%.4f, count=%d, "
+                    + "p95=%.4f, p99=%.4f, p99.9=%.4f}",
+                mean, median, stdDev, min, max, count, p95, p99, p999
             );
         }
     }
 
+    // Single pass over the values; the median and percentiles come from a t-digest sketch
+    // (exact for small samples, approximate beyond a few hundred values)
+
     public static Statistics analyzeMetric(List<Double> values) {
-        if (values.isEmpty()) {
-            return new Statistics(0, 0, 0, 0, 0, 0);
-        }
+        StreamingStatistics stats = new StreamingStatistics();
+        for (Double v : values) stats.add(v);
+        return stats.toStatistics();
+    }
 
-        // Mean
-        double mean = values.stream()
-            .mapToDouble(Double::doubleValue)
-            .average()
-            .orElse(0.0);
-
-        // Median
-        List<Double> sorted = values.stream()
-            .sorted()
-            .collect(Collectors.toList());
-        double median = sorted.size() % 2 == 0 ?
-            (sorted.get(sorted.size() / 2 - 1) + sorted.get(sorted.size() / 2)) / 2.0 :
-            sorted.get(sorted.size() / 2);
-
-        // Standard Deviation
-        double variance = values.stream()
-            .mapToDouble(v -> Math.pow(v - mean, 2))
-            .average()
-            .orElse(0.0);
-        double stdDev = Math.sqrt(variance);
-
-        // Min and Max
-        double min = values.stream().mapToDouble(Double::doubleValue).min().orElse(0.0);
-        double max = values.stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
-
-        return new Statistics(mean, median, stdDev, min, max, values.size());
+    public static Statistics analyzeMetric(double[] values) {
+        StreamingStatistics stats = new StreamingStatistics();
+        stats.addAll(values, 0, values.length);
+        return stats.toStatistics();
     }
 
-    public static void analyzeAndPrintMetrics(List<MetricEntry> metrics) {
-        System.out.println("\n=== Statistical Analysis ===\n");
+    /**
+     * Statistics of a column view (e.g. from BinaryMetricsReader); the view is left unchanged
+     */
+    public static Statistics analyzeMetric(DoubleBuffer column) {
+        StreamingStatistics stats = new StreamingStatistics();
+        for (int i = column.position(); i < column.limit(); i++) stats.add(column.get(i));
+        return stats.toStatistics();
+    }
 
-        // Cost analysis
-        List<Double> costs = metrics.stream()
-            .map(MetricEntry::getCost)
-            .collect(Collectors.toList());
-        System.out.println("Cost Statistics: " + analyzeMetric(costs));
+    public static Statistics analyzeMetric(MetricStore store, MetricStore.Column column) {
+        StreamingStatistics stats = new StreamingStatistics();
+        for (int row = 0, n = store.size(); row < n; row++) stats.add(store.get(column, row));
+        return stats.toStatistics();
+    }
 
-        // Latency analysis
-        List<Double> latencies = metrics.stream()
-            .map(MetricEntry::getLatency)
-            .collect(Collectors.toList());
-        System.out.println("Latency Statistics: " + analyzeMetric(latencies));
+    public static void analyzeAndPrintMetrics(List<MetricEntry> metrics) {
+        analyzeAndPrintMetrics(MetricStore.of(metrics));
+    }
 
-        // Energy analysis
-        List<Double> energies = metrics.stream()
-            .map(MetricEntry::getEnergyConsumption)
-            .collect(Collectors.toList());
-        System.out.println("Energy Statistics: " + analyzeMetric(energies));
+    public static void analyzeAndPrintMetrics(MetricStore store) {
+        System.out.println("\n=== Statistical Analysis ===\n");
+
+        // One pass over the rows for all three metrics
+        StreamingStatistics cost = new StreamingStatistics();
+        StreamingStatistics latency = new StreamingStatistics();
+        StreamingStatistics energy = new StreamingStatistics();
+        for (int row = 0, n = store.size(); row < n; row++) {
+            cost.add(store.getCost(row));
+            latency.add(store.getLatency(row));
+            energy.add(store.getEnergyConsumption(row));
+        }
+        System.out.println("Cost Statistics: " + cost.toStatistics());
+        System.out.println("Latency Statistics: " + latency.toStatistics());
+        System.out.println("Energy Statistics: " + energy.toStatistics());
 
         // Event distribution
-        Map<String, Long> eventDist = metrics.stream()
-            .collect(Collectors.groupingBy(
-                MetricEntry::getEventType,
-                Collectors.counting()
-            ));
+        long[] eventDist = store.countByType();
         System.out.println("\nEvent Distribution:");
-        eventDist.forEach((event, count) -> 
-            System.out.printf("  %s: %d\n", event, count)
-        );
+        for (int code = 0; code < eventDist.length; code++) {
+            System.out.printf("  %s: %d\n", store.getTypeName(code), eventDist[code]);
+        }
     }
 }
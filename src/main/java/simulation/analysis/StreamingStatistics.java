@@ -0,0 +1,100 @@
+package simulation.analysis;
+
+/**
+ * Streaming Statistics: single-pass accumulator over primitive doubles
+ * Count, mean and variance use Welford's update (numerically stable, no second pass);
+ * min and max are exact; quantiles come from a TDigest. Accumulators built on separate
+ * threads or partitions combine with merge (Chan et al. for the moments).
+ * Not thread-safe.
+ */
+public class StreamingStatistics {
+
+    private long count = 0;
+    private double mean = 0;
+    private double m2 = 0; // Sum of squared deviations from the mean
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final TDigest digest;
+
+    public StreamingStatistics() {
+        this(TDigest.DEFAULT_COMPRESSION);
+    }
+
+    public StreamingStatistics(double compression) {
+        this.digest = new TDigest(compression);
+    }
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) min = value;
+        if (value > max) max = value;
+        digest.add(value);
+    }
+
+    public void addAll(double[] values, int from, int to) {
+        for (int i = from; i < to; i++) add(values[i]);
+    }
+
+    public void merge(StreamingStatistics other) {
+        if (other.count == 0) return;
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / n;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        count = n;
+        if (other.min < min) min = other.min;
+        if (other.max > max) max = other.max;
+        digest.merge(other.digest);
+    }
+
+    public long getCount() { return count; }
+    public double getMean() { return count > 0 ? mean : 0; }
+    /** Population variance */
+    public double getVariance() { return count > 0 ? m2 / count : 0; }
+    public double getStdDev() { return Math.sqrt(getVariance()); }
+    public double getMin() { return count > 0 ? min : 0; }
+    public double getMax() { return count > 0 ? max : 0; }
+    public double getMedian() { return getQuantile(0.5); }
+
+    /** Unbiased (n - 1) variance, for inference about the mean */
+    public double getSampleVariance() { return count > 1 ? m2 / (count - 1) : 0; }
+
+    /**
+     * Half-width of the two-sided 95% Student-t confidence interval for the mean
+     * (mean +/- this); 0 with fewer than two values
+     */
+    public double getConfidenceHalfWidth95() {
+        if (count < 2) return 0;
+        return tCritical95(count - 1) * Math.sqrt(getSampleVariance() / count);
+    }
+
+    // Two-sided 95% t critical values for 1..30 degrees of freedom
+    private static final double[] T_975 = {
+        12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+        2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+        2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+
+    static double tCritical95(long degreesOfFreedom) {
+        if (degreesOfFreedom <= T_975.length) return T_975[(int) degreesOfFreedom - 1];
+        // Cornish-Fisher expansion around the normal quantile, within 1e-3 beyond 30
+        double z = 1.959964, df = degreesOfFreedom;
+        return z + (z * z * z + z) / (4 * df) + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96 * df * df);
+    }
+
+    /**
+     * Estimated value at quantile q in [0, 1]; 0 when empty
+     */
+    public double getQuantile(double q) {
+        return count > 0 ? digest.quantile(q) : 0;
+    }
+
+    public StatisticalAnalyzer.Statistics toStatistics() {
+        return new StatisticalAnalyzer.Statistics(getMean(), getMedian(), getStdDev(), getMin(), getMax(),
+                (int) Math.min(count, Integer.MAX_VALUE),
+                getQuantile(0.95), getQuantile(0.99), getQuantile(0.999));
+    }
+}
@@ -0,0 +1,222 @@
+package simulation.analysis;
+
+/**
+ * T-Digest: mergeable quantile sketch (Dunning & Ertl, merging variant)
+ * Values are buffered and periodically merged into weighted centroids whose size is bounded
+ * by the k1 scale function, so centroids near the tails stay small and extreme quantiles
+ * (p99, p99.9) remain accurate. Memory is O(compression) regardless of the number of values.
+ * Small samples (up to about compression / 2 values) keep one centroid per value, so their
+ * quantiles interpolate exactly between order statistics.
+ * Not thread-safe; give each thread its own digest and merge them.
+ */
+public class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 200;
+
+    private final double compression;
+    private double[] mean = new double[0];
+    private double[] weight = new double[0];
+    private int centroids = 0;
+
+    private final double[] bufferMean;
+    private final double[] bufferWeight;
+    private int buffered = 0;
+
+    private double totalWeight = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10: " + compression);
+        }
+        this.compression = compression;
+        int bufferSize = (int) (5 * compression);
+        this.bufferMean = new double[bufferSize];
+        this.bufferWeight = new double[bufferSize];
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    public void add(double value, double w) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN to a t-digest");
+        }
+        if (buffered == bufferMean.length) compress();
+        bufferMean[buffered] = value;
+        bufferWeight[buffered] = w;
+        buffered++;
+        totalWeight += w;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Fold another digest into this one (the other digest is compressed but otherwise unchanged)
+     */
+    public void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroids; i++) {
+            add(other.mean[i], other.weight[i]);
+        }
+        // Centroid means lie inside [min, max]; keep the exact extremes
+        if (other.min < min) min = other.min;
+        if (other.max > max) max = other.max;
+    }
+
+    /**
+     * Merge buffered values into the centroid list
+     */
+    public void compress() {
+        if (buffered == 0) return;
+        sort(bufferMean, bufferWeight, 0, buffered - 1);
+
+        int n = centroids + buffered;
+        double[] outMean = new double[n];
+        double[] outWeight = new double[n];
+        int out = 0;
+
+        // Two-way merge of the sorted centroids and buffer, greedily combining neighbours
+        int a = 0, b = 0;
+        double wSoFar = 0;
+        double wLimit = totalWeight * q(k(0) + 1);
+        double curMean = 0, curWeight = 0;
+        while (a < centroids || b < buffered) {
+            double m, w;
+            if (b >= buffered || (a < centroids && mean[a] <= bufferMean[b])) {
+                m = mean[a];
+                w = weight[a++];
+            } else {
+                m = bufferMean[b];
+                w = bufferWeight[b++];
+            }
+
+            if (curWeight == 0) {
+                curMean = m;
+                curWeight = w;
+            } else if (wSoFar + curWeight + w <= wLimit) {
+                curWeight += w;
+                curMean += (m - curMean) * w / curWeight;
+            } else {
+                wSoFar += curWeight;
+                outMean[out] = curMean;
+                outWeight[out++] = curWeight;
+                wLimit = totalWeight * q(k(wSoFar / totalWeight) + 1);
+                curMean = m;
+                curWeight = w;
+            }
+        }
+        outMean[out] = curMean;
+        outWeight[out++] = curWeight;
+
+        this.mean = outMean;
+        this.weight = outWeight;
+        this.centroids = out;
+        this.buffered = 0;
+    }
+
+    /**
+     * Estimated value at quantile q in [0, 1]; NaN when empty
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        compress();
+        if (centroids == 0) return Double.NaN;
+        if (centroids == 1) return mean[0];
+        if (q == 0) return min;
+        if (q == 1) return max;
+
+        double index = q * totalWeight;
+        // Tails: interpolate between the exact extreme and the outermost centroid
+        if (index < weight[0] / 2) {
+            return min + (mean[0] - min) * index / (weight[0] / 2);
+        }
+        int last = centroids - 1;
+        if (index > totalWeight - weight[last] / 2) {
+            return max - (max - mean[last]) * (totalWeight - index) / (weight[last] / 2);
+        }
+
+        // Centroid i is centred at cumulative weight (sum of earlier weights) + weight[i] / 2
+        double cumulative = weight[0] / 2;
+        for (int i = 0; i < last; i++) {
+            double gap = (weight[i] + weight[i + 1]) / 2;
+            if (cumulative + gap >= index) {
+                return mean[i] + (mean[i + 1] - mean[i]) * (index - cumulative) / gap;
+            }
+            cumulative += gap;
+        }
+        return mean[last];
+    }
+
+    public double getTotalWeight() { return totalWeight; }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+    public double getCompression() { return compression; }
+
+    /** Number of centroids after compression (sketch size) */
+    public int getCentroidCount() {
+        compress();
+        return centroids;
+    }
+
+    // k1 scale function and its inverse
+    private double k(double q) {
+        return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    private double q(double k) {
+        double clamped = Math.min(compression / 4, k);
+        return (Math.sin(clamped * 2 * Math.PI / compression) + 1) / 2;
+    }
+
+    /**
+     * Quicksort of parallel arrays by key (buffer weights travel with their means)
+     */
+    private static void sort(double[] key, double[] value, int lo, int hi) {
+        while (hi - lo > 16) {
+            double pivot = key[(lo + hi) >>> 1];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (key[i] < pivot) i++;
+                while (key[j] > pivot) j--;
+                if (i <= j) {
+                    swap(key, value, i++, j--);
+                }
+            }
+            // Recurse into the smaller half, loop on the larger
+            if (j - lo < hi - i) {
+                sort(key, value, lo, j);
+                lo = i;
+            } else {
+                sort(key, value, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && key[j - 1] > key[j]; j--) swap(key, value, j - 1, j);
+        }
+    }
+
+    private static void swap(double[] key, double[] value, int i, int j) {
+        double k = key[i];
+        key[i] = key[j];
+        key[j] = k;
+        double v = value[i];
+        value[i] = value[j];
+        value[j] = v;
+    }
+
+    @Override
+    public String toString() {
+        return "TDigest{compression=" + compression + ", weight=" + totalWeight
+                + ", centroids=" + getCentroidCount() + '}';
+    }
+}
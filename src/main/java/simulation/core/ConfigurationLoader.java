@@ -12,13 +12,25 @@ import java.util.Map;
 public class ConfigurationLoader {
     private static final Logger logger = LoggerFactory.getLogger(ConfigurationLoader.class);
 
-    @SuppressWarnings("unchecked")
     public static SimulationConfig loadFromYAML(String path) {
-        SimulationConfig cfg = new SimulationConfig();
         try (InputStream in = Files.newInputStream(Paths.get(path))) {
             Map<String, Object> root = new Yaml().load(in);
-            if (root == null) return cfg;
+            return root != null ? fromMap(root) : new SimulationConfig();
+        }
+        catch (Exception e) {
+            logger.error("Failed to load config, using defaults", e);
+            return new SimulationConfig();
+        }
+    }
 
+    /**
+     * Config from an already parsed YAML tree; keys that are missing or not scalars keep their
+     * defaults. The tree is only read, so one tree can back any number of configs.
+     */
+    @SuppressWarnings("unchecked")
+    public static SimulationConfig fromMap(Map<String, Object> root) {
+        SimulationConfig cfg = new SimulationConfig();
+        try {
             // Top-level simple fields
             cfg.setSimulationTime(getDouble(root, "simulationTime", cfg.getSimulationTime()));
             cfg.setRandomSeed(getLong(root, "randomSeed", cfg.getRandomSeed()));
@@ -50,6 +62,7 @@ public class ConfigurationLoader {
             if (workload != null) {
                 cfg.setTaskCount(getInt(workload, "taskCount", cfg.getTaskCount()));
                 cfg.setArrivalRate(getDouble(workload, "arrivalRate", cfg.getArrivalRate()));
+                cfg.setStreamingWorkload(getBoolean(workload, "streaming", cfg.isStreamingWorkload()));
 
                 Map<String, Object> comp = getMap(workload, "taskComputeRange");
                 if (comp != null) {
@@ -85,6 +98,72 @@ public class ConfigurationLoader {
                 cfg.setEnergyCost(getDouble(cost, "energy", cfg.getEnergyCost()));
             }
 
+            // UAV fleet
+            Map<String, Object> uav = getMap(root, "uav");
+            if (uav != null) {
+                cfg.setUavCount(getInt(uav, "count", cfg.getUavCount()));
+                cfg.setUavAltitude(getDouble(uav, "altitude", cfg.getUavAltitude()));
+                cfg.setUavCapacityPerNode(getInt(uav, "capacityPerNode", cfg.getUavCapacityPerNode()));
+                cfg.setCapacitatedPlacement(getBoolean(uav, "capacitatedPlacement", cfg.isCapacitatedPlacement()));
+            }
+
+            // Simulation area
+            Map<String, Object> area = getMap(root, "area");
+            if (area != null) {
+                cfg.setAreaWidth(getDouble(area, "width", cfg.getAreaWidth()));
+                cfg.setAreaHeight(getDouble(area, "height", cfg.getAreaHeight()));
+            }
+
+            // Channel model
+            Map<String, Object> channel = getMap(root, "channel");
+            if (channel != null) {
+                cfg.setPathLossMode(getString(channel, "pathLossMode", cfg.getPathLossMode()));
+                cfg.setPathLossTableError(getDouble(channel, "tableMaxError", cfg.getPathLossTableError()));
+                cfg.setVectorizedChannel(getBoolean(channel, "vectorized", cfg.isVectorizedChannel()));
+                cfg.setInterference(getBoolean(channel, "interference", cfg.isInterference()));
+                cfg.setInterferencePrbPool(getInt(channel, "prbPoolSize", cfg.getInterferencePrbPool()));
+            }
+
+            // Optimization
+            Map<String, Object> opt = getMap(root, "optimization");
+            if (opt != null) {
+                cfg.setRevenueParameter(getDouble(opt, "revenueParameter", cfg.getRevenueParameter()));
+                cfg.setCostParameter(getDouble(opt, "costParameter", cfg.getCostParameter()));
+                cfg.setAggressionLevel(getDouble(opt, "aggressionLevel", cfg.getAggressionLevel()));
+                cfg.setOptimizationIterations(getInt(opt, "iterations", cfg.getOptimizationIterations()));
+                cfg.setKMeansAlgorithm(getString(opt, "kMeansAlgorithm", cfg.getKMeansAlgorithm()));
+                cfg.setParallelMatching(getBoolean(opt, "parallelMatching", cfg.isParallelMatching()));
+                cfg.setMatchingParallelism(getInt(opt, "parallelism", cfg.getMatchingParallelism()));
+                cfg.setMatchingBackend(getString(opt, "matchingBackend", cfg.getMatchingBackend()));
+                cfg.setServerPruning(getBoolean(opt, "serverPruning", cfg.isServerPruning()));
+                cfg.setOffloadingPolicy(getString(opt, "offloadingPolicy", cfg.getOffloadingPolicy()));
+                cfg.setPolicyUpdateInterval(getDouble(opt, "policyUpdateInterval", cfg.getPolicyUpdateInterval()));
+                cfg.setEpochWindow(getDouble(opt, "epochWindow", cfg.getEpochWindow()));
+            }
+
+            // Metrics collection
+            Map<String, Object> metrics = getMap(root, "metrics");
+            if (metrics != null) {
+                cfg.setMetricsBufferCapacity(getInt(metrics, "bufferCapacity", cfg.getMetricsBufferCapacity()));
+                cfg.setMetricsBackpressure(getString(metrics, "backpressure", cfg.getMetricsBackpressure()));
+            }
+
+            // Result export
+            Map<String, Object> export = getMap(root, "export");
+            if (export != null) {
+                cfg.setStreamingExport(getBoolean(export, "streaming", cfg.isStreamingExport()));
+                cfg.setExportGzip(getBoolean(export, "gzip", cfg.isExportGzip()));
+                cfg.setPrettyJson(getBoolean(export, "prettyJson", cfg.isPrettyJson()));
+                cfg.setBinaryExport(getBoolean(export, "binary", cfg.isBinaryExport()));
+            }
+
+            // Replication runner
+            Map<String, Object> replication = getMap(root, "replication");
+            if (replication != null) {
+                cfg.setReplicationSeeds(getInt(replication, "seeds", cfg.getReplicationSeeds()));
+                cfg.setReplicationParallelism(getInt(replication, "parallelism", cfg.getReplicationParallelism()));
+            }
+
             return cfg;
         }
         catch (Exception e) {
@@ -115,6 +194,11 @@ public class ConfigurationLoader {
         return (o instanceof Number) ? ((Number)o).doubleValue() : def;
     }
 
+    private static boolean getBoolean(Map<String, Object> m, String k, boolean def) {
+        Object o = m.get(k);
+        return (o instanceof Boolean) ? (Boolean) o : def;
+    }
+
     private static String getString(Map<String, Object> m, String k, String def) {
         Object o = m.get(k);
         return o != null ? o.toString() : def;
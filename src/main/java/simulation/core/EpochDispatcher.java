@@ -0,0 +1,182 @@
+package simulation.core;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.CloudSimEntity;
+import org.cloudbus.cloudsim.core.events.SimEvent;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import simulation.analysis.LogHistogram;
+import simulation.model.MECServer;
+import simulation.model.Task;
+import simulation.optimization.CostOptimizer;
+import simulation.optimization.RTMSCMatcher;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Epoch Dispatcher: batches arriving tasks over a fixed window of simulated time and
+ * associates every batch at once with the optimizer's matching backend (R-TMSC by default)
+ * Tasks are collected from the workload as the clock reaches their arrival. At each epoch
+ * boundary the batch is matched against the UAV fleet and the servers hosting VMs, and each
+ * matched cloudlet is bound to a VM of its server and submitted. The matcher resets UAV loads
+ * per call, so relay capacity applies per epoch.
+ *
+ * A task left unmatched is re-matched once in the next epoch if its deadline still allows
+ * waiting for it; otherwise it goes to the broker's default mapping. Latency therefore
+ * includes the time a task waits for its epoch. Wall-clock time of every matching call is
+ * recorded in microseconds, together with the batch sizes.
+ */
+public class EpochDispatcher {
+
+    private final CloudSim simulation;
+    private final DatacenterBroker broker;
+    private final CostOptimizer optimizer;
+    private final ServerVms serverVms;
+    private final double window;
+
+    private WorkloadGenerator arrivals;
+    private Consumer<WorkloadGenerator.Arrival> onArrival;
+    private WorkloadGenerator.Arrival lookahead; // Next task, generated but not yet arrived
+    private List<WorkloadGenerator.Arrival> batch = new ArrayList<>();
+    private final Set<Task> carried = Collections.newSetFromMap(new IdentityHashMap<>());
+    private double nextEpoch;
+
+    private final LogHistogram matchingMicros = new LogHistogram(1e-3, 1e9, 3);
+    private final LogHistogram batchSizes = new LogHistogram(1, 1e7, 3);
+    private long epochs = 0;
+    private long matched = 0;
+    private long rematched = 0;
+    private long unmatched = 0;
+
+    /**
+     * @param servers MEC servers; server i runs on hosts.get(i)
+     * @param window simulated seconds between epoch boundaries
+     */
+    public EpochDispatcher(CloudSim simulation, DatacenterBroker broker, CostOptimizer optimizer,
+                           List<MECServer> servers, List<? extends Host> hosts, double window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Epoch window must be positive: " + window);
+        }
+        this.simulation = simulation;
+        this.broker = broker;
+        this.optimizer = optimizer;
+        this.serverVms = new ServerVms(servers, hosts);
+        this.window = window;
+        this.nextEpoch = window;
+    }
+
+    /**
+     * Pull tasks from the workload as they arrive and dispatch them epoch by epoch
+     * @param onArrival called once per task when it is collected, before it is matched
+     */
+    public void start(WorkloadGenerator workload, Consumer<WorkloadGenerator.Arrival> onArrival) {
+        this.arrivals = workload;
+        this.onArrival = onArrival;
+        simulation.addOnClockTickListener(info -> onClockTick(info.getTime()));
+        new EpochClock(simulation);
+    }
+
+    private void onClockTick(double now) {
+        collect(now);
+        if (nextEpoch - now > 1e-9 * Math.max(1, now)) return;
+        dispatch(now);
+        nextEpoch = (Math.floor(now / window + 1e-9) + 1) * window;
+    }
+
+    private void collect(double now) {
+        while (true) {
+            if (lookahead == null) {
+                if (!arrivals.hasNext()) return;
+                lookahead = arrivals.next();
+            }
+            if (lookahead.task.getArrivalTime() - now > 1e-9 * Math.max(1, now)) return;
+            onArrival.accept(lookahead);
+            batch.add(lookahead);
+            lookahead = null;
+        }
+    }
+
+    private void dispatch(double now) {
+        // Before VMs are placed there is nothing to bind to; the batch waits one more epoch
+        if (batch.isEmpty() || !serverVms.place(broker.getVmExecList())) return;
+
+        List<Task> tasks = new ArrayList<>(batch.size());
+        for (WorkloadGenerator.Arrival a : batch) tasks.add(a.task);
+
+        long start = System.nanoTime();
+        List<RTMSCMatcher.MatchingTriplet> matching = optimizer.findStableMatching(
+            tasks, optimizer.uavs, serverVms.getCandidates(), optimizer.iotPositions);
+        matchingMicros.record((System.nanoTime() - start) / 1000.0);
+        batchSizes.record(batch.size());
+        epochs++;
+
+        Map<Task, RTMSCMatcher.MatchingTriplet> byTask = new IdentityHashMap<>();
+        for (RTMSCMatcher.MatchingTriplet m : matching) byTask.put(m.iot, m);
+
+        List<WorkloadGenerator.Arrival> next = new ArrayList<>();
+        for (WorkloadGenerator.Arrival a : batch) {
+            RTMSCMatcher.MatchingTriplet m = byTask.get(a.task);
+            boolean retry = carried.remove(a.task);
+            Vm vm = m != null ? serverVms.next(serverVms.indexOf(m.mecServer)) : null;
+            if (vm == null && !retry && a.task.getArrivalTime() + a.task.getDeadline() >= now + window) {
+                carried.add(a.task);
+                next.add(a);
+                continue;
+            }
+            if (vm != null) {
+                a.cloudlet.setVm(vm);
+                matched++;
+                if (retry) rematched++;
+            } else {
+                unmatched++;
+            }
+            a.cloudlet.setSubmissionDelay(0);
+            broker.submitCloudlet(a.cloudlet);
+        }
+        batch = next;
+    }
+
+    private boolean hasPending() {
+        return lookahead != null || arrivals.hasNext() || !batch.isEmpty();
+    }
+
+    /**
+     * Keeps an event at every epoch boundary while tasks are pending, so the clock reaches
+     * each boundary even when no cloudlet is running
+     */
+    private final class EpochClock extends CloudSimEntity {
+        private static final int EPOCH_BOUNDARY = 0xE90C;
+
+        EpochClock(CloudSim simulation) {
+            super(simulation);
+        }
+
+        @Override
+        protected void startInternal() {
+            schedule(window, EPOCH_BOUNDARY);
+        }
+
+        @Override
+        public void processEvent(SimEvent evt) {
+            if (evt.getTag() == EPOCH_BOUNDARY && hasPending()) {
+                schedule(window, EPOCH_BOUNDARY);
+            }
+        }
+    }
+
+    public double getWindow() { return window; }
+    /** Wall-clock microseconds per batch matching call */
+    public LogHistogram getMatchingHistogram() { return matchingMicros; }
+    /** Tasks per matched batch */
+    public LogHistogram getBatchSizeHistogram() { return batchSizes; }
+    public long getEpochCount() { return epochs; }
+    /** Tasks bound to the server of their matching triplet */
+    public long getMatchedCount() { return matched; }
+    /** Matched tasks that were unmatched in their first epoch */
+    public long getRematchedCount() { return rematched; }
+    /** Tasks handed to the broker's default mapping */
+    public long getUnmatchedCount() { return unmatched; }
+}
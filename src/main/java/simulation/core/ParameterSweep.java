@@ -0,0 +1,440 @@
+package simulation.core;
+
+import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
+import com.opencsv.exceptions.CsvValidationException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import simulation.analysis.StreamingStatistics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Parameter Sweep: expands sweep syntax in a config YAML into design points and runs them
+ * Any scalar can be replaced by a list of values or by a range:
+ *
+ *   workload:
+ *     taskCount: [1000, 5000, 20000]
+ *     arrivalRate: {from: 0.1, to: 2.0, step: 0.1}
+ *   sweep:
+ *     design: cartesian        # cartesian | latin
+ *     samples: 50              # points of a Latin hypercube design
+ *
+ * A swept key that does not change the loaded config (e.g. a misspelt one) is rejected.
+ *
+ * Points run through ReplicationRunner (seeds and parallelism from the replication section).
+ * Each finished point appends one row to resultsDirectory/sweep_results.csv: its parameter
+ * values and the mean and 95% confidence interval of every metric. Points whose parameter
+ * values are already in that file are skipped, so an interrupted sweep resumes where it stopped.
+ *
+ * Usage: ParameterSweep sweep.yaml
+ */
+public class ParameterSweep {
+    private static final Logger logger = LoggerFactory.getLogger(ParameterSweep.class);
+
+    public static final String RESULTS_FILE = "sweep_results.csv";
+
+    private static final String[] METRICS = {
+        "tasksCompleted", "slaCompliance", "averageLatency", "averageCost", "latencyP99"
+    };
+
+    /**
+     * One swept parameter: its dotted YAML path and the values it takes
+     */
+    public static class Dimension {
+        private final String path;
+        private final List<Object> values;
+
+        Dimension(String path, List<Object> values) {
+            this.path = path;
+            this.values = values;
+        }
+
+        public String getPath() { return path; }
+        public List<Object> getValues() { return Collections.unmodifiableList(values); }
+    }
+
+    /**
+     * One design point: a value for every dimension, in dimension order
+     */
+    public static class Point {
+        private final int index;
+        private final List<Object> values;
+
+        Point(int index, List<Object> values) {
+            this.index = index;
+            this.values = values;
+        }
+
+        public int getIndex() { return index; }
+        public List<Object> getValues() { return Collections.unmodifiableList(values); }
+
+        /** Results subdirectory; stable as long as the sweep definition is unchanged */
+        public String getName() { return String.format("point_%05d", index); }
+
+        String key() {
+            StringBuilder sb = new StringBuilder();
+            for (Object v : values) sb.append(v).append('\u0000');
+            return sb.toString();
+        }
+    }
+
+    private final Map<String, Object> base;
+    private final List<Dimension> dimensions = new ArrayList<>();
+    private final List<Point> points;
+
+    /**
+     * @param root parsed YAML tree with sweep syntax; it is not modified
+     */
+    public ParameterSweep(Map<String, Object> root) {
+        this.base = root;
+        collectDimensions(root, "");
+        if (dimensions.isEmpty()) {
+            throw new IllegalArgumentException("Config has no swept parameters");
+        }
+        requireEffectiveDimensions();
+
+        Map<String, Object> sweep = mapAt(root, "sweep");
+        String design = sweep != null && sweep.get("design") != null
+                ? sweep.get("design").toString().toLowerCase() : "cartesian";
+        long seed = ConfigurationLoader.fromMap(root).getRandomSeed();
+        switch (design) {
+            case "cartesian":
+                points = cartesian();
+                break;
+            case "latin":
+                Object samples = sweep.get("samples");
+                if (!(samples instanceof Number) || ((Number) samples).intValue() < 1) {
+                    throw new IllegalArgumentException("Latin hypercube design needs sweep.samples >= 1");
+                }
+                points = latinHypercube(((Number) samples).intValue(), new Random(seed));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sweep design: " + design);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static ParameterSweep loadFromYAML(String path) throws IOException {
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            return new ParameterSweep((Map<String, Object>) new Yaml().load(in));
+        }
+    }
+
+    public List<Dimension> getDimensions() { return Collections.unmodifiableList(dimensions); }
+    public List<Point> getPoints() { return Collections.unmodifiableList(points); }
+
+    /**
+     * Config of one point: the base tree with the point's values substituted
+     */
+    public SimulationConfig configFor(Point point) {
+        return ConfigurationLoader.fromMap(treeFor(point));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> treeFor(Point point) {
+        Map<String, Object> tree = deepCopy(base);
+        for (int d = 0; d < dimensions.size(); d++) {
+            String[] keys = dimensions.get(d).path.split("\\.");
+            Map<String, Object> node = tree;
+            for (int k = 0; k < keys.length - 1; k++) node = (Map<String, Object>) node.get(keys[k]);
+            node.put(keys[keys.length - 1], point.values.get(d));
+        }
+        return tree;
+    }
+
+    /**
+     * Run every point not yet in resultsDirectory/sweep_results.csv and append its summary there
+     * as soon as all of its seeds have finished.
+     *
+     * @return number of points run in this invocation
+     */
+    public int run(ReplicationRunner runner, int seeds) {
+        SimulationConfig baseConfig = ConfigurationLoader.fromMap(base);
+        Path file = Paths.get(baseConfig.getResultsDirectory(), RESULTS_FILE);
+        String[] header = header();
+        Set<String> done = completedPoints(file, header);
+
+        Map<String, Supplier<SimulationConfig>> configs = new LinkedHashMap<>();
+        Map<String, Point> byName = new HashMap<>();
+        for (Point p : points) {
+            if (done.contains(p.key())) continue;
+            Map<String, Object> tree = treeFor(p);
+            configs.put(p.getName(), () -> ConfigurationLoader.fromMap(tree));
+            byName.put(p.getName(), p);
+        }
+        logger.info("Sweep: {} points over {} parameters, {} already done, {} to run",
+                points.size(), dimensions.size(), points.size() - configs.size(), configs.size());
+        if (configs.isEmpty()) return 0;
+
+        try {
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            boolean fresh = !Files.exists(file) || Files.size(file) == 0;
+            boolean torn = !fresh && !endsWithNewline(file);
+            Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            try (CSVWriter csv = new CSVWriter(out)) {
+                if (torn) out.write(CSVWriter.DEFAULT_LINE_END); // Keep the next row off a half-written one
+                if (fresh) {
+                    csv.writeNext(header);
+                    csv.flush();
+                }
+                runner.run(configs, seeds, summary -> {
+                    if (summary.getRuns().isEmpty()) {
+                        logger.warn("Sweep point {} had no successful runs; it will be retried", summary.getConfig());
+                        return;
+                    }
+                    csv.writeNext(row(byName.get(summary.getConfig()), summary));
+                    try {
+                        csv.flush(); // A finished point must survive an interrupted sweep
+                    } catch (IOException e) {
+                        throw new RuntimeException("Sweep results write failed", e);
+                    }
+                });
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write sweep results", e);
+            throw new RuntimeException("Sweep results write failed", e);
+        }
+        logger.info("Sweep results in {}", file);
+        return configs.size();
+    }
+
+    private String[] header() {
+        List<String> h = new ArrayList<>();
+        h.add("Point");
+        for (Dimension d : dimensions) h.add(d.path);
+        h.add("Runs");
+        for (String m : METRICS) {
+            h.add(m + "Mean");
+            h.add(m + "CI95");
+        }
+        return h.toArray(new String[0]);
+    }
+
+    private String[] row(Point p, ReplicationRunner.Summary summary) {
+        List<String> r = new ArrayList<>();
+        r.add(p.getName());
+        for (Object v : p.values) r.add(String.valueOf(v));
+        r.add(String.valueOf(summary.getRuns().size()));
+        for (String m : METRICS) {
+            StreamingStatistics stats = summary.getMetric(m);
+            r.add(String.valueOf(stats.getMean()));
+            r.add(String.valueOf(stats.getConfidenceHalfWidth95()));
+        }
+        return r.toArray(new String[0]);
+    }
+
+    /**
+     * Parameter-value keys of the points already in an earlier results file
+     */
+    private Set<String> completedPoints(Path file, String[] header) {
+        Set<String> done = new HashSet<>();
+        if (!Files.exists(file)) return done;
+        try (CSVReader in = new CSVReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            String[] existing = in.readNext();
+            if (existing == null) return done;
+            if (!Arrays.equals(existing, header)) {
+                throw new IllegalStateException(file + " was written by a different sweep; move it away to start over");
+            }
+            String[] line;
+            while ((line = in.readNext()) != null) {
+                if (line.length != header.length) continue; // Torn last row of an interrupted run
+                StringBuilder sb = new StringBuilder();
+                for (int d = 0; d < dimensions.size(); d++) sb.append(line[1 + d]).append('\u0000');
+                done.add(sb.toString());
+            }
+        } catch (IOException | CsvValidationException e) {
+            throw new RuntimeException("Could not read earlier sweep results " + file, e);
+        }
+        return done;
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (SeekableByteChannel ch = Files.newByteChannel(file)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            ch.position(ch.size() - 1).read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    // ===== Design =====
+
+    private List<Point> cartesian() {
+        int total = 1;
+        for (Dimension d : dimensions) total = Math.multiplyExact(total, d.values.size());
+        List<Point> result = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            // Last dimension varies fastest
+            List<Object> values = new ArrayList<>(dimensions.size());
+            int rest = i;
+            for (int d = dimensions.size() - 1; d >= 0; d--) {
+                List<Object> dv = dimensions.get(d).values;
+                values.add(0, dv.get(rest % dv.size()));
+                rest /= dv.size();
+            }
+            result.add(new Point(i, values));
+        }
+        return result;
+    }
+
+    /**
+     * n points; on every dimension each of n equal-probability strata of the value list is
+     * hit exactly once
+     */
+    private List<Point> latinHypercube(int n, Random rnd) {
+        int[][] strata = new int[dimensions.size()][];
+        for (int d = 0; d < dimensions.size(); d++) {
+            int[] perm = new int[n];
+            for (int i = 0; i < n; i++) perm[i] = i;
+            for (int i = n - 1; i > 0; i--) {
+                int j = rnd.nextInt(i + 1);
+                int t = perm[i]; perm[i] = perm[j]; perm[j] = t;
+            }
+            strata[d] = perm;
+        }
+        List<Point> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            List<Object> values = new ArrayList<>(dimensions.size());
+            for (int d = 0; d < dimensions.size(); d++) {
+                List<Object> dv = dimensions.get(d).values;
+                double u = (strata[d][i] + rnd.nextDouble()) / n;
+                values.add(dv.get(Math.min(dv.size() - 1, (int) (u * dv.size()))));
+            }
+            result.add(new Point(i, values));
+        }
+        return result;
+    }
+
+    // ===== Sweep syntax =====
+
+    @SuppressWarnings("unchecked")
+    private void collectDimensions(Map<String, Object> node, String prefix) {
+        for (Map.Entry<String, Object> e : node.entrySet()) {
+            String path = prefix + e.getKey();
+            Object v = e.getValue();
+            if (path.equals("sweep")) continue;
+            if (v instanceof List) {
+                List<Object> values = new ArrayList<>((List<Object>) v);
+                if (values.isEmpty()) throw new IllegalArgumentException("Empty value list for " + path);
+                dimensions.add(new Dimension(path, values));
+            } else if (v instanceof Map && ((Map<?, ?>) v).containsKey("from")) {
+                dimensions.add(new Dimension(path, expandRange(path, (Map<String, Object>) v)));
+            } else if (v instanceof Map) {
+                collectDimensions((Map<String, Object>) v, path + ".");
+            }
+        }
+    }
+
+    /**
+     * from..to inclusive in steps; integers stay integers, decimals are summed exactly
+     * so that 0.1 + 2 * 0.1 is 0.3
+     */
+    private static List<Object> expandRange(String path, Map<String, Object> range) {
+        Object from = range.get("from"), to = range.get("to"), step = range.get("step");
+        if (!(from instanceof Number) || !(to instanceof Number) || !(step instanceof Number)) {
+            throw new IllegalArgumentException("Range for " + path + " needs numeric from, to and step");
+        }
+        BigDecimal lo = new BigDecimal(from.toString());
+        BigDecimal hi = new BigDecimal(to.toString());
+        BigDecimal by = new BigDecimal(step.toString());
+        if (by.signum() <= 0 || hi.compareTo(lo) < 0) {
+            throw new IllegalArgumentException("Range for " + path + " needs from <= to and step > 0");
+        }
+        boolean integral = isIntegral(from) && isIntegral(to) && isIntegral(step);
+        List<Object> values = new ArrayList<>();
+        for (BigDecimal v = lo; v.compareTo(hi) <= 0; v = v.add(by)) {
+            values.add(integral ? (Object) v.longValueExact() : (Object) v.doubleValue());
+        }
+        return values;
+    }
+
+    private static boolean isIntegral(Object n) {
+        return n instanceof Integer || n instanceof Long || n instanceof java.math.BigInteger;
+    }
+
+    /**
+     * ConfigurationLoader ignores unknown keys, so a misspelt parameter would run identical
+     * points under distinct names. Each dimension must change the loaded config when it moves
+     * off its first value, with the other dimensions held at theirs.
+     */
+    private void requireEffectiveDimensions() {
+        List<Object> firsts = new ArrayList<>();
+        for (Dimension d : dimensions) firsts.add(d.values.get(0));
+        SimulationConfig reference = configFor(new Point(-1, firsts));
+        for (int d = 0; d < dimensions.size(); d++) {
+            List<Object> values = dimensions.get(d).values;
+            boolean effective = values.size() < 2; // A single value cannot repeat a point
+            for (int i = 1; i < values.size() && !effective; i++) {
+                List<Object> moved = new ArrayList<>(firsts);
+                moved.set(d, values.get(i));
+                effective = !sameSettings(reference, configFor(new Point(-1, moved)));
+            }
+            if (!effective) {
+                throw new IllegalArgumentException("Swept parameter " + dimensions.get(d).path
+                        + " does not change the configuration; unknown key?");
+            }
+        }
+    }
+
+    private static boolean sameSettings(SimulationConfig a, SimulationConfig b) {
+        try {
+            for (Field f : SimulationConfig.class.getDeclaredFields()) {
+                if (Modifier.isStatic(f.getModifiers())) continue;
+                f.setAccessible(true);
+                if (!Objects.equals(f.get(a), f.get(b))) return false;
+            }
+            return true;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot compare sweep configs", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> deepCopy(Map<String, Object> node) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> e : node.entrySet()) {
+            Object v = e.getValue();
+            copy.put(e.getKey(), v instanceof Map ? deepCopy((Map<String, Object>) v) : v);
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> mapAt(Map<String, Object> root, String key) {
+        Object o = root.get(key);
+        return o instanceof Map ? (Map<String, Object>) o : null;
+    }
+
+    public static void main(String[] args) {
+        try {
+            String path = args.length > 0 ? args[0] : "src/main/resources/config.yaml";
+            ParameterSweep sweep = loadFromYAML(path);
+            SimulationConfig first = sweep.configFor(sweep.getPoints().get(0));
+
+            long start = System.currentTimeMillis();
+            int ran = sweep.run(new ReplicationRunner(first.getReplicationParallelism()), first.getReplicationSeeds());
+            logger.info("Sweep ran {} points in {} ms", ran, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Fatal error", e);
+            System.exit(1);
+        }
+    }
+}
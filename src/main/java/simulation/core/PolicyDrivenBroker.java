@@ -0,0 +1,117 @@
+package simulation.core;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import simulation.analysis.LogHistogram;
+import simulation.model.MECServer;
+import simulation.model.Task;
+import simulation.model.UAVEntity;
+import simulation.optimization.CostOptimizer;
+import simulation.optimization.OptimizationPolicy;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Policy-Driven Broker: binds each cloudlet to a VM on the MEC server its OptimizationPolicy picks
+ * The decision is made when the broker maps the cloudlet to a VM, i.e. when it is submitted,
+ * so it needs a streaming workload to be taken at each task's arrival. The policy chooses
+ * among servers hosting at least one VM, and VMs of the chosen server are used round-robin.
+ * A cloudlet already bound to a VM keeps it without a second decision. Cloudlets without a
+ * task or without a valid decision fall back to the default round-robin mapping.
+ *
+ * While a cloudlet runs, its UAV carries one unit of load and its server one running task;
+ * server utilization (running tasks per VM) feeds the policy's periodic update.
+ * Wall-clock time of every makeDecision call is recorded in microseconds.
+ */
+public class PolicyDrivenBroker extends DatacenterBrokerSimple {
+
+    private final OptimizationPolicy policy;
+    private final Function<Cloudlet, Task> taskOf;
+    private final double updateInterval;
+
+    private ServerVms serverVms; // Null until servers are bound
+    private int[] running;
+
+    private final LogHistogram decisionMicros = new LogHistogram(1e-3, 1e7, 3);
+    private long decisions = 0;
+    private long fallbacks = 0;
+    private double lastUpdate = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param taskOf task behind a cloudlet, or null for cloudlets without one
+     * @param updateInterval simulated seconds between policy updates
+     */
+    public PolicyDrivenBroker(CloudSim simulation, OptimizationPolicy policy,
+                              Function<Cloudlet, Task> taskOf, double updateInterval) {
+        super(simulation);
+        this.policy = policy;
+        this.taskOf = taskOf;
+        this.updateInterval = updateInterval;
+    }
+
+    /**
+     * Servers the policy chooses from; server i runs on hosts.get(i)
+     */
+    public void bindServers(List<MECServer> servers, List<? extends Host> hosts) {
+        serverVms = new ServerVms(servers, hosts);
+        running = new int[servers.size()];
+    }
+
+    @Override
+    public Vm defaultVmMapper(Cloudlet cloudlet) {
+        if (cloudlet.isBoundToVm()) return cloudlet.getVm(); // Re-mapped after a postponement
+        Task task = taskOf.apply(cloudlet);
+        if (task == null || serverVms == null || !serverVms.place(getVmExecList())) return fallback(cloudlet);
+        List<MECServer> candidates = serverVms.getCandidates();
+
+        double now = getSimulation().clock();
+        if (now - lastUpdate >= updateInterval) {
+            updatePolicy(now);
+        }
+
+        long start = System.nanoTime();
+        CostOptimizer.OffloadingDecision decision = policy.makeDecision(task, candidates);
+        decisionMicros.record((System.nanoTime() - start) / 1000.0);
+        decisions++;
+
+        int s = decision.isValid() ? serverVms.indexOf(decision.selectedServer) : -1;
+        Vm vm = s >= 0 ? serverVms.next(s) : null;
+        if (vm == null) return fallback(cloudlet);
+
+        UAVEntity uav = decision.selectedUAV;
+        uav.incrementLoad();
+        running[s]++;
+        cloudlet.addOnFinishListener(info -> {
+            uav.decrementLoad();
+            running[s]--;
+        });
+        return vm;
+    }
+
+    private Vm fallback(Cloudlet cloudlet) {
+        fallbacks++;
+        return super.defaultVmMapper(cloudlet);
+    }
+
+    private void updatePolicy(double now) {
+        List<MECServer> servers = serverVms.getServers();
+        for (int i = 0; i < servers.size(); i++) {
+            int vms = serverVms.getVmCount(i);
+            servers.get(i).updateUtilization(vms == 0 ? 1.0 : (double) running[i] / vms);
+        }
+        policy.update(now, servers);
+        lastUpdate = now;
+    }
+
+    public OptimizationPolicy getPolicy() { return policy; }
+    /** Wall-clock microseconds per makeDecision call */
+    public LogHistogram getDecisionHistogram() { return decisionMicros; }
+    public long getDecisionCount() { return decisions; }
+    /** Cloudlets mapped by the default round-robin instead of a policy decision */
+    public long getFallbackCount() { return fallbacks; }
+}
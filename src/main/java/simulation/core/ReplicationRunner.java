@@ -0,0 +1,317 @@
+package simulation.core;
+
+import com.opencsv.CSVWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import simulation.analysis.LogHistogram;
+import simulation.analysis.MetricsExporter;
+import simulation.analysis.StreamingStatistics;
+import simulation.model.ChannelBatch;
+import simulation.model.CommunicationModel;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Replication Runner: runs every config for a range of seeds on a bounded worker pool
+ * Each run builds its own UAVMECSimulation (own CloudSim, broker, metrics collector and RNG)
+ * from a freshly loaded config and writes into its own results directory, so runs share no
+ * mutable state. The exception is the JVM-wide channel settings (path loss mode, vector
+ * kernel): runs are grouped by them and each group runs as one phase with its settings applied.
+ *
+ * Results are aggregated per config: mean with a 95% confidence interval across seeds for
+ * each scalar metric, and per-task histograms merged losslessly across seeds.
+ *
+ * Usage: ReplicationRunner config1.yaml [config2.yaml ...]
+ * Seed count and parallelism come from the replication section of the first config.
+ */
+public class ReplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationRunner.class);
+
+    private final int parallelism;
+
+    /**
+     * @param parallelism concurrent runs, 0 for one per core
+     */
+    public ReplicationRunner(int parallelism) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Parallelism must be non-negative: " + parallelism);
+        }
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Outcome of one seed of one config
+     */
+    public static class RunResult {
+        public final String config;
+        public final long seed;
+        public final int tasksCompleted;
+        public final double slaCompliance;
+        public final double averageLatency;
+        public final double averageCost;
+        public final double latencyP99;
+        public final long wallMillis;
+
+        RunResult(String config, long seed, UAVMECSimulation sim, long wallMillis) {
+            this.config = config;
+            this.seed = seed;
+            this.tasksCompleted = sim.getTasksCompleted();
+            this.slaCompliance = sim.getSlaCompliance();
+            this.averageLatency = sim.getAverageLatency();
+            this.averageCost = sim.getAverageCost();
+            this.latencyP99 = sim.getResultHistograms().get("latency").getValueAtPercentile(99);
+            this.wallMillis = wallMillis;
+        }
+    }
+
+    /**
+     * All seeds of one config: per-run results, statistics across seeds and merged histograms
+     */
+    public static class Summary {
+        private final String config;
+        private final List<RunResult> runs = new ArrayList<>();
+        private final Map<String, StreamingStatistics> metrics = new LinkedHashMap<>();
+        private final Map<String, LogHistogram> histograms = new LinkedHashMap<>();
+        private int pending; // Seeds not yet finished
+
+        Summary(String config) {
+            this.config = config;
+        }
+
+        void add(RunResult r, Map<String, LogHistogram> runHistograms) {
+            runs.add(r);
+            metric("tasksCompleted").add(r.tasksCompleted);
+            metric("slaCompliance").add(r.slaCompliance);
+            metric("averageLatency").add(r.averageLatency);
+            metric("averageCost").add(r.averageCost);
+            metric("latencyP99").add(r.latencyP99);
+            for (Map.Entry<String, LogHistogram> e : runHistograms.entrySet()) {
+                histograms.computeIfAbsent(e.getKey(), k -> e.getValue().copyConfiguration()).add(e.getValue());
+            }
+        }
+
+        private StreamingStatistics metric(String name) {
+            return metrics.computeIfAbsent(name, k -> new StreamingStatistics());
+        }
+
+        public String getConfig() { return config; }
+        public List<RunResult> getRuns() { return Collections.unmodifiableList(runs); }
+        public Set<String> getMetricNames() { return Collections.unmodifiableSet(metrics.keySet()); }
+        /** Statistics of a metric across seeds; see getConfidenceHalfWidth95 for the interval */
+        public StreamingStatistics getMetric(String name) { return metrics.get(name); }
+        /** Per-task histograms merged over all seeds */
+        public Map<String, LogHistogram> getHistograms() { return Collections.unmodifiableMap(histograms); }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(config).append(" (").append(runs.size()).append(" runs)");
+            for (Map.Entry<String, StreamingStatistics> e : metrics.entrySet()) {
+                sb.append(String.format("%n  %-16s %12.4f ± %.4f", e.getKey(),
+                        e.getValue().getMean(), e.getValue().getConfidenceHalfWidth95()));
+            }
+            return sb.toString();
+        }
+    }
+
+    private static class Job {
+        final String config;
+        final SimulationConfig cfg;
+
+        Job(String config, SimulationConfig cfg) {
+            this.config = config;
+            this.cfg = cfg;
+        }
+
+        String channelSettings() {
+            return cfg.getPathLossMode().toUpperCase() + "/" + cfg.getPathLossTableError() + "/" + cfg.isVectorizedChannel();
+        }
+    }
+
+    private static class Completed {
+        final Job job;
+        final RunResult result;
+        final Map<String, LogHistogram> histograms;
+
+        Completed(Job job, RunResult result, Map<String, LogHistogram> histograms) {
+            this.job = job;
+            this.result = result;
+            this.histograms = histograms;
+        }
+    }
+
+    /**
+     * Run each config file for seeds randomSeed .. randomSeed + seeds - 1.
+     * Run i of config "name" writes into resultsDirectory/name/seed_<seed>.
+     * Failed runs are logged and left out of the summaries.
+     */
+    public List<Summary> run(List<String> configPaths, int seeds) {
+        Map<String, Supplier<SimulationConfig>> configs = new LinkedHashMap<>();
+        for (String path : configPaths) {
+            String name = configName(path);
+            for (int i = 2; configs.containsKey(name); i++) name = configName(path) + "_" + i;
+            configs.put(name, () -> ConfigurationLoader.loadFromYAML(path));
+        }
+        return run(configs, seeds, s -> {});
+    }
+
+    /**
+     * Run each named config for seeds randomSeed .. randomSeed + seeds - 1. The supplier is
+     * called once per seed and must return a fresh config each time. onSummary is called on
+     * the calling thread as soon as all seeds of a config have finished, in completion order.
+     */
+    public List<Summary> run(Map<String, Supplier<SimulationConfig>> configs, int seeds,
+                             Consumer<Summary> onSummary) {
+        if (seeds < 1) {
+            throw new IllegalArgumentException("Need at least one seed: " + seeds);
+        }
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        Map<String, List<Job>> phases = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<SimulationConfig>> e : configs.entrySet()) {
+            String name = e.getKey();
+            Summary summary = new Summary(name);
+            summary.pending = seeds;
+            summaries.put(name, summary);
+
+            for (int s = 0; s < seeds; s++) {
+                SimulationConfig cfg = e.getValue().get();
+                long seed = cfg.getRandomSeed() + s;
+                cfg.setRandomSeed(seed);
+                cfg.setResultsDirectory(cfg.getResultsDirectory() + "/" + name + "/seed_" + seed);
+                Job job = new Job(name, cfg);
+                phases.computeIfAbsent(job.channelSettings(), k -> new ArrayList<>()).add(job);
+            }
+        }
+
+        logger.info("Running {} configs x {} seeds on {} workers ({} phases)",
+                summaries.size(), seeds, parallelism, phases.size());
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "replication-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        int failed = 0;
+        try {
+            for (List<Job> phase : phases.values()) {
+                SimulationConfig first = phase.get(0).cfg;
+                CommunicationModel.configurePathLoss(
+                        CommunicationModel.PathLossMode.valueOf(first.getPathLossMode().toUpperCase()),
+                        first.getPathLossTableError());
+                ChannelBatch.setVectorEnabled(first.isVectorizedChannel());
+
+                // Merge in completion order so finished runs' histograms can be released
+                CompletionService<Completed> completion = new ExecutorCompletionService<>(pool);
+                Map<Future<Completed>, Job> submitted = new HashMap<>();
+                for (Job job : phase) submitted.put(completion.submit(() -> runOne(job)), job);
+                for (int i = 0; i < phase.size(); i++) {
+                    Future<Completed> future = completion.take();
+                    Summary summary = summaries.get(submitted.remove(future).config);
+                    try {
+                        Completed done = future.get();
+                        summary.add(done.result, done.histograms);
+                    } catch (ExecutionException e) {
+                        failed++;
+                        logger.error("Replication run of {} failed", summary.config, e.getCause());
+                    }
+                    if (--summary.pending == 0) {
+                        summary.runs.sort(Comparator.comparingLong(r -> r.seed));
+                        onSummary.accept(summary);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Replication interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        if (failed > 0) {
+            logger.warn("{} of {} replication runs failed", failed, summaries.size() * seeds);
+        }
+        return new ArrayList<>(summaries.values());
+    }
+
+    private static Completed runOne(Job job) {
+        long start = System.nanoTime();
+        UAVMECSimulation sim = new UAVMECSimulation(job.cfg);
+        sim.run();
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        return new Completed(job, new RunResult(job.config, job.cfg.getRandomSeed(), sim, wallMillis),
+                sim.getResultHistograms());
+    }
+
+    private static String configName(String path) {
+        String name = Paths.get(path).getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Write replication_runs.csv (one row per run), replication_summary.csv (mean, standard
+     * deviation and 95% confidence interval per config and metric) and each config's merged
+     * histograms to name/histograms_merged.json
+     */
+    public static void exportSummaries(String directory, List<Summary> summaries) {
+        Path dir = Paths.get(directory);
+        try {
+            Files.createDirectories(dir);
+            try (CSVWriter runs = new CSVWriter(Files.newBufferedWriter(dir.resolve("replication_runs.csv"), StandardCharsets.UTF_8));
+                 CSVWriter summary = new CSVWriter(Files.newBufferedWriter(dir.resolve("replication_summary.csv"), StandardCharsets.UTF_8))) {
+                runs.writeNext(new String[]{"Config", "Seed", "TasksCompleted", "SlaCompliance",
+                        "AverageLatency", "AverageCost", "LatencyP99", "WallMillis"});
+                summary.writeNext(new String[]{"Config", "Metric", "Runs", "Mean", "StdDev", "CI95Low", "CI95High"});
+                for (Summary s : summaries) {
+                    for (RunResult r : s.runs) {
+                        runs.writeNext(new String[]{r.config, String.valueOf(r.seed), String.valueOf(r.tasksCompleted),
+                                String.valueOf(r.slaCompliance), String.valueOf(r.averageLatency),
+                                String.valueOf(r.averageCost), String.valueOf(r.latencyP99), String.valueOf(r.wallMillis)});
+                    }
+                    for (Map.Entry<String, StreamingStatistics> e : s.metrics.entrySet()) {
+                        StreamingStatistics m = e.getValue();
+                        double halfWidth = m.getConfidenceHalfWidth95();
+                        summary.writeNext(new String[]{s.config, e.getKey(), String.valueOf(m.getCount()),
+                                String.valueOf(m.getMean()), String.valueOf(Math.sqrt(m.getSampleVariance())),
+                                String.valueOf(m.getMean() - halfWidth), String.valueOf(m.getMean() + halfWidth)});
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to export replication summaries", e);
+            throw new RuntimeException("Replication export failed", e);
+        }
+        for (Summary s : summaries) {
+            MetricsExporter.exportHistograms(dir.resolve(s.config).resolve("histograms_merged.json").toString(),
+                    s.histograms);
+        }
+        logger.info("Exported {} replication summaries to {}", summaries.size(), directory);
+    }
+
+    public static void main(String[] args) {
+        try {
+            List<String> configPaths = args.length > 0 ? Arrays.asList(args)
+                    : Collections.singletonList("src/main/resources/config.yaml");
+            SimulationConfig first = ConfigurationLoader.loadFromYAML(configPaths.get(0));
+
+            long start = System.currentTimeMillis();
+            List<Summary> summaries = new ReplicationRunner(first.getReplicationParallelism())
+                    .run(configPaths, first.getReplicationSeeds());
+            summaries.forEach(s -> logger.info("{}", s));
+            exportSummaries(first.getResultsDirectory(), summaries);
+            logger.info("Replications finished in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Fatal error", e);
+            System.exit(1);
+        }
+    }
+}
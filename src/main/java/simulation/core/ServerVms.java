@@ -0,0 +1,75 @@
+package simulation.core;
+
+import org.cloudbus.cloudsim.hosts.Host;
+import org.cloudbus.cloudsim.vms.Vm;
+
+import simulation.model.MECServer;
+
+import java.util.*;
+
+/**
+ * Server VMs: the broker's running VMs grouped by the MEC server whose host they were placed on
+ * Server i runs on hosts.get(i). Grouping is deferred until VMs are placed, and VMs of a
+ * server are handed out round-robin.
+ */
+final class ServerVms {
+
+    private final List<MECServer> servers;
+    private final Map<MECServer, Integer> serverIndex = new IdentityHashMap<>();
+    private final Map<Host, Integer> hostIndex = new IdentityHashMap<>();
+
+    private List<List<Vm>> vmsByServer;
+    private int mappedVms = 0;
+    private List<MECServer> candidates; // Servers hosting at least one VM
+    private int[] nextVm;
+
+    ServerVms(List<MECServer> servers, List<? extends Host> hosts) {
+        if (servers.size() != hosts.size()) {
+            throw new IllegalArgumentException(servers.size() + " servers for " + hosts.size() + " hosts");
+        }
+        this.servers = servers;
+        for (int i = 0; i < servers.size(); i++) {
+            serverIndex.put(servers.get(i), i);
+            hostIndex.put(hosts.get(i), i);
+        }
+    }
+
+    /**
+     * Group the given running VMs by server unless some already are; false while none is placed
+     */
+    boolean place(List<? extends Vm> execVms) {
+        if (vmsByServer != null && mappedVms > 0) return true;
+        mappedVms = 0;
+        vmsByServer = new ArrayList<>(servers.size());
+        candidates = new ArrayList<>();
+        for (int i = 0; i < servers.size(); i++) vmsByServer.add(new ArrayList<>());
+        for (Vm vm : execVms) {
+            Integer s = hostIndex.get(vm.getHost());
+            if (s != null) {
+                vmsByServer.get(s).add(vm);
+                mappedVms++;
+            }
+        }
+        for (int i = 0; i < servers.size(); i++) {
+            if (!vmsByServer.get(i).isEmpty()) candidates.add(servers.get(i));
+        }
+        nextVm = new int[servers.size()];
+        return mappedVms > 0;
+    }
+
+    List<MECServer> getServers() { return servers; }
+    List<MECServer> getCandidates() { return candidates; }
+    int getVmCount(int server) { return vmsByServer.get(server).size(); }
+
+    /** Index of a bound server, or -1 */
+    int indexOf(MECServer server) {
+        Integer s = serverIndex.get(server);
+        return s != null ? s : -1;
+    }
+
+    /** Next VM of the server in round-robin order, or null if it hosts none */
+    Vm next(int server) {
+        List<Vm> vms = vmsByServer.get(server);
+        return vms.isEmpty() ? null : vms.get(nextVm[server]++ % vms.size());
+    }
+}
@@ -37,6 +37,9 @@ public class SimulationConfig {
     private int taskOutputMax = 1000;
     private double deadlineMin = 1.0;
     private double deadlineMax = 30.0;
+    // Generate tasks as they arrive and release the simulation's task state on finish; the CloudSim
+    // broker still keeps every submitted and finished Cloudlet, so memory stays O(taskCount)
+    private boolean streamingWorkload = false;
     
     // ===== Cost Model Parameters =====
     private double computeCost = 0.0001;
@@ -48,15 +51,45 @@ public class SimulationConfig {
     private int uavCount = 0; // Auto-calculated if 0
     private double uavAltitude = 100.0; // meters
     private int uavCapacityPerNode = 20; // NU - max IoTs per UAV
+    private boolean capacitatedPlacement = false; // Balanced K-means: no UAV covers more than NU devices
     private double sinrThreshold = 10.0; // dB
     private double revenueParameter = 0.1; // v from paper
     private double costParameter = 0.01; // w from paper
     private double areaWidth = 1000.0; // meters
     private double areaHeight = 1000.0; // meters
     
+    // ===== Channel Model Parameters =====
+    private String pathLossMode = "exact"; // exact | cached | table
+    private double pathLossTableError = 1e-3; // Max relative error in table mode
+    private boolean vectorizedChannel = false; // Vector API kernel for batch channel evaluation
+    private boolean interference = false; // Co-channel uplink interference in SINR checks
+    private int interferencePrbPool = 25; // Shared PRBs (reuse-1); collision probability 1/pool
+
     // ===== Optimization Parameters =====
     private double aggressionLevel = 0.5; // AdaptivePolicy
     private int optimizationIterations = 100; // K-means and R-TMSC
+    private String kMeansAlgorithm = "hamerly"; // lloyd | hamerly | elkan | mini_batch (UAV placement)
+    private boolean parallelMatching = false; // Fork-join preference lists in R-TMSC and K-means assignment
+    private int matchingParallelism = 0; // Worker threads, 0 = all cores
+    private String matchingBackend = "object"; // object | indexed | auction
+    private boolean serverPruning = true; // Branch-and-bound single-task offloading search (same decisions)
+    private String offloadingPolicy = "none"; // none (round-robin broker) | adaptive, with streamingWorkload
+    private double policyUpdateInterval = 1.0; // Simulated seconds between policy updates
+    private double epochWindow = 0; // Simulated seconds per batch-matching epoch (0 = off)
+
+    // ===== Metrics Collection =====
+    private int metricsBufferCapacity = 10_000; // Ring buffer slots
+    private String metricsBackpressure = "drop"; // drop | block | sample
+
+    // ===== Result Export =====
+    private boolean streamingExport = false; // Write result rows as cloudlets finish
+    private boolean exportGzip = false; // Gzip-compress exported files
+    private boolean prettyJson = true; // Indented JSON (several times larger)
+    private boolean binaryExport = false; // Also write a columnar metrics_*.bin
+
+    // ===== Replication Runner =====
+    private int replicationSeeds = 10; // Seeds per config, starting at randomSeed
+    private int replicationParallelism = 0; // Concurrent runs, 0 = all cores
     
     public SimulationConfig() {}
     
@@ -89,6 +122,7 @@ public class SimulationConfig {
     public int getTaskOutputMax() { return taskOutputMax; }
     public double getDeadlineMin() { return deadlineMin; }
     public double getDeadlineMax() { return deadlineMax; }
+    public boolean isStreamingWorkload() { return streamingWorkload; }
     
     public double getComputeCost() { return computeCost; }
     public double getBandwidthCost() { return bandwidthCost; }
@@ -98,14 +132,38 @@ public class SimulationConfig {
     public int getUavCount() { return uavCount == 0 ? (taskCount + uavCapacityPerNode - 1) / uavCapacityPerNode : uavCount; }
     public double getUavAltitude() { return uavAltitude; }
     public int getUavCapacityPerNode() { return uavCapacityPerNode; }
+    public boolean isCapacitatedPlacement() { return capacitatedPlacement; }
     public double getSinrThreshold() { return sinrThreshold; }
     public double getRevenueParameter() { return revenueParameter; }
     public double getCostParameter() { return costParameter; }
     public double getAreaWidth() { return areaWidth; }
     public double getAreaHeight() { return areaHeight; }
     
+    public String getPathLossMode() { return pathLossMode; }
+    public double getPathLossTableError() { return pathLossTableError; }
+    public boolean isVectorizedChannel() { return vectorizedChannel; }
+    public boolean isInterference() { return interference; }
+    public int getInterferencePrbPool() { return interferencePrbPool; }
+    public int getMetricsBufferCapacity() { return metricsBufferCapacity; }
+    public String getMetricsBackpressure() { return metricsBackpressure; }
+    public boolean isStreamingExport() { return streamingExport; }
+    public boolean isExportGzip() { return exportGzip; }
+    public boolean isPrettyJson() { return prettyJson; }
+    public boolean isBinaryExport() { return binaryExport; }
+
+    public int getReplicationSeeds() { return replicationSeeds; }
+    public int getReplicationParallelism() { return replicationParallelism; }
+
     public double getAggressionLevel() { return aggressionLevel; }
     public int getOptimizationIterations() { return optimizationIterations; }
+    public String getKMeansAlgorithm() { return kMeansAlgorithm; }
+    public boolean isParallelMatching() { return parallelMatching; }
+    public int getMatchingParallelism() { return matchingParallelism; }
+    public String getMatchingBackend() { return matchingBackend; }
+    public boolean isServerPruning() { return serverPruning; }
+    public String getOffloadingPolicy() { return offloadingPolicy; }
+    public double getPolicyUpdateInterval() { return policyUpdateInterval; }
+    public double getEpochWindow() { return epochWindow; }
     
     // ========== SETTERS ==========
     
@@ -128,6 +186,7 @@ public class SimulationConfig {
     
     public void setTaskCount(int v) { taskCount = v; }
     public void setArrivalRate(double v) { arrivalRate = v; }
+    public void setStreamingWorkload(boolean v) { streamingWorkload = v; }
     public void setTaskComputeMin(int v) { taskComputeMin = v; }
     public void setTaskComputeMax(int v) { taskComputeMax = v; }
     public void setTaskDataMin(int v) { taskDataMin = v; }
@@ -145,14 +204,38 @@ public class SimulationConfig {
     public void setUavCount(int v) { uavCount = v; }
     public void setUavAltitude(double v) { uavAltitude = v; }
     public void setUavCapacityPerNode(int v) { uavCapacityPerNode = v; }
+    public void setCapacitatedPlacement(boolean v) { capacitatedPlacement = v; }
     public void setSinrThreshold(double v) { sinrThreshold = v; }
     public void setRevenueParameter(double v) { revenueParameter = v; }
     public void setCostParameter(double v) { costParameter = v; }
     public void setAreaWidth(double v) { areaWidth = v; }
     public void setAreaHeight(double v) { areaHeight = v; }
     
+    public void setPathLossMode(String v) { pathLossMode = v; }
+    public void setPathLossTableError(double v) { pathLossTableError = v; }
+    public void setVectorizedChannel(boolean v) { vectorizedChannel = v; }
+    public void setInterference(boolean v) { interference = v; }
+    public void setInterferencePrbPool(int v) { interferencePrbPool = v; }
+    public void setMetricsBufferCapacity(int v) { metricsBufferCapacity = v; }
+    public void setMetricsBackpressure(String v) { metricsBackpressure = v; }
+    public void setStreamingExport(boolean v) { streamingExport = v; }
+    public void setExportGzip(boolean v) { exportGzip = v; }
+    public void setPrettyJson(boolean v) { prettyJson = v; }
+    public void setBinaryExport(boolean v) { binaryExport = v; }
+
+    public void setReplicationSeeds(int v) { replicationSeeds = v; }
+    public void setReplicationParallelism(int v) { replicationParallelism = v; }
+
     public void setAggressionLevel(double v) { aggressionLevel = v; }
     public void setOptimizationIterations(int v) { optimizationIterations = v; }
+    public void setKMeansAlgorithm(String v) { kMeansAlgorithm = v; }
+    public void setParallelMatching(boolean v) { parallelMatching = v; }
+    public void setMatchingParallelism(int v) { matchingParallelism = v; }
+    public void setMatchingBackend(String v) { matchingBackend = v; }
+    public void setServerPruning(boolean v) { serverPruning = v; }
+    public void setOffloadingPolicy(String v) { offloadingPolicy = v; }
+    public void setPolicyUpdateInterval(double v) { policyUpdateInterval = v; }
+    public void setEpochWindow(double v) { epochWindow = v; }
     
     @Override
     public String toString() {
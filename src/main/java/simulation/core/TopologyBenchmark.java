@@ -0,0 +1,50 @@
+package simulation.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Topology Benchmark: per-run topology setup time against the whole run
+ * Runs replications of one config that differ only in their seed, as a workload-only sweep
+ * would, and reports how much of each run goes to building hosts, servers and VMs.
+ *
+ * Usage: TopologyBenchmark [config.yaml] [runs] (default 5 runs after one warm-up)
+ */
+public class TopologyBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(TopologyBenchmark.class);
+
+    private static String describe(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0) / 1e6;
+        return String.format("mean %.3f ms, median %.3f ms", mean, sorted[sorted.length / 2] / 1e6);
+    }
+
+    public static void main(String[] args) {
+        String configPath = args.length > 0 ? args[0] : "src/main/resources/config.yaml";
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        SimulationConfig base = ConfigurationLoader.loadFromYAML(configPath);
+        logger.info("Topology: {} hosts x {} PEs, {} VMs; {} tasks per run, {} runs after one warm-up",
+                base.getHostCount(), base.getHostPes(), base.getVmCount(), base.getTaskCount(), runs);
+
+        long[] setup = new long[runs];
+        long[] total = new long[runs];
+        for (int i = -1; i < runs; i++) {
+            SimulationConfig cfg = ConfigurationLoader.loadFromYAML(configPath);
+            cfg.setRandomSeed(base.getRandomSeed() + i + 1);
+            long start = System.nanoTime();
+            UAVMECSimulation sim = new UAVMECSimulation(cfg);
+            sim.run();
+            if (i < 0) continue;
+            total[i] = System.nanoTime() - start;
+            setup[i] = sim.getTopologySetupNanos();
+        }
+
+        double share = 100.0 * Arrays.stream(setup).sum() / Arrays.stream(total).sum();
+        logger.info("Topology setup: {}", describe(setup));
+        logger.info("Whole run:      {}", describe(total));
+        logger.info(String.format("Setup share of run time: %.4f%%", share));
+    }
+}
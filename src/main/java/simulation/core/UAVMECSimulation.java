@@ -2,7 +2,6 @@ package simulation.core;
 
 import org.cloudbus.cloudsim.brokers.DatacenterBrokerSimple;
 import org.cloudbus.cloudsim.cloudlets.Cloudlet;
-import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.datacenters.Datacenter;
 import org.cloudbus.cloudsim.datacenters.DatacenterSimple;
@@ -10,14 +9,15 @@ import org.cloudbus.cloudsim.hosts.Host;
 import org.cloudbus.cloudsim.hosts.HostSimple;
 import org.cloudbus.cloudsim.resources.Pe;
 import org.cloudbus.cloudsim.resources.PeSimple;
-import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
 import org.cloudbus.cloudsim.vms.Vm;
 import org.cloudbus.cloudsim.vms.VmSimple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import simulation.analysis.AnalysisReport;
+import simulation.analysis.LogHistogram;
 import simulation.analysis.MetricsExporter;
+import simulation.analysis.MetricsStreamWriter;
 import simulation.analysis.StatisticalAnalyzer;
 import simulation.events.MetricsCollector;
 import simulation.model.*;
@@ -31,57 +31,176 @@ public class UAVMECSimulation {
 
     private final CloudSim simulation;
     private final DatacenterBrokerSimple broker;
+    private final PolicyDrivenBroker policyBroker; // Null with the default round-robin broker
+    private EpochDispatcher epochs; // Set in epoch mode once the datacenter exists
     private final SimulationConfig config;
+    private final KMeans kMeans; // UAV placement
 
     private final CostOptimizer optimizer;
+    private final MetricsCollector metricsCollector;
     private final List<Vm> vmList = new ArrayList<>();
     private final List<Cloudlet> cloudlets = new ArrayList<>();
     private final List<MECServer> mecServers = new ArrayList<>();
-    private final Map<Cloudlet, Task> cloudletTaskMap = new HashMap<>();
+    // Cloudlet equality follows its id, which the broker assigns only on submission
+    private final Map<Cloudlet, Task> cloudletTaskMap = new IdentityHashMap<>();
+
+    // Streaming workload: tasks are generated as the clock reaches them and released on finish
+    private WorkloadGenerator arrivals;
+    private double nextArrivalTime = -1; // Arrival of the one task submitted ahead of the clock
+    private int inFlight = 0;
+    private int peakInFlight = 0;
+
+    // IoT devices tasks originate from; only placed when an offloading policy or epochs are active
+    private double[] deviceX;
+    private double[] deviceY;
+    private Random deviceRnd;
 
     private long startClock;
+    private long topologySetupNanos;
+    private MetricsStreamWriter resultStream; // Open during the run in streaming export mode
+    private MetricStore binaryResults; // Result rows kept for the binary export
     private int tasksCompleted = 0;
     private int tasksWithinDeadline = 0;
     private double totalLatency = 0;
     private double totalCost = 0;
 
+    // Per-task tail histograms (3 significant digits, fixed memory, mergeable across runs)
+    private final LogHistogram latencyHistogram = new LogHistogram(1e-3, 1e7, 3);
+    private final LogHistogram costHistogram = new LogHistogram(1e-6, 1e6, 3);
+
     public UAVMECSimulation(SimulationConfig cfg) {
         this.config = cfg;
+        validate(cfg);
+        this.kMeans = new KMeans(KMeans.Algorithm.valueOf(cfg.getKMeansAlgorithm().toUpperCase()),
+            cfg.getOptimizationIterations(), 42);
+        CommunicationModel.PathLossMode pathLoss =
+            CommunicationModel.PathLossMode.valueOf(cfg.getPathLossMode().toUpperCase());
+        MetricsCollector.Backpressure backpressure =
+            MetricsCollector.Backpressure.valueOf(cfg.getMetricsBackpressure().toUpperCase());
+
+        // JVM-wide channel settings and the metrics drain thread: only once the config is accepted
+        CommunicationModel.configurePathLoss(pathLoss, cfg.getPathLossTableError());
+        ChannelBatch.setVectorEnabled(cfg.isVectorizedChannel());
         this.simulation = new CloudSim();
         simulation.terminateAt(cfg.getSimulationTime());
-        this.broker = new DatacenterBrokerSimple(simulation);
 
+        this.metricsCollector = new MetricsCollector(cfg.getMetricsBufferCapacity(), backpressure);
         this.optimizer = new CostOptimizer(
             new CostModel(cfg.getComputeCost(), cfg.getBandwidthCost(), cfg.getLatencyPenalty(), cfg.getEnergyCost()),
-            new MetricsCollector(10_000)
+            metricsCollector
         );
+        optimizer.setMatchingBackend(cfg.getMatchingBackend());
+        optimizer.setServerPruning(cfg.isServerPruning());
+        optimizer.setMatchingParallelism(cfg.isParallelMatching() ? cfg.getMatchingParallelism() : 1);
+        kMeans.setParallelism(cfg.isParallelMatching() ? cfg.getMatchingParallelism() : 1);
+        optimizer.setInterferencePrbPool(cfg.isInterference() ? cfg.getInterferencePrbPool() : 0);
+
+        OptimizationPolicy policy = createPolicy(cfg);
+        this.policyBroker = policy != null
+            ? new PolicyDrivenBroker(simulation, policy, cloudletTaskMap::get, cfg.getPolicyUpdateInterval())
+            : null;
+        this.broker = policyBroker != null ? policyBroker : new DatacenterBrokerSimple(simulation);
+    }
+
+    /**
+     * Reject settings that cannot run together, before the constructor has any side effect
+     */
+    private static void validate(SimulationConfig cfg) {
+        String policy = cfg.getOffloadingPolicy().toLowerCase();
+        if (!policy.equals("none") && !policy.equals("adaptive")) {
+            throw new IllegalArgumentException("Unknown offloading policy: " + cfg.getOffloadingPolicy());
+        }
+        if (policy.equals("none")) return;
+        if (cfg.getEpochWindow() > 0) {
+            // Both would drive the same UAV loads: the matcher resets them every epoch
+            throw new IllegalArgumentException("Epoch matching requires offloadingPolicy none, got " + cfg.getOffloadingPolicy());
+        }
+        if (!cfg.isStreamingWorkload()) {
+            // The broker maps cloudlets as they are submitted: all at t=0 with an eager workload
+            throw new IllegalArgumentException("Offloading policy " + cfg.getOffloadingPolicy() + " requires workload.streaming");
+        }
+    }
+
+    private OptimizationPolicy createPolicy(SimulationConfig cfg) {
+        switch (cfg.getOffloadingPolicy().toLowerCase()) {
+            case "none":
+                return null;
+            case "adaptive":
+                AdaptivePolicy adaptive = new AdaptivePolicy(optimizer);
+                adaptive.setAggressionLevel(cfg.getAggressionLevel());
+                return adaptive;
+            default:
+                throw new IllegalArgumentException("Unknown offloading policy: " + cfg.getOffloadingPolicy());
+        }
     }
 
     public void run() {
-        logger.info("Starting UAV-MEC Simulation…");
-        startClock = System.currentTimeMillis();
+        try {
+            logger.info("Starting UAV-MEC Simulation…");
+            startClock = System.currentTimeMillis();
 
-        Datacenter dc = createDatacenter();
-        logger.info("✓ Datacenter created with {} hosts", config.getHostCount());
+            long setupStart = System.nanoTime();
+            Datacenter dc = createDatacenter();
+            logger.info("✓ Datacenter created with {} hosts", config.getHostCount());
 
-        createVMs();
-        logger.info("✓ Created {} VMs for MEC servers", vmList.size());
+            createVMs();
+            logger.info("✓ Created {} VMs for MEC servers", vmList.size());
+            topologySetupNanos = System.nanoTime() - setupStart;
 
-        createCloudlets();
-        logger.info("✓ Generated {} IoT tasks", cloudlets.size());
+            broker.submitVmList(vmList);
+            if (config.isBinaryExport()) {
+                binaryResults = new MetricStore();
+            }
+
+            WorkloadGenerator workload = new WorkloadGenerator(config, broker);
+            if (epochs != null) {
+                // Tasks are recorded and released as they finish, as with a streaming workload
+                resultStream = openResultStream();
+                epochs.start(workload, this::acceptEpochArrival);
+                logger.info("✓ Matching {} IoT tasks in epochs of {} s", config.getTaskCount(), epochs.getWindow());
+            } else if (config.isStreamingWorkload()) {
+                // Rows are written as tasks finish, since their state is released right after
+                resultStream = openResultStream();
+                arrivals = workload;
+                submitArrivalsUpTo(0);
+                simulation.addOnClockTickListener(info -> submitArrivalsUpTo(info.getTime()));
+                logger.info("✓ Streaming {} IoT tasks as they arrive", config.getTaskCount());
+            } else {
+                createCloudlets(workload);
+                logger.info("✓ Generated {} IoT tasks", cloudlets.size());
 
-        broker.submitVmList(vmList);
-        broker.submitCloudletList(cloudlets);
-        logger.info("✓ Submitted {} cloudlets to broker", cloudlets.size());
+                broker.submitCloudletList(cloudlets);
+                logger.info("✓ Submitted {} cloudlets to broker", cloudlets.size());
 
-        // ✅ CORRECTED: Use CloudSim native method instead of broker listener
-        simulation.start();
+                if (config.isStreamingExport()) {
+                    resultStream = openResultStream();
+                    cloudlets.forEach(c -> c.addOnFinishListener(info -> writeResult(info.getCloudlet(), resultStream)));
+                }
+            }
+
+            // ✅ CORRECTED: Use CloudSim native method instead of broker listener
+            simulation.start();
         
-        logger.info("✓ Simulation completed");
+            logger.info("✓ Simulation completed");
 
-        // After simulation completes, process results from finished cloudlets
-        processResults();
-        exportResults();
+            // After simulation completes, process results from finished cloudlets
+            if (arrivals == null && epochs == null) {
+                processResults();
+            } else {
+                logger.info("✓ Recorded {} tasks as they finished, at most {} in flight", tasksCompleted, peakInFlight);
+            }
+            exportResults();
+        } finally {
+            if (resultStream != null) {
+                // Failed run: finish the rows written so far (JSON array end, gzip trailer)
+                try {
+                    closeResultStream();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to close results of a failed run", e);
+                }
+            }
+            metricsCollector.shutdown(); // Also after a failed run: its drain thread would stay parked
+        }
     }
 
     private Datacenter createDatacenter() {
@@ -106,7 +225,46 @@ public class UAVMECSimulation {
             optimizer.registerServer(server);
         }
 
-        return new DatacenterSimple(simulation, hosts);
+        Datacenter dc = new DatacenterSimple(simulation, hosts);
+        if (policyBroker != null) {
+            policyBroker.bindServers(mecServers, dc.getHostList());
+            deployUavs();
+        } else if (config.getEpochWindow() > 0) {
+            epochs = new EpochDispatcher(simulation, broker, optimizer, mecServers, dc.getHostList(), config.getEpochWindow());
+            deployUavs();
+        }
+        return dc;
+    }
+
+    /**
+     * Spread IoT devices uniformly over the area and place the UAV fleet over them with K-means,
+     * capacitated if configured; each task then originates at a random device
+     */
+    private void deployUavs() {
+        deviceRnd = new Random(config.getRandomSeed() + 1); // Leaves the workload's draws untouched
+        int devices = Math.max(1, config.getUavCount() * config.getUavCapacityPerNode());
+        deviceX = new double[devices];
+        deviceY = new double[devices];
+        Map<String, double[]> positions = new LinkedHashMap<>();
+        for (int d = 0; d < devices; d++) {
+            deviceX[d] = deviceRnd.nextDouble() * config.getAreaWidth();
+            deviceY[d] = deviceRnd.nextDouble() * config.getAreaHeight();
+            positions.put("IOT_" + d, new double[]{deviceX[d], deviceY[d]});
+        }
+        List<UAVEntity> uavs = UAVPositioningOptimizer.optimizeUAVPositions(positions,
+            config.getUavCount(), config.getUavAltitude(), config.getUavCapacityPerNode(),
+            kMeans, config.isCapacitatedPlacement());
+        uavs.forEach(optimizer::registerUAV);
+        logger.info("✓ Deployed {} UAVs over {} IoT devices", uavs.size(), devices);
+    }
+
+    private void registerTask(WorkloadGenerator.Arrival a) {
+        cloudletTaskMap.put(a.cloudlet, a.task);
+        optimizer.registerTask(a.task);
+        if (deviceX != null) {
+            int d = deviceRnd.nextInt(deviceX.length);
+            optimizer.registerIoTPosition(a.task.getId(), deviceX[d], deviceY[d]);
+        }
     }
 
     private void createVMs() {
@@ -119,40 +277,53 @@ public class UAVMECSimulation {
         }
     }
 
-    private void createCloudlets() {
-        Random rnd = new Random(config.getRandomSeed());
-        UtilizationModelFull util = new UtilizationModelFull();
-
-        double arrivalTime = 0;
-
-        for (int i = 0; i < config.getTaskCount(); i++) {
-            arrivalTime += -Math.log(1 - rnd.nextDouble()) / config.getArrivalRate();
-
-            long compute = config.getTaskComputeMin()
-                    + rnd.nextInt((int)(config.getTaskComputeMax() - config.getTaskComputeMin()));
-            long data = config.getTaskDataMin()
-                    + rnd.nextInt((int)(config.getTaskDataMax() - config.getTaskDataMin()));
-            long outSize = config.getTaskOutputMin()
-                    + rnd.nextInt((int)(config.getTaskOutputMax() - config.getTaskOutputMin()));
-            double deadline = config.getDeadlineMin()
-                    + rnd.nextDouble() * (config.getDeadlineMax() - config.getDeadlineMin());
-
-            Task t = new Task("TASK_" + i, arrivalTime, compute, data, deadline);
+    private void createCloudlets(WorkloadGenerator workload) {
+        while (workload.hasNext()) {
+            WorkloadGenerator.Arrival a = workload.next();
+            cloudlets.add(a.cloudlet);
+            registerTask(a);
+        }
+    }
 
-            Cloudlet c = new CloudletSimple(compute, 1)
-                    .setFileSize(data)
-                    .setOutputSize(outSize)
-                    .setUtilizationModelCpu(util)
-                    .setUtilizationModelRam(util)
-                    .setUtilizationModelBw(util);
+    /**
+     * Submit every task arriving by now plus the first one after it. The broker then always
+     * holds the next arrival as a future event, and only that one task runs ahead of the clock.
+     */
+    private void submitArrivalsUpTo(double now) {
+        if (nextArrivalTime - now > 1e-9 * Math.max(1, now)) return;
+        while (arrivals.hasNext()) {
+            WorkloadGenerator.Arrival a = arrivals.next();
+            double arrival = a.task.getArrivalTime();
+            a.cloudlet.setSubmissionDelay(Math.max(0, arrival - now));
+            a.cloudlet.addOnFinishListener(info -> recordFinished(info.getCloudlet()));
+            registerTask(a);
+            broker.submitCloudlet(a.cloudlet);
+            peakInFlight = Math.max(peakInFlight, ++inFlight);
+            if (arrival > now) {
+                nextArrivalTime = arrival;
+                return;
+            }
+        }
+        nextArrivalTime = Double.POSITIVE_INFINITY;
+    }
 
-            c.setSubmissionDelay(arrivalTime);
-            c.setBroker(broker);
+    private void acceptEpochArrival(WorkloadGenerator.Arrival a) {
+        a.cloudlet.addOnFinishListener(info -> recordFinished(info.getCloudlet()));
+        registerTask(a);
+        peakInFlight = Math.max(peakInFlight, ++inFlight);
+    }
 
-            cloudlets.add(c);
-            cloudletTaskMap.put(c, t);
-            optimizer.registerTask(t);
-        }
+    /**
+     * Record a finished streamed task and drop every reference the simulation holds to it
+     * (the broker's own submitted and finished lists still hold its Cloudlet)
+     */
+    private void recordFinished(Cloudlet cloudlet) {
+        Task task = cloudletTaskMap.get(cloudlet);
+        recordResult(cloudlet, task);
+        writeResult(cloudlet, resultStream);
+        cloudletTaskMap.remove(cloudlet);
+        if (task != null) optimizer.unregisterTask(task);
+        inFlight--;
     }
 
     private void processResults() {
@@ -161,33 +332,44 @@ public class UAVMECSimulation {
 
         for (Cloudlet cloudlet : finishedCloudlets) {
             if (cloudlet == null || !cloudlet.isFinished()) continue;
-            
-            Task task = cloudletTaskMap.get(cloudlet);
-            
-            // Count ALL finished cloudlets, even if no task mapping
-            double executionTime = cloudlet.getFinishTime() - cloudlet.getSubmissionDelay();
-            tasksCompleted++;
-            totalLatency += executionTime;
-            
-            if (task != null) {
-                double cost = calculateTaskCost(cloudlet, task);
-                totalCost += cost;
-                
-                if (executionTime <= task.getDeadline()) {
-                    tasksWithinDeadline++;
-                }
-            } else {
-                totalCost += 0.1; // Default cost for unmapped
-            }
+            recordResult(cloudlet, cloudletTaskMap.get(cloudlet));
         }
         
         logger.info("✓ Processed: {}/{} tasks, {} met deadline",
             tasksCompleted, config.getTaskCount(), tasksWithinDeadline);
     }
 
+    private void recordResult(Cloudlet cloudlet, Task task) {
+        // Count ALL finished cloudlets, even if no task mapping
+        double executionTime = latency(cloudlet, task);
+        tasksCompleted++;
+        totalLatency += executionTime;
+        latencyHistogram.record(executionTime);
+        
+        if (task != null) {
+            double cost = calculateTaskCost(cloudlet, task);
+            totalCost += cost;
+            costHistogram.record(cost);
+            
+            if (executionTime <= task.getDeadline()) {
+                tasksWithinDeadline++;
+            }
+        } else {
+            totalCost += 0.1; // Default cost for unmapped
+            costHistogram.record(0.1);
+        }
+    }
+
+    /**
+     * Finish time minus arrival time; streamed cloudlets carry a submission delay relative
+     * to the clock at submission, so the task's arrival time is the reference when known
+     */
+    private static double latency(Cloudlet cloudlet, Task task) {
+        return cloudlet.getFinishTime() - (task != null ? task.getArrivalTime() : cloudlet.getSubmissionDelay());
+    }
 
     private double calculateTaskCost(Cloudlet cloudlet, Task task) {
-        double executionTime = cloudlet.getFinishTime() - cloudlet.getSubmissionDelay();
+        double executionTime = latency(cloudlet, task);
         double computeTime = (double) cloudlet.getLength() / (double) cloudlet.getVm().getMips();
         double dataCost = (cloudlet.getFileSize() + cloudlet.getOutputSize()) * 0.001; // per MB
         double computeCost = computeTime * 0.1; // per ms
@@ -198,22 +380,25 @@ public class UAVMECSimulation {
     }
 
     private void exportResults() {
-        String ts = String.valueOf(System.currentTimeMillis());
         long duration = System.currentTimeMillis() - startClock;
 
         try {
-            // Create metric entries from results
-            List<MetricEntry> allMetrics = createMetricsFromResults();
-
-            // Export to files
-            MetricsExporter.exportToCSV(
-                config.getResultsDirectory() + "/metrics_" + ts + ".csv", 
-                allMetrics
-            );
-            MetricsExporter.exportToJSON(
-                config.getResultsDirectory() + "/analysis_" + ts + ".json", 
-                allMetrics
-            );
+            // Streamed rows were written as cloudlets finished; otherwise write them now
+            if (resultStream != null) {
+                closeResultStream();
+            } else {
+                try (MetricsStreamWriter writer = openResultStream()) {
+                    for (Cloudlet cloudlet : broker.getCloudletFinishedList()) {
+                        writeResult(cloudlet, writer);
+                    }
+                }
+            }
+            if (binaryResults != null) {
+                MetricsExporter.exportToBinary(
+                    config.getResultsDirectory() + "/metrics_" + startClock + ".bin", binaryResults);
+            }
+            MetricsExporter.exportHistograms(
+                config.getResultsDirectory() + "/histograms_" + startClock + ".json", getResultHistograms());
 
             // Print summary
             logger.info("\n" + "=".repeat(70));
@@ -229,10 +414,30 @@ public class UAVMECSimulation {
                 
                 logger.info(String.format("Tasks Meeting Deadline: %d (SLA Compliance: %.2f%%)", tasksWithinDeadline, slaCompliance));
                 logger.info(String.format("Average Latency: %.2f ms", avgLatency));
+                logger.info(String.format("Latency p50/p95/p99/p99.9: %.2f / %.2f / %.2f / %.2f ms",
+                    latencyHistogram.getValueAtPercentile(50), latencyHistogram.getValueAtPercentile(95),
+                    latencyHistogram.getValueAtPercentile(99), latencyHistogram.getValueAtPercentile(99.9)));
                 logger.info(String.format("Average Cost: $%.4f", avgCost));
                 logger.info(String.format("Total Cost: $%.2f", totalCost));
+            }
+            if (policyBroker != null) {
+                LogHistogram decisions = policyBroker.getDecisionHistogram();
+                logger.info("{} decisions: {} ({} cloudlets fell back to round-robin)",
+                    policyBroker.getPolicy().getPolicyName(), policyBroker.getDecisionCount(), policyBroker.getFallbackCount());
+                logger.info(String.format("Decision time p50/p99/p99.9/max: %.2f / %.2f / %.2f / %.2f us",
+                    decisions.getValueAtPercentile(50), decisions.getValueAtPercentile(99),
+                    decisions.getValueAtPercentile(99.9), decisions.getMax()));
 
             }
+            if (epochs != null) {
+                LogHistogram matching = epochs.getMatchingHistogram();
+                logger.info("{} epochs of {} s: {} tasks matched ({} on re-match), {} to round-robin, batch p50/max {} / {}",
+                    epochs.getEpochCount(), epochs.getWindow(), epochs.getMatchedCount(), epochs.getRematchedCount(),
+                    epochs.getUnmatchedCount(), (long) epochs.getBatchSizeHistogram().getValueAtPercentile(50),
+                    (long) epochs.getBatchSizeHistogram().getMax());
+                logger.info(String.format("Matching time p50/p99/max: %.2f / %.2f / %.2f us",
+                    matching.getValueAtPercentile(50), matching.getValueAtPercentile(99), matching.getMax()));
+            }
 
             
             logger.info("Results exported to: {}/", config.getResultsDirectory());
@@ -243,32 +448,82 @@ public class UAVMECSimulation {
         }
     }
 
-    private List<MetricEntry> createMetricsFromResults() {
-        List<MetricEntry> metrics = new ArrayList<>();
-        List<Cloudlet> finishedCloudlets = broker.getCloudletFinishedList();
+    private void closeResultStream() {
+        MetricsStreamWriter stream = resultStream;
+        resultStream = null; // Closing twice would end the JSON array twice
+        stream.close();
+    }
 
-        for (Cloudlet cloudlet : finishedCloudlets) {
-            double executionTime = cloudlet.getFinishTime() - cloudlet.getSubmissionDelay();
-            boolean metDeadline = false;
-            double cost = 0.1;
-            Task task = cloudletTaskMap.get(cloudlet);
-
-            if (task != null) {
-                metDeadline = executionTime <= task.getDeadline();
-                cost = calculateTaskCost(cloudlet, task);
-            }
+    private MetricsStreamWriter openResultStream() {
+        String suffix = config.isExportGzip() ? ".gz" : "";
+        String dir = config.getResultsDirectory();
+        return new MetricsStreamWriter(
+            dir + "/metrics_" + startClock + ".csv" + suffix,
+            dir + "/analysis_" + startClock + ".json" + suffix,
+            config.isExportGzip(),
+            config.isPrettyJson()
+        );
+    }
+
+    private void writeResult(Cloudlet cloudlet, MetricsStreamWriter writer) {
+        Task task = cloudletTaskMap.get(cloudlet);
+        double executionTime = latency(cloudlet, task);
+        boolean metDeadline = false;
+        double cost = 0.1;
 
-            MetricEntry metric = new MetricEntry(
-                "CLOUDLET_FINISHED",
-                cloudlet.getId(),
-                metDeadline,
-                (long) cloudlet.getFinishTime()
-            );
-            metric.setLatency(executionTime);
-            metric.setCost(cost);
-            metrics.add(metric);
+        if (task != null) {
+            metDeadline = executionTime <= task.getDeadline();
+            cost = calculateTaskCost(cloudlet, task);
+        }
+
+        writer.write(
+            "CLOUDLET_FINISHED",
+            cloudlet.getId(),
+            metDeadline,
+            (long) cloudlet.getFinishTime(),
+            cost,
+            executionTime,
+            0.0
+        );
+        if (binaryResults != null) {
+            binaryResults.append("CLOUDLET_FINISHED", cloudlet.getId(), metDeadline,
+                (long) cloudlet.getFinishTime(), cost, executionTime, 0.0);
+        }
+    }
+
+    // ===== Run results =====
+    public int getTasksCompleted() { return tasksCompleted; }
+    public int getTasksWithinDeadline() { return tasksWithinDeadline; }
+    public double getTotalCost() { return totalCost; }
+    public double getAverageLatency() { return tasksCompleted > 0 ? totalLatency / tasksCompleted : 0; }
+    public double getAverageCost() { return tasksCompleted > 0 ? totalCost / tasksCompleted : 0; }
+    /** Percentage of completed tasks that met their deadline */
+    public double getSlaCompliance() { return tasksCompleted > 0 ? 100.0 * tasksWithinDeadline / tasksCompleted : 0; }
+    /** Most tasks held at once by a streaming or epoch run; 0 with an eager workload */
+    public int getPeakInFlight() { return peakInFlight; }
+    /** Cloudlets the policy broker left to round-robin mapping; 0 without a policy */
+    public long getPolicyFallbackCount() { return policyBroker != null ? policyBroker.getFallbackCount() : 0; }
+    /** Wall-clock time of building hosts, MEC servers, datacenter and VMs (and UAV placement if deployed) */
+    public long getTopologySetupNanos() { return topologySetupNanos; }
+
+    /**
+     * Per-task latency and cost histograms of the last run, keyed by metric name (no energy
+     * histogram until tasks carry an energy model),
+     * plus per-decision wall-clock microseconds (decisionMicros) when a policy broker is active
+     * and per-epoch matching microseconds and batch sizes in epoch mode
+     */
+    public Map<String, LogHistogram> getResultHistograms() {
+        Map<String, LogHistogram> histograms = new LinkedHashMap<>();
+        histograms.put("latency", latencyHistogram);
+        histograms.put("cost", costHistogram);
+        if (policyBroker != null) {
+            histograms.put("decisionMicros", policyBroker.getDecisionHistogram());
+        }
+        if (epochs != null) {
+            histograms.put("epochMatchingMicros", epochs.getMatchingHistogram());
+            histograms.put("epochBatchSize", epochs.getBatchSizeHistogram());
         }
-        return metrics;
+        return histograms;
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,84 @@
+package simulation.core;
+
+import org.cloudbus.cloudsim.brokers.DatacenterBroker;
+import org.cloudbus.cloudsim.cloudlets.Cloudlet;
+import org.cloudbus.cloudsim.cloudlets.CloudletSimple;
+import org.cloudbus.cloudsim.utilizationmodels.UtilizationModelFull;
+
+import simulation.model.Task;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Workload Generator: produces the IoT tasks of a run one at a time, in arrival order
+ * Arrivals are Poisson with the configured rate; compute, data, output size and deadline are
+ * uniform over their configured ranges. The draw order is fixed, so a seed yields the same
+ * workload whether it is materialized upfront or pulled lazily as simulated time advances.
+ */
+public final class WorkloadGenerator {
+
+    /**
+     * One generated task and the cloudlet that executes it
+     */
+    public static final class Arrival {
+        public final Task task;
+        public final Cloudlet cloudlet;
+
+        Arrival(Task task, Cloudlet cloudlet) {
+            this.task = task;
+            this.cloudlet = cloudlet;
+        }
+    }
+
+    private final SimulationConfig config;
+    private final DatacenterBroker broker;
+    private final Random rnd;
+    private final UtilizationModelFull util = new UtilizationModelFull();
+
+    private int generated = 0;
+    private double arrivalTime = 0;
+
+    public WorkloadGenerator(SimulationConfig cfg, DatacenterBroker broker) {
+        this.config = cfg;
+        this.broker = broker;
+        this.rnd = new Random(cfg.getRandomSeed());
+    }
+
+    public boolean hasNext() { return generated < config.getTaskCount(); }
+    public int getGenerated() { return generated; }
+
+    /**
+     * Next task; its cloudlet is bound to the broker and has the absolute arrival time as
+     * submission delay, which callers submitting later must rebase to the current clock
+     */
+    public Arrival next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("All " + generated + " tasks generated");
+        }
+        int i = generated++;
+        arrivalTime += -Math.log(1 - rnd.nextDouble()) / config.getArrivalRate();
+
+        long compute = config.getTaskComputeMin()
+                + rnd.nextInt((int)(config.getTaskComputeMax() - config.getTaskComputeMin()));
+        long data = config.getTaskDataMin()
+                + rnd.nextInt((int)(config.getTaskDataMax() - config.getTaskDataMin()));
+        long outSize = config.getTaskOutputMin()
+                + rnd.nextInt((int)(config.getTaskOutputMax() - config.getTaskOutputMin()));
+        double deadline = config.getDeadlineMin()
+                + rnd.nextDouble() * (config.getDeadlineMax() - config.getDeadlineMin());
+
+        Task t = new Task("TASK_" + i, arrivalTime, compute, data, deadline);
+
+        Cloudlet c = new CloudletSimple(compute, 1)
+                .setFileSize(data)
+                .setOutputSize(outSize)
+                .setUtilizationModelCpu(util)
+                .setUtilizationModelRam(util)
+                .setUtilizationModelBw(util);
+
+        c.setSubmissionDelay(arrivalTime);
+        c.setBroker(broker);
+        return new Arrival(t, c);
+    }
+}
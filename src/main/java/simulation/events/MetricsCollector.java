@@ -1,36 +1,267 @@
 package simulation.events;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import simulation.model.MetricEntry;
+import simulation.model.MetricStore;
 import java.util.*;
-import java.util.concurrent.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
+/**
+ * Metrics Collector: bounded, lock-free multi-producer ring buffer with one drain thread
+ * Producers claim a slot with a CAS on the tail and publish it through a per-slot sequence
+ * number (Vyukov bounded queue); no locks or task objects on the recording path.
+ * The drain thread hands entries to a consumer in batches and, once idle, parks until a
+ * producer publishes. When the ring is full the backpressure policy decides between dropping,
+ * blocking the producer, or sampling.
+ *
+ * The default consumer appends to a columnar MetricStore; a custom consumer replaces it.
+ */
 public class MetricsCollector {
 
-    private final ConcurrentMap<String, List<MetricEntry>> metrics = new ConcurrentHashMap<>();
-    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private static final Logger logger = LoggerFactory.getLogger(MetricsCollector.class);
 
-    public MetricsCollector(int capacity) {}
+    public enum Backpressure {
+        DROP,   // Reject when the ring is full
+        BLOCK,  // Wait for a free slot (never loses metrics while running)
+        SAMPLE  // Keep 1 in sampleRate once the ring is half full; reject when full
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int DEFAULT_SAMPLE_RATE = 8;
+    private static final long WAIT_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final int SPINS = 64;
+
+    private final MetricEntry[] ring;
+    private final AtomicLongArray sequence;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;      // Written by the drain thread only
+    private volatile long delivered; // Entries handed to the consumer
+
+    private final Backpressure backpressure;
+    private volatile int sampleRate = DEFAULT_SAMPLE_RATE;
+    private final AtomicLong sampleTicker = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+
+    private final int batchSize;
+    private final Consumer<List<MetricEntry>> consumer;
+    private final Thread drainer;
+    private volatile boolean running = true;
+    private volatile boolean drainerParked; // Producers unpark the idle drain thread
+
+    // Default consumer target, written by the drain thread only
+    private final MetricStore store = new MetricStore();
+
+    public MetricsCollector(int capacity) {
+        this(capacity, Backpressure.DROP);
+    }
+
+    public MetricsCollector(int capacity, Backpressure backpressure) {
+        this(capacity, backpressure, DEFAULT_BATCH_SIZE, null);
+    }
+
+    /**
+     * @param capacity ring slots (rounded up to a power of two)
+     * @param batchSize max entries per consumer call
+     * @param consumer receives batches on the drain thread (list is reused after the call);
+     *                 null appends them to the collector's MetricStore
+     */
+    public MetricsCollector(int capacity, Backpressure backpressure, int batchSize,
+                            Consumer<List<MetricEntry>> consumer) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.ring = new MetricEntry[size];
+        this.sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequence.set(i, i);
+        this.mask = size - 1;
+        this.backpressure = Objects.requireNonNull(backpressure);
+        this.batchSize = batchSize;
+        this.consumer = consumer != null ? consumer : this::store;
+
+        this.drainer = new Thread(this::drainLoop, "metrics-drain");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Sampling keeps 1 in rate metrics under SAMPLE backpressure
+     */
+    public void setSampleRate(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sample rate must be positive: " + rate);
+        }
+        this.sampleRate = rate;
+    }
 
     public void recordMetric(String type, long id, boolean success) {
-        MetricEntry entry = new MetricEntry(type, id, success, System.currentTimeMillis());
+        record(new MetricEntry(type, id, success, System.currentTimeMillis()));
+    }
+
+    /**
+     * Enqueue a prepared entry; returns false if it was dropped or sampled out
+     */
+    public boolean record(MetricEntry entry) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+        if (backpressure == Backpressure.SAMPLE && size() >= ring.length / 2
+                && sampleTicker.getAndIncrement() % sampleRate != 0) {
+            sampledOut.increment();
+            dropped.increment();
+            return false;
+        }
+        if (offer(entry)) return true;
+
+        // Blocking from the drain thread itself (a consumer recording) would deadlock
+        if (backpressure == Backpressure.BLOCK && Thread.currentThread() != drainer) {
+            for (int spins = 0; running; spins++) {
+                if (offer(entry)) return true;
+                if (spins < SPINS) Thread.onSpinWait();
+                else LockSupport.parkNanos(WAIT_PARK_NANOS);
+            }
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private boolean offer(MetricEntry entry) {
+        while (true) {
+            long t = tail.get();
+            int slot = (int) t & mask;
+            long diff = sequence.get(slot) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    ring[slot] = entry;
+                    sequence.set(slot, t + 1); // Publish
+                    if (drainerParked) LockSupport.unpark(drainer);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false; // Full: slot not yet consumed from the previous lap
+            }
+            // Otherwise another producer claimed t; retry with the new tail
+        }
+    }
+
+    private void drainLoop() {
+        List<MetricEntry> batch = new ArrayList<>(batchSize);
+        int idle = 0;
+        while (true) {
+            long h = head;
+            while (batch.size() < batchSize) {
+                int slot = (int) h & mask;
+                if (sequence.get(slot) != h + 1) break; // Not yet published
+                batch.add(ring[slot]);
+                ring[slot] = null;
+                sequence.set(slot, h + ring.length); // Free for the next lap
+                h++;
+            }
+            head = h;
 
-        executor.submit(() -> {
-            metrics.computeIfAbsent(type, k -> Collections.synchronizedList(new ArrayList<>()))
-                    .add(entry);
-        });
+            if (!batch.isEmpty()) {
+                try {
+                    consumer.accept(batch);
+                } catch (RuntimeException e) {
+                    logger.error("Metrics consumer failed, {} entries lost", batch.size(), e);
+                }
+                batch.clear();
+                delivered = h;
+                idle = 0;
+            } else if (!running && tail.get() == h) {
+                return;
+            } else if (idle++ < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                // Announce before the last check: a producer publishing after it sees the flag
+                drainerParked = true;
+                if (running && sequence.get((int) h & mask) != h + 1) LockSupport.park(this);
+                drainerParked = false;
+            }
+        }
     }
 
+    /**
+     * Wait until every metric recorded before this call has reached the consumer
+     */
+    public void flush() {
+        if (Thread.currentThread() == drainer) return;
+        long target = tail.get();
+        while (delivered < target && drainer.isAlive()) {
+            LockSupport.parkNanos(WAIT_PARK_NANOS);
+        }
+    }
+
+    private void store(List<MetricEntry> batch) {
+        for (MetricEntry e : batch) store.append(e);
+    }
+
+    /**
+     * Columnar view of delivered metrics (empty when a custom consumer is used)
+     */
+    public MetricStore getMetricStore() {
+        flush();
+        return store;
+    }
+
+    /**
+     * Delivered metrics as entry objects; prefer getMetricStore for large runs
+     */
     public List<MetricEntry> getAllMetrics() {
-        List<MetricEntry> list = new ArrayList<>();
-        metrics.values().forEach(list::addAll);
+        flush();
+        int n = store.size();
+        List<MetricEntry> list = new ArrayList<>(n);
+        for (int row = 0; row < n; row++) list.add(store.toEntry(row));
         return list;
     }
 
     public int getTotalMetricsCount() {
-        return metrics.values().stream().mapToInt(List::size).sum();
+        flush();
+        return store.size();
     }
 
+    /** Entries waiting in the ring */
+    public int size() { return (int) Math.max(0, tail.get() - head); }
+    public int getCapacity() { return ring.length; }
+    public Backpressure getBackpressure() { return backpressure; }
+    /** Metrics handed to the consumer so far */
+    public long getDeliveredCount() { return delivered; }
+    /** Metrics rejected for any reason (full ring, sampling, after shutdown) */
+    public long getDroppedCount() { return dropped.sum(); }
+    /** Part of the dropped count removed by SAMPLE backpressure */
+    public long getSampledOutCount() { return sampledOut.sum(); }
+
+    /**
+     * Stop accepting metrics and drain what is already buffered
+     * Metrics recorded concurrently with shutdown may be dropped.
+     */
     public void shutdown() {
-        executor.shutdown();
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Producers that claimed a slot while the drain thread was exiting
+        dropped.add(Math.max(0, tail.get() - delivered));
+        long lost = dropped.sum();
+        if (lost > 0) {
+            logger.warn("Metrics collector dropped {} of {} metrics ({} sampled out)",
+                    lost, lost + delivered, sampledOut.sum());
+        }
     }
 }
@@ -0,0 +1,140 @@
+package simulation.model;
+
+/**
+ * Channel Batch: distance, elevation, SINR and data rate for many IoT-UAV pairs in one pass
+ * Results are laid out IoT-major: pair (iot, uav) is at index iot * uavCount + uav.
+ * The default scalar kernel produces exactly the same values as CommunicationModel.calculateSINRAt
+ * and calculateDataRate. The JDK Vector API kernel is opt-in (setVectorEnabled) and only used when
+ * it was compiled (Maven profile "vector") and the jdk.incubator.vector module is resolved (run
+ * with --add-modules jdk.incubator.vector); it agrees with the scalar kernel to rounding.
+ */
+public class ChannelBatch {
+
+    /**
+     * One row of pairs: a source point against targets [0, n), written from offset
+     */
+    interface RowKernel {
+        void row(double px, double py, double[] qx, double[] qy, double[] altitude, int n,
+                 double[] distance3D, double[] elevation, double[] sinr, double[] dataRate, int offset);
+    }
+
+    private static final RowKernel VECTOR_KERNEL = loadVectorKernel();
+    private static final boolean VECTOR_AVAILABLE = VECTOR_KERNEL != null;
+    private static volatile boolean vectorEnabled = false;
+
+    private double[] distance3D = new double[0];
+    private double[] elevation = new double[0];
+    private double[] sinr = new double[0];
+    private double[] dataRate = new double[0];
+    private double[] altitudeScratch = new double[0];
+    private int iotCount;
+    private int uavCount;
+
+    private static RowKernel loadVectorKernel() {
+        if (!ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) return null;
+        try {
+            return (RowKernel) Class.forName("simulation.model.VectorChannelKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null; // Built without the vector profile
+        }
+    }
+
+    public static boolean isVectorAvailable() { return VECTOR_AVAILABLE; }
+    public static boolean isVectorEnabled() { return vectorEnabled; }
+
+    /**
+     * Enable or disable the vector kernel (no effect if the module is not available)
+     */
+    public static void setVectorEnabled(boolean enabled) {
+        vectorEnabled = enabled && VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Evaluate every IoT-UAV pair (no interference, 1 PRB)
+     * Output arrays are reused across calls and grown as needed.
+     */
+    public void compute(double[] iotX, double[] iotY, int iotCount,
+                        double[] uavX, double[] uavY, double[] uavAltitude, int uavCount) {
+        this.iotCount = iotCount;
+        this.uavCount = uavCount;
+        ensureCapacity(iotCount * uavCount, iotCount);
+
+        if (uavCount == 1) {
+            // Single UAV: one contiguous row across IoTs at a common altitude
+            java.util.Arrays.fill(altitudeScratch, 0, iotCount, uavAltitude[0]);
+            row(uavX[0], uavY[0], iotX, iotY, altitudeScratch, iotCount, 0);
+            return;
+        }
+        // One contiguous row per IoT across the fleet
+        for (int i = 0; i < iotCount; i++) {
+            row(iotX[i], iotY[i], uavX, uavY, uavAltitude, uavCount, i * uavCount);
+        }
+    }
+
+    private void row(double px, double py, double[] qx, double[] qy, double[] altitude,
+                     int n, int offset) {
+        // Table lookups are not vectorized; TABLE mode stays on the scalar kernel
+        if (vectorEnabled && CommunicationModel.getPathLossMode() != CommunicationModel.PathLossMode.TABLE) {
+            VECTOR_KERNEL.row(px, py, qx, qy, altitude, n,
+                    distance3D, elevation, sinr, dataRate, offset);
+        } else {
+            scalarRow(px, py, qx, qy, altitude, 0, n, distance3D, elevation, sinr, dataRate, offset);
+        }
+    }
+
+    /**
+     * Scalar kernel over targets [from, to); same arithmetic as UAVEntity geometry and CommunicationModel
+     */
+    static void scalarRow(double px, double py, double[] qx, double[] qy, double[] altitude, int from, int to,
+                          double[] distance3D, double[] elevation, double[] sinr, double[] dataRate,
+                          int offset) {
+        boolean table = CommunicationModel.getPathLossMode() == CommunicationModel.PathLossMode.TABLE;
+        for (int k = from; k < to; k++) {
+            double dx = qx[k] - px;
+            double dy = qy[k] - py;
+            double h = altitude[k];
+            double dist2D = Math.sqrt(dx * dx + dy * dy);
+            double dist3D = Math.sqrt(dist2D * dist2D + h * h);
+            double elev = dist2D == 0 ? 90.0 : Math.toDegrees(Math.atan(h / dist2D));
+
+            double pathLoss = table
+                    ? CommunicationModel.calculatePathLossAt(dist2D, h)
+                    : CommunicationModel.calculatePathLoss(dist3D, elev);
+            double s = CommunicationModel.sinrFromPathLoss(pathLoss, 0);
+
+            int o = offset + k;
+            distance3D[o] = dist3D;
+            elevation[o] = elev;
+            sinr[o] = s;
+            dataRate[o] = CommunicationModel.calculateDataRate(s, 1);
+        }
+    }
+
+    private void ensureCapacity(int pairs, int iots) {
+        if (sinr.length < pairs) {
+            distance3D = new double[pairs];
+            elevation = new double[pairs];
+            sinr = new double[pairs];
+            dataRate = new double[pairs];
+        }
+        if (altitudeScratch.length < iots) {
+            altitudeScratch = new double[iots];
+        }
+    }
+
+    // ===== Results =====
+
+    public int getIoTCount() { return iotCount; }
+    public int getUAVCount() { return uavCount; }
+    public double getDistance3D(int iot, int uav) { return distance3D[iot * uavCount + uav]; }
+    public double getElevation(int iot, int uav) { return elevation[iot * uavCount + uav]; }
+    public double getSINR(int iot, int uav) { return sinr[iot * uavCount + uav]; }
+    public double getDataRate(int iot, int uav) { return dataRate[iot * uavCount + uav]; }
+
+    /** Backing arrays (length may exceed iotCount * uavCount) for bulk readers */
+    public double[] distance3DArray() { return distance3D; }
+    public double[] elevationArray() { return elevation; }
+    public double[] sinrArray() { return sinr; }
+    public double[] dataRateArray() { return dataRate; }
+}
@@ -1,5 +1,9 @@
 package simulation.model;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Communication Model: SINR, path loss, and data rate calculations
  * Implements LoS/NLoS path loss model and Shannon capacity formula
@@ -9,18 +13,62 @@ public class CommunicationModel {
     // ===== Physical Layer Constants =====
     private static final double FREQUENCY = 2.4e9; // 2.4 GHz
     private static final double SPEED_OF_LIGHT = 3e8; // m/s
-    private static final double NOISE_POWER = 1e-13; // W (thermal noise)
-    private static final double TRANSMISSION_POWER = 0.1; // W
-    private static final double BANDWIDTH_PER_PRB = 180e3; // 180 kHz per PRB
+    static final double NOISE_POWER = 1e-13; // W (thermal noise)
+    static final double TRANSMISSION_POWER = 0.1; // W
+    static final double BANDWIDTH_PER_PRB = 180e3; // 180 kHz per PRB
 
     // ===== LoS Probability Parameters =====
-    private static final double LOS_PARAM_A = 12.0;
-    private static final double LOS_PARAM_B = 0.11;
+    static final double LOS_PARAM_A = 12.0;
+    static final double LOS_PARAM_B = 0.11;
 
     // ===== Path Loss Exponents =====
     private static final double PATH_LOSS_EXP_LOS = 2.0; // Free space
     private static final double PATH_LOSS_EXP_NLOS = 2.8; // Obstructed
 
+    // ===== Path Loss Evaluation Mode =====
+
+    /**
+     * EXACT: reference formulation, recomputed per call
+     * CACHED: same formulation with PL0 and power exponents folded into constants
+     * TABLE: per-altitude interpolated table over ground distance, within a relative error bound
+     */
+    public enum PathLossMode { EXACT, CACHED, TABLE }
+
+    static final double PL0 = Math.pow((4 * Math.PI) / (SPEED_OF_LIGHT / FREQUENCY), 2);
+    static final double NLOS_EXTRA_EXP = PATH_LOSS_EXP_NLOS - PATH_LOSS_EXP_LOS;
+    private static final double TABLE_MAX_DISTANCE = 10_000.0; // m, exact formula beyond
+    private static final int TABLE_MAX_POINTS = 1 << 22;
+    private static final int TABLE_MAX_ALTITUDES = 8; // Least recently used table evicted beyond this
+
+    private static volatile PathLossMode pathLossMode = PathLossMode.EXACT;
+    private static volatile double tableMaxRelativeError = 1e-3;
+    private static final Map<Double, PathLossTable> tables = Collections.synchronizedMap(
+            new LinkedHashMap<Double, PathLossTable>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Double, PathLossTable> eldest) {
+                    return size() > TABLE_MAX_ALTITUDES;
+                }
+            });
+    private static volatile PathLossTable lastTable; // Fleets usually fly at one altitude
+
+    /**
+     * Select how path loss is evaluated for all subsequent calls
+     * @param maxRelativeError Error bound for TABLE mode (ignored otherwise)
+     */
+    public static void configurePathLoss(PathLossMode mode, double maxRelativeError) {
+        if (maxRelativeError <= 0) {
+            throw new IllegalArgumentException("Table error bound must be positive: " + maxRelativeError);
+        }
+        if (maxRelativeError != tableMaxRelativeError) {
+            tables.clear();
+            lastTable = null;
+        }
+        tableMaxRelativeError = maxRelativeError;
+        pathLossMode = mode;
+    }
+
+    public static PathLossMode getPathLossMode() { return pathLossMode; }
+
     /**
      * Calculate Line-of-Sight probability based on elevation angle
      * PLoS(θ) = 1 / (1 + A * exp(-B * θ))
@@ -43,6 +91,9 @@ public class CommunicationModel {
      * Combines LoS and NLoS models weighted by probability
      */
     public static double calculatePathLoss(double distance3D, double elevationAngle) {
+        if (pathLossMode != PathLossMode.EXACT) {
+            return calculatePathLossCached(distance3D, elevationAngle);
+        }
         double pLos = calculateLoSProbability(elevationAngle);
         double pl0 = calculateFreeSpacePathLoss();
 
@@ -56,13 +107,51 @@ public class CommunicationModel {
         return pLos * plLos + (1 - pLos) * plNlos;
     }
 
+    /**
+     * Path loss with constants hoisted: PL0 precomputed, d² as a product, d^2.8 = d² * d^0.8
+     */
+    private static double calculatePathLossCached(double distance3D, double elevationAngle) {
+        double pLos = 1.0 / (1.0 + LOS_PARAM_A * Math.exp(-LOS_PARAM_B * elevationAngle));
+        double plLos = PL0 * distance3D * distance3D;
+        return plLos * (pLos + (1 - pLos) * Math.pow(distance3D, NLOS_EXTRA_EXP));
+    }
+
+    /**
+     * Calculate path loss from ground distance and UAV altitude
+     * Uses the interpolated table in TABLE mode; otherwise derives 3D distance and
+     * elevation angle with the same arithmetic as UAVEntity.
+     */
+    public static double calculatePathLossAt(double distance2D, double altitude) {
+        if (pathLossMode == PathLossMode.TABLE && distance2D < TABLE_MAX_DISTANCE) {
+            PathLossTable table = lastTable;
+            if (table == null || table.altitude != altitude) {
+                table = tables.computeIfAbsent(altitude, PathLossTable::new);
+                lastTable = table;
+            }
+            return table.lookup(distance2D);
+        }
+        double distance3D = Math.sqrt(distance2D * distance2D + altitude * altitude);
+        double elevationAngle = distance2D == 0 ? 90.0 : Math.toDegrees(Math.atan(altitude / distance2D));
+        return calculatePathLoss(distance3D, elevationAngle);
+    }
+
+    /**
+     * Calculate SINR from ground distance and UAV altitude
+     */
+    public static double calculateSINRAt(double distance2D, double altitude, double interferenceSum) {
+        return sinrFromPathLoss(calculatePathLossAt(distance2D, altitude), interferenceSum);
+    }
+
     /**
      * Calculate SINR (Signal-to-Interference-plus-Noise Ratio)
      * SINR = Pt / (PL * (I + N0))
      */
     public static double calculateSINR(double distance3D, double elevationAngle, 
                                        double interferenceSum) {
-        double pathLoss = calculatePathLoss(distance3D, elevationAngle);
+        return sinrFromPathLoss(calculatePathLoss(distance3D, elevationAngle), interferenceSum);
+    }
+
+    static double sinrFromPathLoss(double pathLoss, double interferenceSum) {
         double receivedPower = TRANSMISSION_POWER / pathLoss;
         double denominator = interferenceSum + NOISE_POWER;
         
@@ -72,6 +161,104 @@ public class CommunicationModel {
         return receivedPower / denominator;
     }
 
+    /**
+     * Calculate maximum 2D (ground) distance at which a UAV at the given altitude
+     * still delivers SINR >= threshold without interference.
+     * Path loss grows monotonically with ground distance (longer path, lower LoS
+     * probability), so the radius is found by bisection inside the free-space bound
+     * SINR <= Pt / (PL0 * d² * N0). In TABLE mode the threshold is relaxed by the
+     * table error bound so no pair the table would accept falls outside the radius.
+     * @return coverage radius in meters, or -1 if even the point below the UAV fails
+     */
+    public static double calculateCoverageRadius(double altitude, double sinrThreshold) {
+        if (sinrThreshold <= 0) return Double.POSITIVE_INFINITY;
+        if (pathLossMode == PathLossMode.TABLE) {
+            sinrThreshold *= 1 - tableMaxRelativeError;
+        }
+        if (calculateSINR(altitude, 90.0, 0) < sinrThreshold) return -1;
+
+        double maxDist3D = Math.sqrt(TRANSMISSION_POWER / (calculateFreeSpacePathLoss() * NOISE_POWER * sinrThreshold));
+        double hi = Math.sqrt(Math.max(0, maxDist3D * maxDist3D - altitude * altitude));
+        double lo = 0;
+
+        for (int i = 0; i < 64 && hi - lo > 1e-6; i++) {
+            double mid = 0.5 * (lo + hi);
+            double dist3D = Math.sqrt(mid * mid + altitude * altitude);
+            double elevAngle = mid == 0 ? 90.0 : Math.toDegrees(Math.atan(altitude / mid));
+            if (calculateSINR(dist3D, elevAngle, 0) >= sinrThreshold) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return hi;
+    }
+
+    /**
+     * Path loss sampled on a uniform ground-distance grid for one altitude
+     * Linear interpolation between samples; the grid is refined until the measured
+     * relative error at quarter and mid points stays within the configured bound.
+     * A bound the grid cannot meet within TABLE_MAX_POINTS fails instead of being loosened.
+     */
+    private static final class PathLossTable {
+        private final double altitude;
+        private final double invStep;
+        private final double[] values;
+
+        PathLossTable(double altitude) {
+            double bound = tableMaxRelativeError;
+            int points = 1024;
+            double[] samples;
+            double step;
+
+            while (true) {
+                step = TABLE_MAX_DISTANCE / (points - 1);
+                samples = new double[points + 1];
+                for (int i = 0; i <= points; i++) {
+                    samples[i] = exactPathLossAt(i * step, altitude);
+                }
+                double error = maxInterpolationError(samples, step, altitude);
+                if (error <= bound) {
+                    break;
+                }
+                if (points >= TABLE_MAX_POINTS) {
+                    throw new IllegalStateException(String.format(
+                            "Path loss table for altitude %.1f m reaches relative error %.3g with %d points, "
+                                    + "above the configured bound %.3g", altitude, error, points, bound));
+                }
+                points *= 2;
+            }
+            this.altitude = altitude;
+            this.invStep = 1.0 / step;
+            this.values = samples;
+        }
+
+        double lookup(double distance2D) {
+            double pos = distance2D * invStep;
+            int i = (int) pos;
+            double frac = pos - i;
+            return values[i] + frac * (values[i + 1] - values[i]);
+        }
+
+        private static double maxInterpolationError(double[] samples, double step, double altitude) {
+            double worst = 0;
+            for (int i = 0; i < samples.length - 2; i++) {
+                for (double frac = 0.25; frac < 1.0; frac += 0.25) {
+                    double exact = exactPathLossAt((i + frac) * step, altitude);
+                    double approx = samples[i] + frac * (samples[i + 1] - samples[i]);
+                    worst = Math.max(worst, Math.abs(approx - exact) / exact);
+                }
+            }
+            return worst;
+        }
+
+        private static double exactPathLossAt(double distance2D, double altitude) {
+            double distance3D = Math.sqrt(distance2D * distance2D + altitude * altitude);
+            double elevationAngle = distance2D == 0 ? 90.0 : Math.toDegrees(Math.atan(altitude / distance2D));
+            return calculatePathLossCached(distance3D, elevationAngle);
+        }
+    }
+
     /**
      * Calculate data rate using Shannon capacity
      * R = B * log2(1 + SINR)
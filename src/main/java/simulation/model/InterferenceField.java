@@ -0,0 +1,167 @@
+package simulation.model;
+
+import java.util.*;
+
+/**
+ * Interference Field: co-channel uplink interference from IoT devices already being served
+ * A device served by UAV v interferes at every other UAV u with received power Pt / PL(j→u),
+ * scaled by 1 / prbPoolSize (probability that two devices share a PRB under random reuse-1
+ * allocation). Devices served by the receiving UAV are orthogonal and excluded.
+ *
+ * Each UAV cell keeps a running summary of the interference it receives. Adding or removing
+ * a served device updates every cell's summary with one batch channel row (O(UAVs)), so an
+ * interference query is O(1) instead of a sum over all active devices.
+ * Summaries are exact; they only grow while devices are added. Not thread-safe.
+ */
+public class InterferenceField {
+
+    private static class Transmitter {
+        final double x;
+        final double y;
+        final UAVEntity serving;
+
+        Transmitter(double x, double y, UAVEntity serving) {
+            this.x = x;
+            this.y = y;
+            this.serving = serving;
+        }
+    }
+
+    private final int prbPoolSize;
+    private final List<UAVEntity> receivers;
+    private final Map<UAVEntity, Integer> receiverIndex = new IdentityHashMap<>();
+    // Receiver positions the summaries were built for
+    private final double[] rx;
+    private final double[] ry;
+    private final double[] rh;
+    private final double[] summary;
+
+    private final Map<String, Transmitter> transmitters = new LinkedHashMap<>();
+    private final ChannelBatch row = new ChannelBatch();
+    private final double[] px = new double[1];
+    private final double[] py = new double[1];
+
+    /**
+     * @param receivers UAVs whose cells keep interference summaries
+     * @param prbPoolSize PRBs shared by all UAVs (reuse-1); 1 means every device collides
+     */
+    public InterferenceField(List<UAVEntity> receivers, int prbPoolSize) {
+        if (prbPoolSize < 1) {
+            throw new IllegalArgumentException("PRB pool size must be positive: " + prbPoolSize);
+        }
+        this.prbPoolSize = prbPoolSize;
+        this.receivers = new ArrayList<>(receivers);
+        int n = receivers.size();
+        this.rx = new double[n];
+        this.ry = new double[n];
+        this.rh = new double[n];
+        this.summary = new double[n];
+        for (int u = 0; u < n; u++) {
+            receiverIndex.put(receivers.get(u), u);
+        }
+        snapshotPositions();
+    }
+
+    /**
+     * Register a device transmitting to its serving UAV (replaces an earlier entry for the id)
+     */
+    public void add(String deviceId, double x, double y, UAVEntity serving) {
+        remove(deviceId);
+        Transmitter t = new Transmitter(x, y, serving);
+        transmitters.put(deviceId, t);
+        accumulate(t, 1);
+    }
+
+    /**
+     * Remove a device (e.g. its task finished); no-op if unknown
+     */
+    public void remove(String deviceId) {
+        Transmitter t = transmitters.remove(deviceId);
+        if (t == null) return;
+        if (transmitters.isEmpty()) {
+            Arrays.fill(summary, 0); // Drop accumulated rounding
+        } else {
+            accumulate(t, -1);
+        }
+    }
+
+    /**
+     * Remove all devices and re-read receiver positions (e.g. after UAV repositioning)
+     */
+    public void clear() {
+        transmitters.clear();
+        Arrays.fill(summary, 0);
+        snapshotPositions();
+    }
+
+    public int size() { return transmitters.size(); }
+    public int getPrbPoolSize() { return prbPoolSize; }
+
+    /**
+     * Aggregate interference power (W) at a receiving UAV
+     * A receiver that moved since the summaries were built has its summary rebuilt;
+     * UAVs outside the receiver set are summed directly.
+     */
+    public double interferenceAt(UAVEntity receiver) {
+        Integer u = receiverIndex.get(receiver);
+        if (u == null) return interferenceAtExact(receiver);
+
+        if (rx[u] != receiver.getXPosition() || ry[u] != receiver.getYPosition()
+                || rh[u] != receiver.getAltitude()) {
+            rx[u] = receiver.getXPosition();
+            ry[u] = receiver.getYPosition();
+            rh[u] = receiver.getAltitude();
+            summary[u] = interferenceAtExact(receiver);
+        }
+        return summary[u];
+    }
+
+    /**
+     * Direct sum over every active device; reference for interferenceAt
+     */
+    public double interferenceAtExact(UAVEntity receiver) {
+        double sum = 0;
+        for (Transmitter t : transmitters.values()) {
+            if (t.serving == receiver) continue;
+            double pathLoss = CommunicationModel.calculatePathLossAt(
+                    receiver.getDistance2D(t.x, t.y), receiver.getAltitude());
+            sum += received(CommunicationModel.sinrFromPathLoss(pathLoss, 0));
+        }
+        return sum;
+    }
+
+    /**
+     * Uplink SINR of a device at (x, y) towards a UAV, given the current field
+     */
+    public double calculateSINR(UAVEntity uav, double x, double y) {
+        return CommunicationModel.calculateSINRAt(uav.getDistance2D(x, y), uav.getAltitude(),
+                interferenceAt(uav));
+    }
+
+    private void accumulate(Transmitter t, int sign) {
+        px[0] = t.x;
+        py[0] = t.y;
+        row.compute(px, py, 1, rx, ry, rh, receivers.size());
+        double[] sinr = row.sinrArray();
+        for (int u = 0; u < receivers.size(); u++) {
+            if (receivers.get(u) == t.serving) continue;
+            summary[u] = Math.max(0, summary[u] + sign * received(sinr[u]));
+        }
+    }
+
+    /**
+     * Received power from the noise-normalized SNR, scaled by PRB collision probability
+     */
+    private double received(double snr) {
+        return snr * CommunicationModel.NOISE_POWER / prbPoolSize;
+    }
+
+    private void snapshotPositions() {
+        for (int u = 0; u < receivers.size(); u++) {
+            UAVEntity uav = receivers.get(u);
+            rx[u] = uav.getXPosition();
+            ry[u] = uav.getYPosition();
+            rh[u] = uav.getAltitude();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package simulation.model;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metric Store: columnar, primitive-backed storage for metric events
+ * Each field of MetricEntry is a separate column of fixed-size chunks (timestamps and target
+ * ids as long, cost/latency/energy as double, success as boolean); event types are
+ * dictionary-encoded to int codes. About 45 bytes per event, with no per-row objects.
+ *
+ * Single writer: append is not thread-safe, but rows below size() may be read from any
+ * thread while appends continue (chunks never move once written).
+ */
+public class MetricStore {
+
+    public enum Column { COST, LATENCY, ENERGY }
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int MASK = CHUNK - 1;
+
+    private long[][] timestamp = new long[0][];
+    private long[][] targetId = new long[0][];
+    private double[][] cost = new double[0][];
+    private double[][] latency = new double[0][];
+    private double[][] energy = new double[0][];
+    private boolean[][] success = new boolean[0][];
+    private int[][] typeCode = new int[0][];
+    private volatile int size = 0; // Published after the row is written
+
+    private volatile String[] typeNames = new String[0]; // Copied on each new type
+    private final Map<String, Integer> typeCodes = new ConcurrentHashMap<>();
+
+    public static MetricStore of(Collection<MetricEntry> metrics) {
+        MetricStore store = new MetricStore();
+        for (MetricEntry m : metrics) store.append(m);
+        return store;
+    }
+
+    public int append(MetricEntry m) {
+        return append(m.getType(), m.getTargetId(), m.isSuccess(), m.getTimestamp(),
+                m.getCost(), m.getLatency(), m.getEnergyConsumption());
+    }
+
+    /**
+     * Append one event; returns its row index
+     */
+    public int append(String type, long targetId, boolean success, long timestamp,
+                      double cost, double latency, double energy) {
+        int row = size;
+        int c = row >>> CHUNK_BITS;
+        if (c == this.timestamp.length) addChunk();
+        int i = row & MASK;
+
+        this.timestamp[c][i] = timestamp;
+        this.targetId[c][i] = targetId;
+        this.cost[c][i] = cost;
+        this.latency[c][i] = latency;
+        this.energy[c][i] = energy;
+        this.success[c][i] = success;
+        this.typeCode[c][i] = encode(type);
+        size = row + 1;
+        return row;
+    }
+
+    private void addChunk() {
+        int n = timestamp.length + 1;
+        long[][] ts = Arrays.copyOf(timestamp, n);
+        long[][] ids = Arrays.copyOf(targetId, n);
+        double[][] cs = Arrays.copyOf(cost, n);
+        double[][] ls = Arrays.copyOf(latency, n);
+        double[][] es = Arrays.copyOf(energy, n);
+        boolean[][] ss = Arrays.copyOf(success, n);
+        int[][] tc = Arrays.copyOf(typeCode, n);
+        ts[n - 1] = new long[CHUNK];
+        ids[n - 1] = new long[CHUNK];
+        cs[n - 1] = new double[CHUNK];
+        ls[n - 1] = new double[CHUNK];
+        es[n - 1] = new double[CHUNK];
+        ss[n - 1] = new boolean[CHUNK];
+        tc[n - 1] = new int[CHUNK];
+        timestamp = ts;
+        targetId = ids;
+        cost = cs;
+        latency = ls;
+        energy = es;
+        success = ss;
+        typeCode = tc;
+    }
+
+    private int encode(String type) {
+        Integer code = typeCodes.get(type);
+        if (code == null) {
+            code = typeNames.length;
+            String[] names = Arrays.copyOf(typeNames, code + 1);
+            names[code] = type;
+            typeNames = names;
+            typeCodes.put(type, code);
+        }
+        return code;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    // ===== Row access =====
+
+    public long getTimestamp(int row) { return timestamp[row >>> CHUNK_BITS][row & MASK]; }
+    public long getTargetId(int row) { return targetId[row >>> CHUNK_BITS][row & MASK]; }
+    public double getCost(int row) { return cost[row >>> CHUNK_BITS][row & MASK]; }
+    public double getLatency(int row) { return latency[row >>> CHUNK_BITS][row & MASK]; }
+    public double getEnergyConsumption(int row) { return energy[row >>> CHUNK_BITS][row & MASK]; }
+    public boolean isSuccess(int row) { return success[row >>> CHUNK_BITS][row & MASK]; }
+    public int getTypeCode(int row) { return typeCode[row >>> CHUNK_BITS][row & MASK]; }
+    public String getType(int row) { return typeNames[getTypeCode(row)]; }
+
+    public double get(Column column, int row) {
+        switch (column) {
+            case COST: return getCost(row);
+            case LATENCY: return getLatency(row);
+            default: return getEnergyConsumption(row);
+        }
+    }
+
+    /**
+     * Materialize one row (for APIs that still take MetricEntry)
+     */
+    public MetricEntry toEntry(int row) {
+        MetricEntry m = new MetricEntry(getType(row), getTargetId(row), isSuccess(row), getTimestamp(row));
+        m.setCost(getCost(row));
+        m.setLatency(getLatency(row));
+        m.setEnergyConsumption(getEnergyConsumption(row));
+        return m;
+    }
+
+    // ===== Columns and dictionary =====
+
+    /**
+     * Copy of a column's values (rows 0..size-1)
+     */
+    public double[] toArray(Column column) {
+        int n = size;
+        double[][] chunks = column == Column.COST ? cost : column == Column.LATENCY ? latency : energy;
+        double[] out = new double[n];
+        for (int c = 0, from = 0; from < n; c++, from += CHUNK) {
+            System.arraycopy(chunks[c], 0, out, from, Math.min(CHUNK, n - from));
+        }
+        return out;
+    }
+
+    public int getTypeCount() { return typeNames.length; }
+    public String getTypeName(int code) { return typeNames[code]; }
+
+    /**
+     * Dictionary code of an event type, or -1 if it never occurred
+     */
+    public int getTypeCode(String type) {
+        Integer code = typeCodes.get(type);
+        return code == null ? -1 : code;
+    }
+
+    /**
+     * Events per type code
+     */
+    public long[] countByType() {
+        int n = size; // Read first: every code below n is then in the dictionary
+        long[] counts = new long[typeNames.length];
+        for (int row = 0; row < n; row++) counts[getTypeCode(row)]++;
+        return counts;
+    }
+
+    public long countSuccessful() {
+        long count = 0;
+        for (int row = 0, n = size; row < n; row++) if (isSuccess(row)) count++;
+        return count;
+    }
+}
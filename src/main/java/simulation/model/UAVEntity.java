@@ -71,6 +71,10 @@ public class UAVEntity {
         currentLoad = 0;
     }
 
+    public void setLoad(int load) {
+        currentLoad = Math.max(0, Math.min(maxCapacity, load));
+    }
+
     /**
      * Get ratio of available capacity
      */
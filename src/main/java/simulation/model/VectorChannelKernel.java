@@ -0,0 +1,66 @@
+package simulation.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD channel kernel on the JDK Vector API (incubator)
+ * Only compiled with the Maven "vector" profile, and only loaded by ChannelBatch when
+ * jdk.incubator.vector is resolved at runtime.
+ * Evaluates the cached-constants path loss formulation; values agree with the scalar
+ * kernel to floating-point rounding of the vector transcendental functions.
+ */
+final class VectorChannelKernel implements ChannelBatch.RowKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final double RAD_TO_DEG = 180.0 / Math.PI;
+    private static final double LN2 = Math.log(2);
+
+    VectorChannelKernel() {}
+
+    @Override
+    public void row(double px, double py, double[] qx, double[] qy, double[] altitude, int n,
+                    double[] distance3D, double[] elevation, double[] sinr, double[] dataRate,
+                    int offset) {
+        DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+        DoubleVector power = DoubleVector.broadcast(SPECIES, CommunicationModel.TRANSMISSION_POWER);
+        int k = 0;
+        int bound = SPECIES.loopBound(n);
+
+        for (; k < bound; k += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, qx, k).sub(px);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, qy, k).sub(py);
+            DoubleVector h = DoubleVector.fromArray(SPECIES, altitude, k);
+
+            DoubleVector dist2DSq = dx.mul(dx).add(dy.mul(dy));
+            DoubleVector dist2D = dist2DSq.lanewise(VectorOperators.SQRT);
+            DoubleVector dist3DSq = dist2DSq.add(h.mul(h));
+            DoubleVector dist3D = dist3DSq.lanewise(VectorOperators.SQRT);
+
+            VectorMask<Double> overhead = dist2D.compare(VectorOperators.EQ, 0.0);
+            DoubleVector elev = h.div(dist2D).lanewise(VectorOperators.ATAN).mul(RAD_TO_DEG)
+                    .blend(90.0, overhead);
+
+            // PLoS = 1 / (1 + A * exp(-B * θ));  PL = PL0 * d² * (PLoS + (1 - PLoS) * d^0.8)
+            DoubleVector pLos = one.div(elev.mul(-CommunicationModel.LOS_PARAM_B)
+                    .lanewise(VectorOperators.EXP).mul(CommunicationModel.LOS_PARAM_A).add(1.0));
+            DoubleVector nlos = dist3D.lanewise(VectorOperators.POW, CommunicationModel.NLOS_EXTRA_EXP);
+            DoubleVector pathLoss = dist3DSq.mul(CommunicationModel.PL0)
+                    .mul(pLos.add(one.sub(pLos).mul(nlos)));
+
+            DoubleVector s = power.div(pathLoss).div(CommunicationModel.NOISE_POWER);
+            DoubleVector rate = s.add(1.0).lanewise(VectorOperators.LOG)
+                    .mul(CommunicationModel.BANDWIDTH_PER_PRB).div(LN2).max(0.0);
+
+            dist3D.intoArray(distance3D, offset + k);
+            elev.intoArray(elevation, offset + k);
+            s.intoArray(sinr, offset + k);
+            rate.intoArray(dataRate, offset + k);
+        }
+
+        // Tail
+        ChannelBatch.scalarRow(px, py, qx, qy, altitude, k, n, distance3D, elevation, sinr, dataRate, offset);
+    }
+}
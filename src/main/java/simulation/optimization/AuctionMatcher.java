@@ -0,0 +1,397 @@
+package simulation.optimization;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import simulation.model.*;
+import java.util.*;
+
+/**
+ * Auction backend: profit-maximizing IoT-UAV-ES assignment by Bertsekas' auction algorithm
+ * Each UAV offers one slot per unit of capacity; a task may also stay unmatched at zero profit.
+ * A task's benefit for a UAV is the R-TMSC profit (v*Dm*ρm - w*Dm*t_proc) through the server
+ * R-TMSC would pick: the first in ascending MIPS that processes the task within its deadline.
+ * A pair is only eligible if it meets the SINR threshold and the task's deadline.
+ *
+ * Bidding is Jacobi-style: every unassigned task computes its bid against the current prices
+ * in parallel, then each UAV gives its cheapest slots to its highest bids (ties in task order),
+ * so the result does not depend on the number of workers. ε is scaled down from a fraction
+ * of the largest benefit, keeping prices between phases; the final phase leaves the total
+ * profit within (tasks x ε) of the optimum of the interference-free problem. With an
+ * interference field, matches are then admitted in task order and dropped if their SINR
+ * under interference misses the threshold or the deadline.
+ */
+public class AuctionMatcher implements MatchingEngine {
+    private static final Logger logger = LoggerFactory.getLogger(AuctionMatcher.class);
+
+    private static final double EPSILON_START = 0.25; // Of the largest benefit
+    private static final double EPSILON_FINAL = 1e-6; // Of the largest benefit
+    private static final double EPSILON_FACTOR = 8;
+
+    private final RTMSCObjective objective;
+    private final double sinrThreshold;
+
+    private final ParallelRange workers = new ParallelRange();
+    private InterferenceField interference;
+
+    private int lastRounds = 0;
+
+    public AuctionMatcher(double revenueParam, double costParam, double sinrThreshold) {
+        this.objective = new RTMSCObjective(revenueParam, costParam);
+        this.sinrThreshold = sinrThreshold;
+    }
+
+    @Override
+    public void setParallelism(int threads) {
+        workers.setParallelism(threads);
+    }
+
+    public int getParallelism() { return workers.getParallelism(); }
+
+    @Override
+    public void setInterference(InterferenceField field) {
+        this.interference = field;
+    }
+
+    /** Bidding rounds of the last matching, over all ε phases */
+    public int getLastRounds() { return lastRounds; }
+
+    @Override
+    public List<RTMSCMatcher.MatchingTriplet> findStableMatching(List<Task> tasks,
+                                                                List<UAVEntity> uavs,
+                                                                List<MECServer> servers,
+                                                                Map<String, double[]> iotPositions) {
+        int taskCount = tasks.size();
+        int uavCount = uavs.size();
+        logger.debug("Starting auction with {} tasks, {} UAVs, {} servers",
+                taskCount, uavCount, servers.size());
+
+        uavs.forEach(UAVEntity::resetLoad);
+        if (interference != null) interference.clear();
+        if (taskCount == 0 || uavCount == 0 || servers.isEmpty()) return new ArrayList<>();
+
+        // UAV→ES preference of R-TMSC: ascending MIPS, ties in list order
+        List<MECServer> byMips = new ArrayList<>(servers);
+        byMips.sort(Comparator.comparingInt(MECServer::getMipsCapacity));
+        MECServer[] serverOf = new MECServer[taskCount];
+
+        // Eligible UAVs of each task with their benefit, in CSR form after the parallel pass
+        double radius = UAVSpatialIndex.coverageRadius(uavs, sinrThreshold);
+        UAVSpatialIndex index = new UAVSpatialIndex(uavs, radius);
+        int[][] chunkUav = new int[taskCount][];
+        double[][] chunkSinr = new double[taskCount][];
+        workers.forEach(taskCount, (from, to) -> {
+            int[] nearby = new int[uavCount];
+            double[] sinr = new double[uavCount];
+            for (int t = from; t < to; t++) {
+                Task task = tasks.get(t);
+                double[] pos = iotPositions.get(task.getId());
+                MECServer server = firstFeasibleServer(byMips, task);
+                serverOf[t] = server;
+                if (server == null) {
+                    chunkUav[t] = new int[0];
+                    chunkSinr[t] = new double[0];
+                    continue;
+                }
+                int found = index.query(pos[0], pos[1], radius, nearby);
+                Arrays.sort(nearby, 0, found);
+                int kept = 0;
+                for (int k = 0; k < found; k++) {
+                    UAVEntity uav = index.get(nearby[k]);
+                    double value = CommunicationModel.calculateSINRAt(
+                            uav.getDistance2D(pos[0], pos[1]), uav.getAltitude(), 0);
+                    if (value >= sinrThreshold && RTMSCObjective.latency(task, server, value) <= task.getDeadline()) {
+                        nearby[kept] = nearby[k];
+                        sinr[kept] = value;
+                        kept++;
+                    }
+                }
+                chunkUav[t] = Arrays.copyOf(nearby, kept);
+                chunkSinr[t] = Arrays.copyOf(sinr, kept);
+            }
+        });
+
+        int[] candStart = new int[taskCount + 1];
+        for (int t = 0; t < taskCount; t++) candStart[t + 1] = candStart[t] + chunkUav[t].length;
+        int[] candUav = new int[candStart[taskCount]];
+        double[] candSinr = new double[candStart[taskCount]];
+        double[] benefit = new double[candStart[taskCount]];
+        double maxBenefit = 0;
+        for (int t = 0; t < taskCount; t++) {
+            System.arraycopy(chunkUav[t], 0, candUav, candStart[t], chunkUav[t].length);
+            System.arraycopy(chunkSinr[t], 0, candSinr, candStart[t], chunkSinr[t].length);
+            for (int p = candStart[t]; p < candStart[t + 1]; p++) {
+                benefit[p] = objective.profit(tasks.get(t), serverOf[t], candSinr[p]);
+                maxBenefit = Math.max(maxBenefit, Math.abs(benefit[p]));
+            }
+            chunkUav[t] = null;
+            chunkSinr[t] = null;
+        }
+
+        int[] slotStart = new int[uavCount + 1];
+        for (int u = 0; u < uavCount; u++) slotStart[u + 1] = slotStart[u] + uavs.get(u).getMaxCapacity();
+        Auction auction = new Auction(taskCount, uavCount, slotStart, candStart, candUav, benefit);
+        int[] assigned = auction.solve(maxBenefit);
+        lastRounds = auction.rounds;
+
+        List<RTMSCMatcher.MatchingTriplet> matching = new ArrayList<>();
+        for (int t = 0; t < taskCount; t++) {
+            int p = assigned[t];
+            if (p < 0) continue;
+            Task task = tasks.get(t);
+            MECServer server = serverOf[t];
+            UAVEntity uav = uavs.get(candUav[p]);
+            double sinr = candSinr[p];
+            double[] pos = iotPositions.get(task.getId());
+            if (interference != null) {
+                sinr = interference.calculateSINR(uav, pos[0], pos[1]);
+                if (sinr < sinrThreshold || RTMSCObjective.latency(task, server, sinr) > task.getDeadline()) continue;
+                interference.add(task.getId(), pos[0], pos[1], uav);
+            }
+            matching.add(new RTMSCMatcher.MatchingTriplet(task, uav, server, sinr,
+                    RTMSCObjective.latency(task, server, sinr), objective.profit(task, server, sinr)));
+            uav.incrementLoad();
+        }
+
+        logger.info("Auction converged after {} bidding rounds with {} matches", lastRounds, matching.size());
+        return matching;
+    }
+
+    /**
+     * First server in preference order that can process the task within its deadline, or null
+     */
+    private static MECServer firstFeasibleServer(List<MECServer> byMips, Task task) {
+        for (MECServer es : byMips) {
+            if (RTMSCObjective.canProcess(task, es)) return es;
+        }
+        return null;
+    }
+
+    /**
+     * Forward auction over UAV slots with ε-scaling
+     * The slots of a UAV are similar objects (Bertsekas and Castañon): a bidder targets the
+     * cheapest slot of its best UAV and prices it against its best other UAV, so tasks do not
+     * bid up the slots of one UAV against each other. A UAV is worth its benefit less its
+     * cheapest slot price. Each phase starts from the previous phase's prices and assignment,
+     * releasing holders that violate ε-complementary slackness for the new ε; a released slot
+     * drops to price zero, so every free slot is at price zero when a phase ends. Together with
+     * ε-complementary slackness this makes the assignment ε-optimal.
+     */
+    private final class Auction {
+        final int taskCount;
+        final int[] slotStart;
+        final int[] candStart;
+        final int[] candUav;
+        final double[] benefit;
+
+        final double[] price;
+        final int[] holder; // Task holding each slot, or -1
+        final int[] cheapest; // Per UAV: cheapest slot, -1 without capacity
+        final int[] slotOrder; // Per UAV segment of slotStart: its slots by ascending price
+        final int[] assigned; // Per task: candidate entry of its UAV, or -1
+        final int[] slotOf; // Per task: slot held, or -1
+
+        // Per round, index-aligned with the unassigned list
+        final int[] bidder;
+        final int[] bidCand;
+        final double[] bidAmount;
+        final int[] order; // Bids grouped by UAV, highest first
+        final int[] scratch;
+        int rounds = 0;
+
+        Auction(int taskCount, int uavCount, int[] slotStart, int[] candStart, int[] candUav, double[] benefit) {
+            this.taskCount = taskCount;
+            this.slotStart = slotStart;
+            this.candStart = candStart;
+            this.candUav = candUav;
+            this.benefit = benefit;
+            int slots = slotStart[uavCount];
+            price = new double[slots];
+            holder = new int[slots];
+            cheapest = new int[uavCount];
+            slotOrder = new int[slots];
+            assigned = new int[taskCount];
+            slotOf = new int[taskCount];
+            Arrays.fill(holder, -1);
+            Arrays.fill(assigned, -1);
+            Arrays.fill(slotOf, -1);
+            bidder = new int[taskCount];
+            bidCand = new int[taskCount];
+            bidAmount = new double[taskCount];
+            order = new int[taskCount];
+            scratch = new int[taskCount];
+            for (int s = 0; s < slots; s++) slotOrder[s] = s;
+            for (int u = 0; u < uavCount; u++) refreshUav(u);
+        }
+
+        int[] solve(double maxBenefit) {
+            if (maxBenefit <= 0) return assigned;
+            double epsilon = maxBenefit * EPSILON_START;
+            double finalEpsilon = maxBenefit * EPSILON_FINAL;
+            while (true) {
+                epsilon = Math.max(finalEpsilon, epsilon);
+                runPhase(epsilon);
+                if (epsilon == finalEpsilon) return assigned;
+                epsilon /= EPSILON_FACTOR;
+            }
+        }
+
+        private void runPhase(double epsilon) {
+            releaseViolators(epsilon);
+
+            int[] unassigned = new int[taskCount];
+            int pending = 0;
+            for (int t = 0; t < taskCount; t++) {
+                if (assigned[t] < 0 && candStart[t + 1] > candStart[t]) unassigned[pending++] = t;
+            }
+            while (pending > 0) {
+                rounds++;
+                int[] round = unassigned;
+                workers.forEach(pending, (from, to) -> {
+                    for (int i = from; i < to; i++) bid(i, round[i], epsilon);
+                });
+
+                int bids = 0;
+                for (int i = 0; i < pending; i++) {
+                    if (bidCand[i] >= 0) order[bids++] = i;
+                }
+                sortBids(bids);
+
+                // The k-th highest bid on a UAV takes its k-th cheapest slot if it raises the price by ε
+                int next = 0;
+                for (int from = 0; from < bids; ) {
+                    int u = candUav[bidCand[order[from]]];
+                    int to = from;
+                    while (to < bids && candUav[bidCand[order[to]]] == u) to++;
+                    int base = slotStart[u];
+                    int capacity = slotStart[u + 1] - base;
+
+                    int k = 0;
+                    for (; from + k < to && k < capacity
+                            && bidAmount[order[from + k]] >= price[slotOrder[base + k]] + epsilon; k++) {
+                        int i = order[from + k];
+                        int s = slotOrder[base + k];
+                        int previous = holder[s];
+                        if (previous >= 0) {
+                            assigned[previous] = -1;
+                            slotOf[previous] = -1;
+                            unassigned[next++] = previous;
+                        }
+                        holder[s] = bidder[i];
+                        assigned[bidder[i]] = bidCand[i];
+                        slotOf[bidder[i]] = s;
+                        price[s] = bidAmount[i];
+                    }
+                    for (; from + k < to; k++) unassigned[next++] = bidder[order[from + k]];
+                    refreshUav(u);
+                    from = to;
+                }
+                pending = next;
+            }
+        }
+
+        /**
+         * Stable merge sort of the first n bids by UAV, then descending bid, then task order
+         */
+        private void sortBids(int n) {
+            for (int width = 1; width < n; width <<= 1) {
+                for (int lo = 0; lo < n - width; lo += width << 1) {
+                    int mid = lo + width;
+                    int hi = Math.min(n, mid + width);
+                    int i = lo, j = mid, k = lo;
+                    while (i < mid && j < hi) {
+                        scratch[k++] = bidBefore(order[j], order[i]) ? order[j++] : order[i++];
+                    }
+                    while (i < mid) scratch[k++] = order[i++];
+                    while (j < hi) scratch[k++] = order[j++];
+                    System.arraycopy(scratch, lo, order, lo, hi - lo);
+                }
+            }
+        }
+
+        private boolean bidBefore(int x, int y) {
+            int ux = candUav[bidCand[x]];
+            int uy = candUav[bidCand[y]];
+            if (ux != uy) return ux < uy;
+            if (bidAmount[x] != bidAmount[y]) return bidAmount[x] > bidAmount[y];
+            return bidder[x] < bidder[y];
+        }
+
+        /**
+         * Bid of one unassigned task for the cheapest slot of its best UAV: the price at which the
+         * task would be ε short of indifferent to its best other UAV (or staying unmatched).
+         * Tasks with no positive option get no bid and leave the auction for this phase.
+         */
+        private void bid(int i, int t, double epsilon) {
+            bidder[i] = t;
+            int best = -1;
+            double first = Double.NEGATIVE_INFINITY;
+            double second = 0; // Staying unmatched
+            for (int p = candStart[t]; p < candStart[t + 1]; p++) {
+                int s = cheapest[candUav[p]];
+                if (s < 0) continue;
+                double value = benefit[p] - price[s];
+                if (value > first) {
+                    second = Math.max(second, first);
+                    first = value;
+                    best = p;
+                } else if (value > second) {
+                    second = value;
+                }
+            }
+            if (best < 0 || first <= 0) {
+                bidCand[i] = -1;
+                return;
+            }
+            bidCand[i] = best;
+            bidAmount[i] = benefit[best] - second + epsilon;
+        }
+
+        /**
+         * Release every holder whose UAV is worth more than ε less than its best alternative,
+         * at zero price; repeated since each released slot may attract other holders
+         */
+        private void releaseViolators(double epsilon) {
+            boolean released = true;
+            while (released) {
+                released = false;
+                for (int t = 0; t < taskCount; t++) {
+                    int held = assigned[t];
+                    if (held < 0) continue;
+                    int s = slotOf[t];
+                    int u = candUav[held];
+                    double alternative = 0;
+                    for (int p = candStart[t]; p < candStart[t + 1]; p++) {
+                        int v = candUav[p];
+                        if (v != u && cheapest[v] >= 0) {
+                            alternative = Math.max(alternative, benefit[p] - price[cheapest[v]]);
+                        }
+                    }
+                    if (alternative > benefit[held] - price[cheapest[u]] + epsilon) {
+                        holder[s] = -1;
+                        price[s] = 0;
+                        assigned[t] = -1;
+                        slotOf[t] = -1;
+                        refreshUav(u);
+                        released = true;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Restore the price order of a UAV's slots after some of them were repriced; an insertion
+         * sort, since a round only moves the few slots it awarded or released
+         */
+        private void refreshUav(int u) {
+            int base = slotStart[u];
+            int end = slotStart[u + 1];
+            for (int k = base + 1; k < end; k++) {
+                int s = slotOrder[k];
+                int j = k;
+                for (; j > base && price[slotOrder[j - 1]] > price[s]; j--) slotOrder[j] = slotOrder[j - 1];
+                slotOrder[j] = s;
+            }
+            cheapest[u] = end > base ? slotOrder[base] : -1;
+        }
+    }
+}
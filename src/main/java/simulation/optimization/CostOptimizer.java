@@ -15,7 +15,12 @@ public class CostOptimizer {
 
     private final CostModel costModel;
     private final MetricsCollector metrics;
-    private final RTMSCMatcher matcher;
+    private MatchingEngine matcher;
+    private int matchingParallelism = 1;
+    private int interferencePrbPool = 0; // 0 = interference-free
+    private InterferenceField interference;
+    private boolean serverPruning = true;
+    private CapacityClasses capacityClasses; // Of the last server list seen by the pruned path
     
     public final List<Task> taskQueue = new ArrayList<>();
     public final List<MECServer> servers = new ArrayList<>();
@@ -33,10 +38,68 @@ public class CostOptimizer {
         this.matcher = new RTMSCMatcher(model, 0.1, 0.01, 10.0, 100);
     }
 
+    /**
+     * Set worker threads for R-TMSC preference generation (1 = sequential, 0 = all cores)
+     */
+    public void setMatchingParallelism(int threads) {
+        this.matchingParallelism = threads;
+        matcher.setParallelism(threads);
+    }
+
+    /**
+     * Select the matching backend: "object" (RTMSCMatcher), "indexed" (IndexedRTMSCMatcher)
+     * or "auction" (AuctionMatcher, profit-maximizing assignment)
+     */
+    public void setMatchingBackend(String backend) {
+        switch (backend.toLowerCase()) {
+            case "object":
+                matcher = new RTMSCMatcher(costModel, 0.1, 0.01, 10.0, 100);
+                break;
+            case "indexed":
+                matcher = new IndexedRTMSCMatcher(0.1, 0.01, 10.0, 100);
+                break;
+            case "auction":
+                matcher = new AuctionMatcher(0.1, 0.01, 10.0);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown matching backend: " + backend);
+        }
+        matcher.setParallelism(matchingParallelism);
+    }
+
+    /**
+     * Choose between the pruned (default) and the exhaustive single-task offloading search;
+     * both return the same decision
+     */
+    public void setServerPruning(boolean enabled) {
+        this.serverPruning = enabled;
+    }
+
+    /**
+     * Enable co-channel interference with the given shared PRB pool size (0 disables)
+     */
+    public void setInterferencePrbPool(int prbPoolSize) {
+        if (prbPoolSize < 0) {
+            throw new IllegalArgumentException("PRB pool size must be non-negative: " + prbPoolSize);
+        }
+        this.interferencePrbPool = prbPoolSize;
+        if (prbPoolSize == 0) interference = null;
+    }
+
+    /**
+     * Interference from the most recent matching, or null when interference is disabled
+     */
+    public InterferenceField getInterferenceField() { return interference; }
+
     public void registerTask(Task task) {
         taskQueue.add(task);
     }
 
+    public void unregisterTask(Task task) {
+        taskQueue.remove(task);
+        iotPositions.remove(task.getId());
+    }
+
     public void registerServer(MECServer server) {
         servers.add(server);
     }
@@ -62,6 +125,10 @@ public class CostOptimizer {
         }
 
         try {
+            interference = interferencePrbPool > 0
+                ? new InterferenceField(uavEntities, interferencePrbPool) : null;
+            matcher.setInterference(interference);
+
             List<RTMSCMatcher.MatchingTriplet> matching = 
                 matcher.findStableMatching(tasks, uavEntities, mecServers, positions);
 
@@ -81,14 +148,51 @@ public class CostOptimizer {
         }
     }
 
+    /**
+     * Full IoT x UAV channel matrix for the given tasks against all registered UAVs
+     * Row i corresponds to tasks.get(i); tasks without a registered position sit at the origin.
+     */
+    public ChannelBatch evaluateChannelMatrix(List<Task> tasks) {
+        double[] iotX = new double[tasks.size()];
+        double[] iotY = new double[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            double[] pos = iotPositions.getOrDefault(tasks.get(i).getId(), new double[]{0, 0});
+            iotX[i] = pos[0];
+            iotY[i] = pos[1];
+        }
+
+        double[] uavX = new double[uavs.size()];
+        double[] uavY = new double[uavs.size()];
+        double[] uavAltitude = new double[uavs.size()];
+        for (int u = 0; u < uavs.size(); u++) {
+            uavX[u] = uavs.get(u).getXPosition();
+            uavY[u] = uavs.get(u).getYPosition();
+            uavAltitude[u] = uavs.get(u).getAltitude();
+        }
+
+        ChannelBatch batch = new ChannelBatch();
+        batch.compute(iotX, iotY, tasks.size(), uavX, uavY, uavAltitude, uavs.size());
+        return batch;
+    }
+
     /**
      * Single task offloading decision (for AdaptivePolicy compatibility)
+     * Picks the most profitable deadline-safe UAV x server pair; ties go to the earlier UAV,
+     * then the earlier server in availableServers.
      */
     public OffloadingDecision optimizeTaskOffloading(Task task, List<MECServer> availableServers) {
         if (uavs.isEmpty() || availableServers.isEmpty()) {
             return new OffloadingDecision(null, null, 0, Double.MAX_VALUE, false, 0);
         }
+        return serverPruning
+            ? optimizeTaskOffloadingPruned(task, availableServers)
+            : optimizeTaskOffloadingExhaustive(task, availableServers);
+    }
 
+    /**
+     * Reference search over every UAV x server pair
+     */
+    private OffloadingDecision optimizeTaskOffloadingExhaustive(Task task, List<MECServer> availableServers) {
         double[] iotPos = iotPositions.getOrDefault(task.getId(), new double[]{0, 0});
 
         UAVEntity bestUAV = null;
@@ -99,10 +203,7 @@ public class CostOptimizer {
         for (UAVEntity uav : uavs) {
             if (!uav.hasCapacity()) continue;
 
-            double dist3D = uav.getDistance3D(iotPos[0], iotPos[1]);
-            double elevAngle = uav.getElevationAngle(iotPos[0], iotPos[1]);
-            double sinr = CommunicationModel.calculateSINR(dist3D, elevAngle, 0);
-
+            double sinr = uplinkSINR(uav, iotPos);
             if (sinr < 10.0) continue;
 
             double dataRate = CommunicationModel.calculateDataRate(sinr, 1);
@@ -129,11 +230,134 @@ public class CostOptimizer {
             }
         }
 
-        boolean deadlineSafe = bestLatency <= task.getDeadline();
-        double estimatedCost = bestProfit > 0 ? 0.01 * task.getDataSizeKB() * bestLatency : 0;
+        return decision(task, bestUAV, bestES, bestProfit, bestLatency);
+    }
+
+    /**
+     * Branch-and-bound search over servers grouped into capacity classes
+     * Processing delay never decreases from one class to the next slower one, so for a given
+     * UAV latency only grows and profit only shrinks along the classes: the fastest class bounds
+     * both. A UAV is skipped when that bound misses the deadline or cannot beat the best profit
+     * so far, and the class scan stops at the first class that misses either. Slower classes
+     * are only visited to resolve exact profit ties in list order.
+     */
+    private OffloadingDecision optimizeTaskOffloadingPruned(Task task, List<MECServer> availableServers) {
+        CapacityClasses classes = capacityClasses(availableServers);
+        int n = classes.mips.length;
+        double[] procDelay = new double[n];
+        for (int c = 0; c < n; c++) {
+            procDelay[c] = CommunicationModel.calculateProcessingDelay(task.getComputeMI(), classes.mips[c]);
+        }
+
+        UAVEntity bestUAV = null;
+        MECServer bestES = null;
+        double bestProfit = Double.NEGATIVE_INFINITY;
+        double bestLatency = Double.MAX_VALUE;
+
+        // Transmission delay is non-negative: if the fastest server alone misses, every pair does
+        if (procDelay[0] <= task.getDeadline()) {
+            double[] iotPos = iotPositions.getOrDefault(task.getId(), new double[]{0, 0});
+
+            for (UAVEntity uav : uavs) {
+                if (!uav.hasCapacity()) continue;
+
+                double sinr = uplinkSINR(uav, iotPos);
+                if (sinr < 10.0) continue;
+
+                double dataRate = CommunicationModel.calculateDataRate(sinr, 1);
+                double txDelay = CommunicationModel.calculateTransmissionDelay(
+                    task.getDataSizeKB(), dataRate);
+                if (txDelay + procDelay[0] > task.getDeadline()) continue;
+
+                double revenue = 0.1 * task.getDataSizeKB() * dataRate / 1e6;
+                double uavProfit = revenue - 0.01 * task.getDataSizeKB() * procDelay[0];
+                if (!(uavProfit > bestProfit)) continue;
+
+                int pick = 0;
+                for (int c = 1; c < n; c++) {
+                    if (txDelay + procDelay[c] > task.getDeadline()) break;
+                    if (revenue - 0.01 * task.getDataSizeKB() * procDelay[c] < uavProfit) break;
+                    if (classes.firstIndex[c] < classes.firstIndex[pick]) pick = c;
+                }
+
+                bestProfit = uavProfit;
+                bestUAV = uav;
+                bestES = classes.first[pick];
+                bestLatency = txDelay + procDelay[pick];
+            }
+        }
+
+        return decision(task, bestUAV, bestES, bestProfit, bestLatency);
+    }
+
+    private double uplinkSINR(UAVEntity uav, double[] iotPos) {
+        return interference != null
+            ? interference.calculateSINR(uav, iotPos[0], iotPos[1])
+            : CommunicationModel.calculateSINRAt(
+                uav.getDistance2D(iotPos[0], iotPos[1]), uav.getAltitude(), 0);
+    }
+
+    private static OffloadingDecision decision(Task task, UAVEntity uav, MECServer es,
+                                               double profit, double latency) {
+        boolean deadlineSafe = latency <= task.getDeadline();
+        double estimatedCost = profit > 0 ? 0.01 * task.getDataSizeKB() * latency : 0;
+
+        return new OffloadingDecision(uav, es, estimatedCost,
+                                     latency, deadlineSafe, profit);
+    }
 
-        return new OffloadingDecision(bestUAV, bestES, estimatedCost, 
-                                     bestLatency, deadlineSafe, bestProfit);
+    /**
+     * Capacity classes of the given servers, rebuilt only when the list changes
+     */
+    private CapacityClasses capacityClasses(List<MECServer> availableServers) {
+        if (capacityClasses == null || !capacityClasses.isFor(availableServers)) {
+            capacityClasses = new CapacityClasses(availableServers);
+        }
+        return capacityClasses;
+    }
+
+    /**
+     * Servers with equal MIPS capacity, fastest class first
+     * Within a class every server yields the same latency and profit, so only the one
+     * earliest in the source list can be chosen.
+     */
+    private static final class CapacityClasses {
+        final MECServer[] servers; // Source list snapshot, in list order
+        final int[] mips;
+        final MECServer[] first; // Earliest server of each class
+        final int[] firstIndex; // Its position in the source list
+
+        CapacityClasses(List<MECServer> source) {
+            servers = source.toArray(new MECServer[0]);
+            Integer[] order = new Integer[servers.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            // Stable sort: list order is kept within a class
+            Arrays.sort(order, (a, b) -> Integer.compare(servers[b].getMipsCapacity(), servers[a].getMipsCapacity()));
+
+            int classes = 0;
+            int[] m = new int[order.length];
+            int[] idx = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                int mipsCapacity = servers[order[i]].getMipsCapacity();
+                if (classes == 0 || m[classes - 1] != mipsCapacity) {
+                    m[classes] = mipsCapacity;
+                    idx[classes] = order[i];
+                    classes++;
+                }
+            }
+            mips = Arrays.copyOf(m, classes);
+            firstIndex = Arrays.copyOf(idx, classes);
+            first = new MECServer[classes];
+            for (int c = 0; c < classes; c++) first[c] = servers[firstIndex[c]];
+        }
+
+        boolean isFor(List<MECServer> list) {
+            if (list.size() != servers.length) return false;
+            for (int i = 0; i < servers.length; i++) {
+                if (list.get(i) != servers[i]) return false;
+            }
+            return true;
+        }
     }
 
     // ===== Getters =====
@@ -0,0 +1,312 @@
+package simulation.optimization;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import simulation.model.*;
+import java.util.*;
+
+/**
+ * Index-based R-TMSC backend
+ * Interns tasks, UAVs and servers to dense int indices and keeps all matching state in
+ * primitive arrays (positions, CSR preference lists, struct-of-arrays result), avoiding
+ * per-task String hashing and boxing. Produces the same matching as RTMSCMatcher.
+ */
+public class IndexedRTMSCMatcher implements MatchingEngine {
+    private static final Logger logger = LoggerFactory.getLogger(IndexedRTMSCMatcher.class);
+
+    /**
+     * Struct-of-arrays matching result; entry i matches task[i] to uav[i] and server[i]
+     */
+    public static class MatchResult {
+        public final int count;
+        public final int[] task;
+        public final int[] uav;
+        public final int[] server;
+        public final double[] sinr;
+        public final double[] latency;
+        public final double[] profit;
+
+        MatchResult(int count, int[] task, int[] uav, int[] server,
+                    double[] sinr, double[] latency, double[] profit) {
+            this.count = count;
+            this.task = task;
+            this.uav = uav;
+            this.server = server;
+            this.sinr = sinr;
+            this.latency = latency;
+            this.profit = profit;
+        }
+
+        public double getTotalProfit() {
+            double total = 0;
+            for (int i = 0; i < count; i++) total += profit[i];
+            return total;
+        }
+
+        /**
+         * Materialize MatchingTriplet objects for callers of the object API
+         */
+        public List<RTMSCMatcher.MatchingTriplet> toTriplets(List<Task> tasks,
+                                                             List<UAVEntity> uavs,
+                                                             List<MECServer> servers) {
+            List<RTMSCMatcher.MatchingTriplet> triplets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                triplets.add(new RTMSCMatcher.MatchingTriplet(tasks.get(task[i]), uavs.get(uav[i]),
+                        servers.get(server[i]), sinr[i], latency[i], profit[i]));
+            }
+            return triplets;
+        }
+    }
+
+    private final double revenueParameter;
+    private final double costParameter;
+    private final double sinrThreshold;
+    private final int maxIterations;
+
+    private final ParallelRange workers = new ParallelRange();
+    private InterferenceField interference;
+
+    public IndexedRTMSCMatcher(double revenueParam, double costParam,
+                               double sinrThreshold, int maxIterations) {
+        this.revenueParameter = revenueParam;
+        this.costParameter = costParam;
+        this.sinrThreshold = sinrThreshold;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public void setParallelism(int threads) {
+        workers.setParallelism(threads);
+    }
+
+    @Override
+    public void setInterference(InterferenceField field) {
+        this.interference = field;
+    }
+
+    /**
+     * Object API adapter: runs the indexed matcher and syncs UAV loads back to the entities
+     */
+    @Override
+    public List<RTMSCMatcher.MatchingTriplet> findStableMatching(List<Task> tasks,
+                                                                List<UAVEntity> uavs,
+                                                                List<MECServer> servers,
+                                                                Map<String, double[]> iotPositions) {
+        int[] load = new int[uavs.size()];
+        MatchResult result = match(tasks, uavs, servers, iotPositions, load);
+        for (int u = 0; u < uavs.size(); u++) {
+            uavs.get(u).setLoad(load[u]);
+        }
+        return result.toTriplets(tasks, uavs, servers);
+    }
+
+    /**
+     * Run R-TMSC on interned indices
+     * @param load Output: number of tasks matched to each UAV (length uavs.size())
+     */
+    public MatchResult match(List<Task> tasks, List<UAVEntity> uavs, List<MECServer> servers,
+                             Map<String, double[]> iotPositions, int[] load) {
+        int taskCount = tasks.size();
+        int uavCount = uavs.size();
+        logger.debug("Starting indexed R-TMSC with {} tasks, {} UAVs, {} servers",
+                taskCount, uavCount, servers.size());
+
+        // Intern task attributes and positions
+        double[] xs = new double[taskCount];
+        double[] ys = new double[taskCount];
+        long[] computeMI = new long[taskCount];
+        long[] dataKB = new long[taskCount];
+        double[] deadline = new double[taskCount];
+        for (int t = 0; t < taskCount; t++) {
+            Task task = tasks.get(t);
+            double[] pos = iotPositions.get(task.getId());
+            xs[t] = pos[0];
+            ys[t] = pos[1];
+            computeMI[t] = task.getComputeMI();
+            dataKB[t] = task.getDataSizeKB();
+            deadline[t] = task.getDeadline();
+        }
+
+        int[] capacity = new int[uavCount];
+        for (int u = 0; u < uavCount; u++) {
+            capacity[u] = uavs.get(u).getMaxCapacity();
+        }
+        Arrays.fill(load, 0);
+        if (interference != null) interference.clear();
+
+        // UAV→ES preference is identical for every UAV: ascending MIPS (stable)
+        int[] mips = new int[servers.size()];
+        Integer[] order = new Integer[servers.size()];
+        for (int s = 0; s < servers.size(); s++) {
+            mips[s] = servers.get(s).getMipsCapacity();
+            order[s] = s;
+        }
+        Arrays.sort(order, Comparator.comparingInt(s -> mips[s]));
+
+        // First ES that can process each task in time does not depend on the UAV or on loads
+        int[] firstServer = new int[taskCount];
+        for (int t = 0; t < taskCount; t++) {
+            firstServer[t] = -1;
+            for (int s : order) {
+                if (CommunicationModel.calculateProcessingDelay(computeMI[t], mips[s]) < deadline[t]) {
+                    firstServer[t] = s;
+                    break;
+                }
+            }
+        }
+
+        // IoT→UAV preference in CSR form: prefUav/prefSinr[prefStart[t] .. prefStart[t+1])
+        int[] prefCount = new int[taskCount];
+        int[][] chunkUav = new int[taskCount][];
+        double[][] chunkSinr = new double[taskCount][];
+        double radius = UAVSpatialIndex.coverageRadius(uavs, sinrThreshold);
+        UAVSpatialIndex index = new UAVSpatialIndex(uavs, radius);
+
+        double[] uavX = new double[uavCount];
+        double[] uavY = new double[uavCount];
+        double[] uavAltitude = new double[uavCount];
+        for (int u = 0; u < uavCount; u++) {
+            UAVEntity uav = uavs.get(u);
+            uavX[u] = uav.getXPosition();
+            uavY[u] = uav.getYPosition();
+            uavAltitude[u] = uav.getAltitude();
+        }
+
+        workers.forEach(taskCount, (from, to) -> {
+            int[] nearby = new int[uavCount];
+            double[] sinr = new double[uavCount];
+            int[] scratch = new int[uavCount];
+            double[] gx = new double[uavCount];
+            double[] gy = new double[uavCount];
+            double[] gh = new double[uavCount];
+            double[] px = new double[1];
+            double[] py = new double[1];
+            ChannelBatch channel = new ChannelBatch();
+            for (int t = from; t < to; t++) {
+                int found = index.query(xs[t], ys[t], radius, nearby);
+                Arrays.sort(nearby, 0, found);
+
+                // Gather candidates and evaluate the row in one batch call
+                for (int k = 0; k < found; k++) {
+                    gx[k] = uavX[nearby[k]];
+                    gy[k] = uavY[nearby[k]];
+                    gh[k] = uavAltitude[nearby[k]];
+                }
+                px[0] = xs[t];
+                py[0] = ys[t];
+                channel.compute(px, py, 1, gx, gy, gh, found);
+                double[] rowSinr = channel.sinrArray();
+
+                int kept = 0;
+                for (int k = 0; k < found; k++) {
+                    double value = rowSinr[k];
+                    if (value >= sinrThreshold) {
+                        nearby[kept] = nearby[k];
+                        sinr[nearby[k]] = value;
+                        kept++;
+                    }
+                }
+                sortBySinrDescending(nearby, kept, sinr, scratch);
+
+                int[] ranked = Arrays.copyOf(nearby, kept);
+                double[] rankedSinr = new double[kept];
+                for (int k = 0; k < kept; k++) rankedSinr[k] = sinr[ranked[k]];
+                chunkUav[t] = ranked;
+                chunkSinr[t] = rankedSinr;
+                prefCount[t] = kept;
+            }
+        });
+
+        int[] prefStart = new int[taskCount + 1];
+        for (int t = 0; t < taskCount; t++) prefStart[t + 1] = prefStart[t] + prefCount[t];
+        int[] prefUav = new int[prefStart[taskCount]];
+        double[] prefSinr = new double[prefStart[taskCount]];
+        for (int t = 0; t < taskCount; t++) {
+            System.arraycopy(chunkUav[t], 0, prefUav, prefStart[t], prefCount[t]);
+            System.arraycopy(chunkSinr[t], 0, prefSinr, prefStart[t], prefCount[t]);
+            chunkUav[t] = null;
+            chunkSinr[t] = null;
+        }
+
+        // Iterative matching; UAV loads and interference only grow, so each task keeps a cursor
+        // past UAVs that are full or no longer meet the SINR threshold
+        int[] cursor = new int[taskCount];
+        boolean[] matched = new boolean[taskCount];
+        int[] outTask = new int[taskCount];
+        int[] outUav = new int[taskCount];
+        int[] outServer = new int[taskCount];
+        double[] outSinr = new double[taskCount];
+        double[] outLatency = new double[taskCount];
+        double[] outProfit = new double[taskCount];
+        int count = 0;
+
+        int iteration = 0;
+        boolean converged = false;
+        while (!converged && iteration < maxIterations) {
+            converged = true;
+            iteration++;
+
+            for (int t = 0; t < taskCount; t++) {
+                if (matched[t]) continue;
+
+                int p = prefStart[t] + cursor[t];
+                double sinr = 0;
+                for (; p < prefStart[t + 1]; p++) {
+                    if (load[prefUav[p]] >= capacity[prefUav[p]]) continue;
+                    sinr = interference == null ? prefSinr[p]
+                            : interference.calculateSINR(uavs.get(prefUav[p]), xs[t], ys[t]);
+                    if (sinr >= sinrThreshold) break;
+                }
+                cursor[t] = p - prefStart[t];
+                if (p == prefStart[t + 1]) continue;
+
+                int s = firstServer[t];
+                if (s < 0) continue;
+
+                int u = prefUav[p];
+                double dataRate = CommunicationModel.calculateDataRate(sinr, 1);
+                double procDelay = CommunicationModel.calculateProcessingDelay(computeMI[t], mips[s]);
+                double latency = CommunicationModel.calculateTransmissionDelay(dataKB[t], dataRate) + procDelay;
+                if (latency > deadline[t]) continue;
+
+                double revenue = revenueParameter * dataKB[t] * dataRate / 1e6;
+                double cost = costParameter * dataKB[t] * procDelay;
+
+                outTask[count] = t;
+                outUav[count] = u;
+                outServer[count] = s;
+                outSinr[count] = sinr;
+                outLatency[count] = latency;
+                outProfit[count] = revenue - cost;
+                count++;
+
+                matched[t] = true;
+                load[u]++;
+                if (interference != null) interference.add(tasks.get(t).getId(), xs[t], ys[t], uavs.get(u));
+                converged = false;
+            }
+        }
+
+        logger.info("Indexed R-TMSC converged after {} iterations with {} matches", iteration, count);
+        return new MatchResult(count, outTask, outUav, outServer, outSinr, outLatency, outProfit);
+    }
+
+    /**
+     * Stable merge sort of UAV indices by descending SINR (ties keep input order)
+     */
+    private static void sortBySinrDescending(int[] idx, int n, double[] sinr, int[] scratch) {
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n - width; lo += width << 1) {
+                int mid = lo + width;
+                int hi = Math.min(n, mid + width);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    scratch[k++] = sinr[idx[j]] > sinr[idx[i]] ? idx[j++] : idx[i++];
+                }
+                while (i < mid) scratch[k++] = idx[i++];
+                while (j < hi) scratch[k++] = idx[j++];
+                System.arraycopy(scratch, lo, idx, lo, hi - lo);
+            }
+        }
+    }
+}
@@ -0,0 +1,911 @@
+package simulation.optimization;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.*;
+
+/**
+ * K-means on flat coordinate arrays with k-means++ seeding
+ * LLOYD, HAMERLY and ELKAN are exact and converge to the same clustering for the same seed;
+ * HAMERLY (one lower bound per point) and ELKAN (k lower bounds per point) use the triangle
+ * inequality to skip most point-centroid distance evaluations. MINI_BATCH (Sculley 2010)
+ * updates centroids from random samples and scales to millions of points.
+ * All working arrays are allocated once per run.
+ *
+ * clusterCapacitated refines the clustering so that no cluster exceeds a capacity (balanced
+ * K-means): each round assigns points greedily in order of regret to the nearest centroid
+ * with room, using a grid over centroids for nearest-neighbour queries, then re-centres.
+ *
+ * Assignment, bound maintenance and centroid sums run in parallel over fixed-size point
+ * blocks; per-block partial sums are merged in block order, so results for a given seed
+ * are identical for any number of threads.
+ */
+public class KMeans {
+    private static final Logger logger = LoggerFactory.getLogger(KMeans.class);
+
+    public enum Algorithm { LLOYD, HAMERLY, ELKAN, MINI_BATCH }
+
+    // Elkan keeps n*k lower bounds; beyond this it falls back to Hamerly
+    private static final long ELKAN_MAX_BOUNDS = 32_000_000L;
+    private static final double TOLERANCE = 1e-6; // Max centroid movement at convergence
+    private static final int BLOCK = 4096; // Points per reduction block (fixed for determinism)
+
+    /**
+     * Body of a block loop: processes points [from, to) of block b
+     */
+    private interface BlockBody {
+        void run(int b, int from, int to);
+    }
+
+    /**
+     * Clustering result; point i belongs to cluster assignment[i] (-1 if left unassigned)
+     */
+    public static class Result {
+        public final double[] centroidX;
+        public final double[] centroidY;
+        public final int[] assignment;
+        public final int iterations;
+        public final long distanceEvaluations;
+
+        Result(double[] centroidX, double[] centroidY, int[] assignment,
+               int iterations, long distanceEvaluations) {
+            this.centroidX = centroidX;
+            this.centroidY = centroidY;
+            this.assignment = assignment;
+            this.iterations = iterations;
+            this.distanceEvaluations = distanceEvaluations;
+        }
+
+        public int getK() { return centroidX.length; }
+
+        /**
+         * Sum of squared distances from each point to its centroid
+         */
+        public double inertia(double[] xs, double[] ys, int n) {
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                if (assignment[i] < 0) continue;
+                double dx = xs[i] - centroidX[assignment[i]];
+                double dy = ys[i] - centroidY[assignment[i]];
+                total += dx * dx + dy * dy;
+            }
+            return total;
+        }
+    }
+
+    private final Algorithm algorithm;
+    private final int maxIterations;
+    private final long seed;
+    private int batchSize = 1024;
+    private final ParallelRange workers = new ParallelRange();
+
+    public KMeans(Algorithm algorithm, int maxIterations, long seed) {
+        this.algorithm = algorithm;
+        this.maxIterations = maxIterations;
+        this.seed = seed;
+    }
+
+    /**
+     * Samples per mini-batch step (MINI_BATCH only)
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Set worker threads (1 = sequential, 0 = all cores); does not change results
+     */
+    public void setParallelism(int threads) {
+        workers.setParallelism(threads);
+    }
+
+    public int getParallelism() { return workers.getParallelism(); }
+    public Algorithm getAlgorithm() { return algorithm; }
+
+    /**
+     * Cluster points (xs[i], ys[i]), i < n, into k clusters
+     */
+    public Result cluster(double[] xs, double[] ys, int n, int k) {
+        if (n <= 0 || k <= 0) {
+            throw new IllegalArgumentException("Need at least one point and one cluster");
+        }
+        Random rand = new Random(seed);
+        double[] cx = new double[k];
+        double[] cy = new double[k];
+        long evaluations = seedPlusPlus(xs, ys, n, k, cx, cy, rand);
+
+        Algorithm effective = algorithm;
+        if (effective == Algorithm.ELKAN && (long) n * k > ELKAN_MAX_BOUNDS) {
+            logger.debug("Elkan bounds for {} x {} exceed limit, using Hamerly", n, k);
+            effective = Algorithm.HAMERLY;
+        }
+
+        Result result;
+        switch (effective) {
+            case HAMERLY:
+                result = hamerly(xs, ys, n, k, cx, cy);
+                break;
+            case ELKAN:
+                result = elkan(xs, ys, n, k, cx, cy);
+                break;
+            case MINI_BATCH:
+                result = miniBatch(xs, ys, n, k, cx, cy, rand);
+                break;
+            default:
+                result = lloyd(xs, ys, n, k, cx, cy);
+        }
+        logger.debug("{} k-means: {} points, k={}, {} iterations, {} distance evaluations",
+                effective, n, k, result.iterations, result.distanceEvaluations + evaluations);
+        return new Result(result.centroidX, result.centroidY, result.assignment,
+                result.iterations, result.distanceEvaluations + evaluations);
+    }
+
+    // ===== Capacitated =====
+
+    private static final int CANDIDATES = 8; // Nearest centroids kept per point for the greedy fill
+    private static final int SWAP_PASSES = 4; // Max pairwise-exchange passes per round
+    private static final double ROUND_GAIN = 1e-4; // Relative cost decrease that counts as progress
+    private static final int PATIENCE = 3; // Capacitated rounds without progress before stopping
+
+    /**
+     * Cluster with at most capacity points per cluster
+     * Starts from k-means++ seeds refined by grid-accelerated Lloyd rounds, then runs capacitated
+     * rounds (greedy fill by regret, pairwise exchanges, re-centring) and keeps the best round.
+     * If k * capacity < n, the points that lose the most by waiting are served first and the
+     * rest stay unassigned.
+     */
+    public Result clusterCapacitated(double[] xs, double[] ys, int n, int k, int capacity) {
+        if (n <= 0 || k <= 0) {
+            throw new IllegalArgumentException("Need at least one point and one cluster");
+        }
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        double[] cx = new double[k];
+        double[] cy = new double[k];
+        long evaluations = seedPlusPlus(xs, ys, n, k, cx, cy, new Random(seed));
+
+        int r = Math.min(CANDIDATES, k);
+        int[] candidate = new int[n * r];
+        double[] candidateDist = new double[n * r];
+        long[] order = new long[n];
+        int[] load = new int[k];
+        int[] assignment = new int[n];
+        int[] memberStart = new int[k + 1];
+        int[] members = new int[n];
+        int[] slot = new int[n];
+        Reduction sums = new Reduction(n, k);
+        CentroidGrid grid = new CentroidGrid(k);
+
+        // Unconstrained start: Lloyd with grid nearest-centroid queries
+        int lloydRounds = 0;
+        boolean converged = false;
+        while (!converged && lloydRounds < maxIterations) {
+            lloydRounds++;
+            grid.build(cx, cy, k);
+            forBlocks(n, (b, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    grid.nearest(xs[i], ys[i], 1, candidate, candidateDist, i * r);
+                    assignment[i] = candidate[i * r];
+                }
+            });
+            evaluations += n;
+            converged = updateCentroids(xs, ys, n, k, assignment, cx, cy, sums, null);
+        }
+
+        double[] bestX = new double[k];
+        double[] bestY = new double[k];
+        int[] bestAssignment = new int[n];
+        double bestCost = Double.MAX_VALUE;
+        int stale = 0;
+        int rounds = 0;
+        while (stale < PATIENCE && rounds < maxIterations) {
+            rounds++;
+            grid.build(cx, cy, k);
+
+            // Candidate centroids per point, and regret = what the point loses if its first choice is full
+            forBlocks(n, (b, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    grid.nearest(xs[i], ys[i], r, candidate, candidateDist, i * r);
+                    double regret = r > 1 ? Math.sqrt(candidateDist[i * r + 1]) - Math.sqrt(candidateDist[i * r]) : 0;
+                    // Sort key: descending regret (bits of a non-negative float are monotone), then index
+                    order[i] = (long) (0x7fffffff - Float.floatToIntBits((float) regret)) << 32 | i;
+                }
+            });
+            evaluations += (long) n * r;
+            Arrays.sort(order);
+
+            Arrays.fill(load, 0);
+            long room = (long) k * capacity;
+            for (long key : order) {
+                int i = (int) key;
+                int chosen = -1;
+                if (room > 0) {
+                    for (int c = 0; c < r; c++) {
+                        if (load[candidate[i * r + c]] < capacity) {
+                            chosen = candidate[i * r + c];
+                            break;
+                        }
+                    }
+                    if (chosen < 0) chosen = grid.nearestWithRoom(xs[i], ys[i], load, capacity);
+                }
+                assignment[i] = chosen;
+                if (chosen >= 0) {
+                    load[chosen]++;
+                    room--;
+                }
+            }
+
+            evaluations += improveBySwaps(xs, ys, n, k, r, candidate, candidateDist, cx, cy, load,
+                    assignment, memberStart, members, slot);
+            updateCentroids(xs, ys, n, k, assignment, cx, cy, sums, null);
+
+            double cost = 0;
+            for (int i = 0; i < n; i++) {
+                int a = assignment[i];
+                if (a >= 0) cost += sq(xs[i] - cx[a], ys[i] - cy[a]);
+            }
+            if (cost < bestCost * (1 - ROUND_GAIN)) {
+                stale = 0;
+            } else {
+                stale++;
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                System.arraycopy(cx, 0, bestX, 0, k);
+                System.arraycopy(cy, 0, bestY, 0, k);
+                System.arraycopy(assignment, 0, bestAssignment, 0, n);
+            }
+        }
+
+        int unassigned = 0;
+        for (int a : bestAssignment) if (a < 0) unassigned++;
+        if (unassigned > 0) {
+            logger.warn("Capacity {} x {} clusters leaves {} of {} points unassigned", capacity, k, unassigned, n);
+        }
+        logger.debug("Capacitated k-means: {} Lloyd rounds, {} capacitated rounds", lloydRounds, rounds);
+        return new Result(bestX, bestY, bestAssignment, lloydRounds + rounds, evaluations);
+    }
+
+    /**
+     * Pairwise exchange: a point held away from a closer candidate cluster swaps with a member
+     * of that cluster when the exchange lowers the total squared distance. Sizes are unchanged.
+     * @return Distance evaluations spent
+     */
+    private static long improveBySwaps(double[] xs, double[] ys, int n, int k, int r,
+                                       int[] candidate, double[] candidateDist, double[] cx, double[] cy,
+                                       int[] load, int[] assignment, int[] memberStart, int[] members,
+                                       int[] slot) {
+        // Members per cluster in CSR form; slot[i] is the position of point i
+        memberStart[0] = 0;
+        for (int j = 0; j < k; j++) memberStart[j + 1] = memberStart[j] + load[j];
+        int[] fill = Arrays.copyOf(memberStart, k);
+        for (int i = 0; i < n; i++) {
+            if (assignment[i] < 0) continue;
+            slot[i] = fill[assignment[i]]++;
+            members[slot[i]] = i;
+        }
+
+        long evaluations = 0;
+        for (int pass = 0; pass < SWAP_PASSES; pass++) {
+            int swaps = 0;
+            for (int i = 0; i < n; i++) {
+                int a = assignment[i];
+                if (a < 0) continue;
+                double dia = sq(xs[i] - cx[a], ys[i] - cy[a]);
+
+                for (int c = 0; c < r; c++) {
+                    int b = candidate[i * r + c];
+                    double dib = candidateDist[i * r + c];
+                    if (dib >= dia) break; // Remaining candidates are no closer than the current cluster
+
+                    int best = -1;
+                    double bestGain = 1e-9;
+                    for (int p = memberStart[b]; p < memberStart[b + 1]; p++) {
+                        int j = members[p];
+                        double gain = dia + sq(xs[j] - cx[b], ys[j] - cy[b])
+                                - dib - sq(xs[j] - cx[a], ys[j] - cy[a]);
+                        if (gain > bestGain) {
+                            bestGain = gain;
+                            best = j;
+                        }
+                    }
+                    evaluations += 2L * (memberStart[b + 1] - memberStart[b]);
+                    if (best < 0) continue;
+
+                    int si = slot[i];
+                    int sj = slot[best];
+                    members[si] = best;
+                    members[sj] = i;
+                    slot[i] = sj;
+                    slot[best] = si;
+                    assignment[i] = b;
+                    assignment[best] = a;
+                    swaps++;
+                    break;
+                }
+            }
+            if (swaps == 0) break;
+        }
+        return evaluations;
+    }
+
+    /**
+     * Uniform grid over centroids (CSR layout) for k-nearest and nearest-with-room queries
+     * Rings are searched outward until no unvisited cell can hold a closer centroid.
+     * Queries are read-only and may run concurrently.
+     */
+    private static class CentroidGrid {
+        private static final int MAX_SIDE = 4096;
+
+        private final int[] cellItems;
+        private int[] cellStart = new int[0];
+        private int[] cellFill = new int[0];
+        private double[] cx;
+        private double[] cy;
+        private double minX, minY, cellSize;
+        private int cols, rows;
+
+        CentroidGrid(int k) {
+            this.cellItems = new int[k];
+        }
+
+        void build(double[] cx, double[] cy, int k) {
+            this.cx = cx;
+            this.cy = cy;
+            minX = Double.MAX_VALUE;
+            minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int j = 0; j < k; j++) {
+                minX = Math.min(minX, cx[j]);
+                minY = Math.min(minY, cy[j]);
+                maxX = Math.max(maxX, cx[j]);
+                maxY = Math.max(maxY, cy[j]);
+            }
+            // About one centroid per cell, at most MAX_SIDE cells per side
+            double extent = Math.max(maxX - minX, maxY - minY);
+            cellSize = Math.max(Math.sqrt((maxX - minX) * (maxY - minY) / k), extent / MAX_SIDE);
+            if (cellSize <= 0) cellSize = 1;
+            cols = (int) ((maxX - minX) / cellSize) + 1;
+            rows = (int) ((maxY - minY) / cellSize) + 1;
+
+            int cells = cols * rows;
+            if (cellStart.length < cells + 1) {
+                cellStart = new int[cells + 1];
+                cellFill = new int[cells];
+            }
+            Arrays.fill(cellStart, 0, cells + 1, 0);
+            for (int j = 0; j < k; j++) cellStart[cellOf(cx[j], cy[j]) + 1]++;
+            for (int c = 0; c < cells; c++) cellStart[c + 1] += cellStart[c];
+            System.arraycopy(cellStart, 0, cellFill, 0, cells);
+            for (int j = 0; j < k; j++) cellItems[cellFill[cellOf(cx[j], cy[j])]++] = j;
+        }
+
+        /**
+         * r nearest centroids to (x, y), ascending squared distance (ties by index),
+         * written to out/outDist[offset, offset + r)
+         */
+        void nearest(double x, double y, int r, int[] out, double[] outDist, int offset) {
+            int found = 0;
+            int col = column(x);
+            int row = row(y);
+            int last = offset + r - 1;
+            for (int ring = 0; ; ring++) {
+                double gap = sqRingGap(x, y, col, row, ring);
+                if (gap == Double.MAX_VALUE || (found == r && gap > outDist[last])) break;
+
+                for (int rr = Math.max(0, row - ring); rr <= Math.min(rows - 1, row + ring); rr++) {
+                    int step = ring == 0 || rr == row - ring || rr == row + ring ? 1 : 2 * ring;
+                    for (int c = col - ring; c <= col + ring; c += step) {
+                        if (c < 0 || c >= cols) continue;
+                        int cell = rr * cols + c;
+                        for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                            int j = cellItems[p];
+                            double d = sq(x - cx[j], y - cy[j]);
+                            if (found == r && !closer(d, j, outDist[last], out[last])) continue;
+
+                            // Insert into the sorted top-r list
+                            int pos = offset + (found < r ? found++ : r - 1);
+                            while (pos > offset && closer(d, j, outDist[pos - 1], out[pos - 1])) {
+                                out[pos] = out[pos - 1];
+                                outDist[pos] = outDist[pos - 1];
+                                pos--;
+                            }
+                            out[pos] = j;
+                            outDist[pos] = d;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Nearest centroid whose load is below capacity (ties by index), or -1 if all are full
+         */
+        int nearestWithRoom(double x, double y, int[] load, int capacity) {
+            int best = -1;
+            double bestD = Double.MAX_VALUE;
+            int col = column(x);
+            int row = row(y);
+            for (int ring = 0; ; ring++) {
+                double gap = sqRingGap(x, y, col, row, ring);
+                if (gap == Double.MAX_VALUE || (best >= 0 && gap > bestD)) break;
+
+                for (int rr = Math.max(0, row - ring); rr <= Math.min(rows - 1, row + ring); rr++) {
+                    int step = ring == 0 || rr == row - ring || rr == row + ring ? 1 : 2 * ring;
+                    for (int c = col - ring; c <= col + ring; c += step) {
+                        if (c < 0 || c >= cols) continue;
+                        int cell = rr * cols + c;
+                        for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                            int j = cellItems[p];
+                            if (load[j] >= capacity) continue;
+                            double d = sq(x - cx[j], y - cy[j]);
+                            if (best < 0 || closer(d, j, bestD, best)) {
+                                bestD = d;
+                                best = j;
+                            }
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Squared lower bound on the distance from (x, y) to any grid cell in ring >= ring;
+         * Double.MAX_VALUE once the ring lies entirely outside the grid
+         */
+        private double sqRingGap(double x, double y, int col, int row, int ring) {
+            if (ring == 0) return 0;
+            double gap = Double.MAX_VALUE;
+            if (col - ring >= 0) gap = Math.min(gap, Math.max(0, x - (minX + (col - ring + 1) * cellSize)));
+            if (col + ring < cols) gap = Math.min(gap, Math.max(0, minX + (col + ring) * cellSize - x));
+            if (row - ring >= 0) gap = Math.min(gap, Math.max(0, y - (minY + (row - ring + 1) * cellSize)));
+            if (row + ring < rows) gap = Math.min(gap, Math.max(0, minY + (row + ring) * cellSize - y));
+            return gap == Double.MAX_VALUE ? gap : gap * gap;
+        }
+
+        private static boolean closer(double d, int j, double otherD, int other) {
+            return d < otherD || (d == otherD && j < other);
+        }
+
+        private int column(double x) {
+            return clamp((int) Math.floor((x - minX) / cellSize), cols);
+        }
+
+        private int row(double y) {
+            return clamp((int) Math.floor((y - minY) / cellSize), rows);
+        }
+
+        private int cellOf(double x, double y) {
+            return row(y) * cols + column(x);
+        }
+
+        private static int clamp(int v, int size) {
+            return v < 0 ? 0 : Math.min(v, size - 1);
+        }
+    }
+
+    // ===== Seeding =====
+
+    /**
+     * k-means++: each next centroid is drawn with probability proportional to D(x)²
+     * If fewer than k distinct points exist, remaining centroids duplicate random points.
+     */
+    private long seedPlusPlus(double[] xs, double[] ys, int n, int k,
+                              double[] cx, double[] cy, Random rand) {
+        double[] d2 = new double[n];
+        double[] blockTotal = new double[blocks(n)];
+        int first = rand.nextInt(n);
+        cx[0] = xs[first];
+        cy[0] = ys[first];
+        Arrays.fill(d2, Double.MAX_VALUE);
+
+        for (int c = 0; c < k; c++) {
+            if (c > 0) {
+                int pick = sampleByWeight(d2, blockTotal, n, rand);
+                cx[c] = xs[pick];
+                cy[c] = ys[pick];
+            }
+            double px = cx[c];
+            double py = cy[c];
+            forBlocks(n, (b, from, to) -> {
+                double total = 0;
+                for (int i = from; i < to; i++) {
+                    double d = sq(xs[i] - px, ys[i] - py);
+                    if (d < d2[i]) d2[i] = d;
+                    total += d2[i];
+                }
+                blockTotal[b] = total;
+            });
+        }
+        return (long) n * k;
+    }
+
+    /**
+     * Index drawn with probability weight[i] / sum, locating the block first
+     */
+    private static int sampleByWeight(double[] weight, double[] blockTotal, int n, Random rand) {
+        double total = 0;
+        for (double t : blockTotal) total += t;
+        if (total <= 0) return rand.nextInt(n);
+
+        double target = rand.nextDouble() * total;
+        int b = 0;
+        while (b < blockTotal.length - 1 && target >= blockTotal[b]) {
+            target -= blockTotal[b];
+            b++;
+        }
+        int to = Math.min(n, (b + 1) * BLOCK);
+        for (int i = b * BLOCK; i < to; i++) {
+            target -= weight[i];
+            if (target < 0) return i;
+        }
+        return to - 1;
+    }
+
+    // ===== Lloyd =====
+
+    private Result lloyd(double[] xs, double[] ys, int n, int k, double[] cx, double[] cy) {
+        int[] assignment = new int[n];
+        Reduction sums = new Reduction(n, k);
+        long evaluations = 0;
+
+        int iteration = 0;
+        boolean converged = false;
+        while (!converged && iteration < maxIterations) {
+            iteration++;
+            forBlocks(n, (b, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    assignment[i] = nearest(xs[i], ys[i], cx, cy, k);
+                }
+            });
+            evaluations += (long) n * k;
+            converged = updateCentroids(xs, ys, n, k, assignment, cx, cy, sums, null);
+        }
+        return new Result(cx, cy, assignment, iteration, evaluations);
+    }
+
+    // ===== Hamerly =====
+
+    private Result hamerly(double[] xs, double[] ys, int n, int k, double[] cx, double[] cy) {
+        int[] assignment = new int[n];
+        double[] upper = new double[n];
+        double[] lower = new double[n];
+        double[] halfGap = new double[k]; // Half distance to the nearest other centroid
+        double[] moved = new double[k];
+        Reduction sums = new Reduction(n, k);
+        long[] blockEvaluations = new long[blocks(n)];
+
+        forBlocks(n, (b, from, to) -> {
+            for (int i = from; i < to; i++) {
+                assignWithSecond(i, xs, ys, cx, cy, k, assignment, upper, lower);
+            }
+        });
+        long evaluations = (long) n * k;
+
+        int iteration = 0;
+        boolean converged = false;
+        while (!converged && iteration < maxIterations) {
+            iteration++;
+            if (iteration > 1) {
+                evaluations += centroidHalfGaps(cx, cy, k, halfGap, null);
+                forBlocks(n, (b, from, to) -> {
+                    long count = 0;
+                    for (int i = from; i < to; i++) {
+                        int a = assignment[i];
+                        double bound = Math.max(halfGap[a], lower[i]);
+                        if (upper[i] <= bound) continue;
+
+                        // Tighten the upper bound before paying for a full scan
+                        upper[i] = Math.sqrt(sq(xs[i] - cx[a], ys[i] - cy[a]));
+                        count++;
+                        if (upper[i] <= bound) continue;
+
+                        count += assignWithSecond(i, xs, ys, cx, cy, k, assignment, upper, lower);
+                    }
+                    blockEvaluations[b] = count;
+                });
+                for (long count : blockEvaluations) evaluations += count;
+            }
+
+            converged = updateCentroids(xs, ys, n, k, assignment, cx, cy, sums, moved);
+            if (converged) break;
+
+            // Shift bounds by centroid movement
+            int far = 0;
+            for (int j = 1; j < k; j++) if (moved[j] > moved[far]) far = j;
+            double secondFar = 0;
+            for (int j = 0; j < k; j++) if (j != far) secondFar = Math.max(secondFar, moved[j]);
+            double farMove = moved[far];
+            int farIndex = far;
+            double secondMove = secondFar;
+            forBlocks(n, (b, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    upper[i] += moved[assignment[i]];
+                    lower[i] -= assignment[i] == farIndex ? secondMove : farMove;
+                }
+            });
+        }
+        return new Result(cx, cy, assignment, iteration, evaluations);
+    }
+
+    /**
+     * Full scan for point i: nearest centroid, its distance and the second-nearest distance
+     */
+    private static int assignWithSecond(int i, double[] xs, double[] ys, double[] cx, double[] cy, int k,
+                                        int[] assignment, double[] upper, double[] lower) {
+        int best = 0;
+        double bestD = Double.MAX_VALUE;
+        double secondD = Double.MAX_VALUE;
+        for (int j = 0; j < k; j++) {
+            double d = sq(xs[i] - cx[j], ys[i] - cy[j]);
+            if (d < bestD) {
+                secondD = bestD;
+                bestD = d;
+                best = j;
+            } else if (d < secondD) {
+                secondD = d;
+            }
+        }
+        assignment[i] = best;
+        upper[i] = Math.sqrt(bestD);
+        lower[i] = k > 1 ? Math.sqrt(secondD) : Double.MAX_VALUE;
+        return k;
+    }
+
+    // ===== Elkan =====
+
+    private Result elkan(double[] xs, double[] ys, int n, int k, double[] cx, double[] cy) {
+        int[] assignment = new int[n];
+        double[] upper = new double[n];
+        double[] lower = new double[n * k]; // lower[i * k + j] <= d(x_i, c_j)
+        boolean[] stale = new boolean[n];   // upper[i] may be loose
+        double[] centroidDist = new double[k * k];
+        double[] halfGap = new double[k];
+        double[] moved = new double[k];
+        Reduction sums = new Reduction(n, k);
+        long[] blockEvaluations = new long[blocks(n)];
+
+        forBlocks(n, (b, from, to) -> {
+            for (int i = from; i < to; i++) {
+                int best = 0;
+                double bestD = Double.MAX_VALUE;
+                for (int j = 0; j < k; j++) {
+                    double d = Math.sqrt(sq(xs[i] - cx[j], ys[i] - cy[j]));
+                    lower[i * k + j] = d;
+                    if (d < bestD) {
+                        bestD = d;
+                        best = j;
+                    }
+                }
+                assignment[i] = best;
+                upper[i] = bestD;
+            }
+        });
+        long evaluations = (long) n * k;
+
+        int iteration = 0;
+        boolean converged = false;
+        while (!converged && iteration < maxIterations) {
+            iteration++;
+            if (iteration > 1) {
+                evaluations += centroidHalfGaps(cx, cy, k, halfGap, centroidDist);
+                forBlocks(n, (b, from, to) -> {
+                    long count = 0;
+                    for (int i = from; i < to; i++) {
+                        int a = assignment[i];
+                        if (upper[i] <= halfGap[a]) continue;
+
+                        int base = i * k;
+                        for (int j = 0; j < k; j++) {
+                            if (j == a) continue;
+                            double half = 0.5 * centroidDist[a * k + j];
+                            if (upper[i] <= lower[base + j] || upper[i] <= half) continue;
+
+                            if (stale[i]) {
+                                upper[i] = Math.sqrt(sq(xs[i] - cx[a], ys[i] - cy[a]));
+                                lower[base + a] = upper[i];
+                                stale[i] = false;
+                                count++;
+                                if (upper[i] <= lower[base + j] || upper[i] <= half) continue;
+                            }
+
+                            double d = Math.sqrt(sq(xs[i] - cx[j], ys[i] - cy[j]));
+                            lower[base + j] = d;
+                            count++;
+                            if (d < upper[i] || (d == upper[i] && j < a)) {
+                                a = j;
+                                upper[i] = d;
+                            }
+                        }
+                        assignment[i] = a;
+                    }
+                    blockEvaluations[b] = count;
+                });
+                for (long count : blockEvaluations) evaluations += count;
+            }
+
+            converged = updateCentroids(xs, ys, n, k, assignment, cx, cy, sums, moved);
+            if (converged) break;
+
+            forBlocks(n, (b, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int base = i * k;
+                    for (int j = 0; j < k; j++) {
+                        lower[base + j] = Math.max(0, lower[base + j] - moved[j]);
+                    }
+                    upper[i] += moved[assignment[i]];
+                    stale[i] = true;
+                }
+            });
+        }
+        return new Result(cx, cy, assignment, iteration, evaluations);
+    }
+
+    /**
+     * Half of each centroid's distance to its nearest other centroid
+     * @param centroidDist Optional k*k output of all pairwise distances
+     */
+    private static long centroidHalfGaps(double[] cx, double[] cy, int k, double[] halfGap, double[] centroidDist) {
+        Arrays.fill(halfGap, Double.MAX_VALUE);
+        for (int j = 0; j < k; j++) {
+            for (int m = j + 1; m < k; m++) {
+                double d = Math.sqrt(sq(cx[j] - cx[m], cy[j] - cy[m]));
+                if (centroidDist != null) {
+                    centroidDist[j * k + m] = d;
+                    centroidDist[m * k + j] = d;
+                }
+                halfGap[j] = Math.min(halfGap[j], 0.5 * d);
+                halfGap[m] = Math.min(halfGap[m], 0.5 * d);
+            }
+        }
+        return (long) k * (k - 1) / 2;
+    }
+
+    // ===== Mini-batch =====
+
+    private Result miniBatch(double[] xs, double[] ys, int n, int k, double[] cx, double[] cy, Random rand) {
+        int b = Math.min(batchSize, n);
+        int[] batch = new int[b];
+        int[] batchCluster = new int[b];
+        long[] seen = new long[k];
+        long evaluations = 0;
+
+        int iteration = 0;
+        boolean converged = false;
+        while (!converged && iteration < maxIterations) {
+            iteration++;
+            for (int s = 0; s < b; s++) {
+                batch[s] = rand.nextInt(n);
+            }
+            forBlocks(b, (blk, from, to) -> {
+                for (int s = from; s < to; s++) {
+                    batchCluster[s] = nearest(xs[batch[s]], ys[batch[s]], cx, cy, k);
+                }
+            });
+            evaluations += (long) b * k;
+
+            // Sequential update: per-centroid learning rate 1 / (samples seen)
+            double maxShift = 0;
+            for (int s = 0; s < b; s++) {
+                int c = batchCluster[s];
+                double eta = 1.0 / ++seen[c];
+                double nx = cx[c] + eta * (xs[batch[s]] - cx[c]);
+                double ny = cy[c] + eta * (ys[batch[s]] - cy[c]);
+                maxShift = Math.max(maxShift, Math.max(Math.abs(nx - cx[c]), Math.abs(ny - cy[c])));
+                cx[c] = nx;
+                cy[c] = ny;
+            }
+            converged = maxShift <= TOLERANCE;
+        }
+
+        int[] assignment = new int[n];
+        forBlocks(n, (blk, from, to) -> {
+            for (int i = from; i < to; i++) {
+                assignment[i] = nearest(xs[i], ys[i], cx, cy, k);
+            }
+        });
+        evaluations += (long) n * k;
+        return new Result(cx, cy, assignment, iteration, evaluations);
+    }
+
+    // ===== Shared =====
+
+    /**
+     * Per-block partial centroid sums; block b owns entries [b * k, (b + 1) * k)
+     */
+    private static class Reduction {
+        final double[] sumX;
+        final double[] sumY;
+        final int[] count;
+
+        Reduction(int n, int k) {
+            int size = blocks(n) * k;
+            sumX = new double[size];
+            sumY = new double[size];
+            count = new int[size];
+        }
+    }
+
+    /**
+     * Recompute centroids from scratch (empty clusters keep their centroid)
+     * Partial sums are accumulated per block in parallel, then merged in block order.
+     * @param moved Optional output: distance each centroid moved
+     * @return true if no centroid coordinate moved by more than the tolerance
+     */
+    private boolean updateCentroids(double[] xs, double[] ys, int n, int k, int[] assignment,
+                                    double[] cx, double[] cy, Reduction sums, double[] moved) {
+        forBlocks(n, (b, from, to) -> {
+            int base = b * k;
+            Arrays.fill(sums.sumX, base, base + k, 0);
+            Arrays.fill(sums.sumY, base, base + k, 0);
+            Arrays.fill(sums.count, base, base + k, 0);
+            for (int i = from; i < to; i++) {
+                if (assignment[i] < 0) continue;
+                int c = base + assignment[i];
+                sums.sumX[c] += xs[i];
+                sums.sumY[c] += ys[i];
+                sums.count[c]++;
+            }
+        });
+
+        boolean converged = true;
+        int blocks = blocks(n);
+        for (int j = 0; j < k; j++) {
+            double sumX = 0;
+            double sumY = 0;
+            long count = 0;
+            for (int b = 0; b < blocks; b++) {
+                sumX += sums.sumX[b * k + j];
+                sumY += sums.sumY[b * k + j];
+                count += sums.count[b * k + j];
+            }
+            if (count == 0) {
+                if (moved != null) moved[j] = 0;
+                continue;
+            }
+            double nx = sumX / count;
+            double ny = sumY / count;
+            if (Math.abs(nx - cx[j]) > TOLERANCE || Math.abs(ny - cy[j]) > TOLERANCE) converged = false;
+            if (moved != null) moved[j] = Math.sqrt(sq(nx - cx[j], ny - cy[j]));
+            cx[j] = nx;
+            cy[j] = ny;
+        }
+        return converged;
+    }
+
+    /**
+     * Run body over fixed BLOCK-sized ranges of [0, n), in parallel when configured
+     */
+    private void forBlocks(int n, BlockBody body) {
+        workers.forEach(blocks(n), (first, last) -> {
+            for (int b = first; b < last; b++) {
+                body.run(b, b * BLOCK, Math.min(n, (b + 1) * BLOCK));
+            }
+        });
+    }
+
+    private static int blocks(int n) {
+        return (n + BLOCK - 1) / BLOCK;
+    }
+
+    /**
+     * Nearest centroid by squared distance (lowest index on ties)
+     */
+    static int nearest(double x, double y, double[] cx, double[] cy, int k) {
+        int best = 0;
+        double bestD = sq(x - cx[0], y - cy[0]);
+        for (int j = 1; j < k; j++) {
+            double d = sq(x - cx[j], y - cy[j]);
+            if (d < bestD) {
+                bestD = d;
+                best = j;
+            }
+        }
+        return best;
+    }
+
+    private static double sq(double dx, double dy) {
+        return dx * dx + dy * dy;
+    }
+}
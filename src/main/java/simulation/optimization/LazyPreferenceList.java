@@ -0,0 +1,82 @@
+package simulation.optimization;
+
+import java.util.*;
+
+/**
+ * Lazy Preference List: a preference order materialized one entry at a time
+ * Entries sit in a binary heap built in O(n); reading entry i pops the heap until the sorted
+ * prefix reaches i. A consumer that reads k of n entries pays O(n + k log n) instead of a full
+ * O(n log n) sort. Popped entries are kept, so earlier positions can be read again.
+ *
+ * The order is the comparator's, with ties in input order, exactly as a stable sort would give.
+ * Not thread-safe: build lists in parallel if needed, but read each from one thread.
+ */
+public final class LazyPreferenceList<T> {
+
+    private final Comparator<? super T> order;
+    private final Object[] sorted; // [0, materialized) in preference order
+    private final Object[] heap;
+    private final int[] rank; // Input position of each heap entry, the tie-breaker
+    private int heapSize;
+    private int materialized = 0;
+
+    public LazyPreferenceList(List<? extends T> items, Comparator<? super T> order) {
+        this.order = order;
+        int n = items.size();
+        sorted = new Object[n];
+        heap = items.toArray();
+        rank = new int[n];
+        for (int i = 0; i < n; i++) rank[i] = i;
+        heapSize = n;
+        for (int i = n / 2 - 1; i >= 0; i--) siftDown(i);
+    }
+
+    public int size() { return sorted.length; }
+    public boolean isEmpty() { return sorted.length == 0; }
+    /** Entries sorted so far */
+    public int getMaterialized() { return materialized; }
+
+    /**
+     * Entry at the given preference position, materializing the prefix up to it
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= sorted.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + sorted.length);
+        }
+        while (materialized <= index) {
+            sorted[materialized++] = heap[0];
+            heapSize--;
+            heap[0] = heap[heapSize];
+            rank[0] = rank[heapSize];
+            heap[heapSize] = null;
+            if (heapSize > 0) siftDown(0);
+        }
+        return (T) sorted[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean before(int a, int b) {
+        int c = order.compare((T) heap[a], (T) heap[b]);
+        return c < 0 || (c == 0 && rank[a] < rank[b]);
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int first = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < heapSize && before(left, first)) first = left;
+            if (right < heapSize && before(right, first)) first = right;
+            if (first == i) return;
+
+            Object item = heap[i];
+            heap[i] = heap[first];
+            heap[first] = item;
+            int r = rank[i];
+            rank[i] = rank[first];
+            rank[first] = r;
+            i = first;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package simulation.optimization;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import simulation.model.*;
+
+import java.util.*;
+
+/**
+ * Matching Benchmark: total profit and solve time of the R-TMSC backends versus the auction
+ * Each instance scales the area with the task count so UAV density stays constant, with one
+ * UAV (capacity 30) per 40 tasks and three servers. Every matcher solves the same instance
+ * after a warm-up on a small one; loads are reset by each call.
+ *
+ * Usage: MatchingBenchmark [taskCounts...] (default 1000 10000 100000)
+ */
+public class MatchingBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(MatchingBenchmark.class);
+
+    private static final int WARMUP_RUNS = 3;
+    private static final int UAV_CAPACITY = 30;
+    private static final int TASKS_PER_UAV = 40;
+
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<UAVEntity> uavs = new ArrayList<>();
+    private final List<MECServer> servers = new ArrayList<>();
+    private final Map<String, double[]> iotPositions = new HashMap<>();
+
+    MatchingBenchmark(int taskCount, long seed) {
+        Random rnd = new Random(seed);
+        double side = 2000 * Math.sqrt(taskCount / 1000.0);
+        for (int i = 0; i < taskCount; i++) {
+            Task t = new Task("TASK_" + i, 0, 1000 + rnd.nextInt(8000), 100 + rnd.nextInt(5000),
+                    1.0 + rnd.nextDouble() * 29.0);
+            tasks.add(t);
+            iotPositions.put(t.getId(), new double[]{rnd.nextDouble() * side, rnd.nextDouble() * side});
+        }
+        for (int i = 0; i < Math.max(1, taskCount / TASKS_PER_UAV); i++) {
+            uavs.add(new UAVEntity("UAV_" + i, rnd.nextDouble() * side, rnd.nextDouble() * side, 100.0, UAV_CAPACITY));
+        }
+        servers.add(new MECServer("MEC_0", 20000, 32768, 1_000_000));
+        servers.add(new MECServer("MEC_1", 10000, 16384, 500_000));
+        servers.add(new MECServer("MEC_2", 5000, 8192, 500_000));
+    }
+
+    private static Map<String, MatchingEngine> matchers() {
+        Map<String, MatchingEngine> matchers = new LinkedHashMap<>();
+        matchers.put("R-TMSC object", new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100));
+        matchers.put("R-TMSC indexed", new IndexedRTMSCMatcher(0.1, 0.01, 10.0, 100));
+        matchers.put("Auction 1 thread", new AuctionMatcher(0.1, 0.01, 10.0));
+        AuctionMatcher parallel = new AuctionMatcher(0.1, 0.01, 10.0);
+        parallel.setParallelism(0);
+        matchers.put("Auction all cores", parallel);
+        return matchers;
+    }
+
+    private void run(String name, MatchingEngine matcher) {
+        long start = System.nanoTime();
+        List<RTMSCMatcher.MatchingTriplet> matching = matcher.findStableMatching(tasks, uavs, servers, iotPositions);
+        double millis = (System.nanoTime() - start) / 1e6;
+        double profit = matching.stream().mapToDouble(m -> m.profit).sum();
+        String rounds = matcher instanceof AuctionMatcher
+                ? ", " + ((AuctionMatcher) matcher).getLastRounds() + " rounds" : "";
+        logger.info(String.format("  %-18s %7d matches, profit %14.2f, %9.1f ms%s",
+                name, matching.size(), profit, millis, rounds));
+    }
+
+    public static void main(String[] args) {
+        int[] taskCounts = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1000, 10000, 100000};
+        Map<String, MatchingEngine> matchers = matchers();
+
+        MatchingBenchmark warmup = new MatchingBenchmark(1000, 1);
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            matchers.values().forEach(m -> m.findStableMatching(warmup.tasks, warmup.uavs, warmup.servers, warmup.iotPositions));
+        }
+
+        for (int n : taskCounts) {
+            MatchingBenchmark instance = new MatchingBenchmark(n, n);
+            logger.info("{} tasks, {} UAVs x {} slots, {} servers",
+                    n, instance.uavs.size(), UAV_CAPACITY, instance.servers.size());
+            matchers.forEach(instance::run);
+        }
+    }
+}
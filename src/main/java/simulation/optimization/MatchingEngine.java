@@ -0,0 +1,36 @@
+package simulation.optimization;
+
+import simulation.model.InterferenceField;
+import simulation.model.MECServer;
+import simulation.model.Task;
+import simulation.model.UAVEntity;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matching Engine Interface
+ * Common contract for IoT-UAV-ES association backends
+ */
+public interface MatchingEngine {
+
+    /**
+     * Associate tasks with UAV relays and MEC servers
+     * Implementations reset and then update UAV loads to reflect the returned matching
+     */
+    List<RTMSCMatcher.MatchingTriplet> findStableMatching(List<Task> tasks,
+                                                         List<UAVEntity> uavs,
+                                                         List<MECServer> servers,
+                                                         Map<String, double[]> iotPositions);
+
+    /**
+     * Set worker threads (1 = sequential, 0 = all cores)
+     */
+    void setParallelism(int threads);
+
+    /**
+     * Enable co-channel interference (null = interference-free)
+     * The field is cleared with the UAV loads and receives every match made; each admission
+     * re-checks SINR against the interference of the matches made so far.
+     */
+    void setInterference(InterferenceField field);
+}
@@ -0,0 +1,76 @@
+package simulation.optimization;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join range loop shared by the matching engines and K-means
+ * Splits [0, n) into contiguous chunks; callers write results into index-aligned slots
+ * so the outcome does not depend on the number of workers.
+ */
+class ParallelRange {
+
+    /**
+     * Body of a range loop: processes indices [from, to)
+     */
+    interface Body {
+        void run(int from, int to);
+    }
+
+    // null means sequential
+    private ForkJoinPool pool;
+    private int parallelism = 1;
+
+    /**
+     * @param threads 1 for sequential, 0 for all available processors
+     */
+    void setParallelism(int threads) {
+        int resolved = threads <= 0 ? Runtime.getRuntime().availableProcessors() : threads;
+        if (resolved == parallelism) return;
+
+        if (pool != null) pool.shutdown();
+        this.parallelism = resolved;
+        this.pool = resolved > 1 ? new ForkJoinPool(resolved) : null;
+    }
+
+    int getParallelism() { return parallelism; }
+
+    /**
+     * Run body over [0, n) sequentially, or split across the fork-join pool
+     */
+    void forEach(int n, Body body) {
+        if (pool == null || n < 2) {
+            body.run(0, n);
+            return;
+        }
+        int grain = Math.max(1, n / (parallelism * 4));
+        pool.invoke(new RangeAction(body, 0, n, grain));
+    }
+
+    private static class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Body body;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RangeAction(Body body, int from, int to, int grain) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(body, from, mid, grain),
+                      new RangeAction(body, mid, to, grain));
+        }
+    }
+}
@@ -4,13 +4,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import simulation.model.*;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * R-TMSC (Reverse Three-sided Many-to-one with Cyclic Preferences) Matching Algorithm
  * Implements the three-sided matching mechanism from the paper for IoT-UAV-ES association
  */
-public class RTMSCMatcher {
+public class RTMSCMatcher implements MatchingEngine {
     private static final Logger logger = LoggerFactory.getLogger(RTMSCMatcher.class);
 
     public static class MatchingTriplet {
@@ -38,30 +37,73 @@ public class RTMSCMatcher {
         }
     }
 
+    /**
+     * UAV reachable from an IoT device, with the pair's SINR computed once
+     */
+    private static class UAVCandidate {
+        final UAVEntity uav;
+        final double sinr;
+
+        UAVCandidate(UAVEntity uav, double sinr) {
+            this.uav = uav;
+            this.sinr = sinr;
+        }
+    }
+
+    // IoT→UAV: descending SINR; UAV→ES: ascending MIPS (lower cost for SP). Ties keep input order.
+    private static final Comparator<UAVCandidate> BY_SINR = (c1, c2) -> Double.compare(c2.sinr, c1.sinr);
+    private static final Comparator<MECServer> BY_MIPS = Comparator.comparingInt(MECServer::getMipsCapacity);
+
+    /**
+     * Preferences of one matching round, sorted lazily as the matching reads them
+     * The UAV→ES order is the same for every UAV, so it is one shared list. No ES→IoT list is
+     * built: the matching never reads one.
+     */
     private static class PreferenceLists {
-        Map<String, List<UAVEntity>> iotPreferences = new HashMap<>();
-        Map<String, List<MECServer>> uavPreferences = new HashMap<>();
-        Map<String, List<Task>> esPreferences = new HashMap<>();
+        final Map<String, LazyPreferenceList<UAVCandidate>> iotPreferences = new HashMap<>();
+        final LazyPreferenceList<MECServer> serverPreference;
+
+        PreferenceLists(List<MECServer> servers) {
+            this.serverPreference = new LazyPreferenceList<>(servers, BY_MIPS);
+        }
     }
 
     private final CostModel costModel;
-    private final double revenueParameter;
-    private final double costParameter;
+    private final RTMSCObjective objective;
     private final double sinrThreshold;
     private final int maxIterations;
 
+    private final ParallelRange workers = new ParallelRange();
+    private InterferenceField interference;
+
     public RTMSCMatcher(CostModel costModel, double revenueParam, double costParam, 
                        double sinrThreshold, int maxIterations) {
         this.costModel = costModel;
-        this.revenueParameter = revenueParam;
-        this.costParameter = costParam;
+        this.objective = new RTMSCObjective(revenueParam, costParam);
         this.sinrThreshold = sinrThreshold;
         this.maxIterations = maxIterations;
     }
 
+    /**
+     * Set worker count for preference-list generation
+     * @param threads 1 for sequential, 0 for all available processors
+     */
+    @Override
+    public void setParallelism(int threads) {
+        workers.setParallelism(threads);
+    }
+
+    public int getParallelism() { return workers.getParallelism(); }
+
+    @Override
+    public void setInterference(InterferenceField field) {
+        this.interference = field;
+    }
+
     /**
      * Main R-TMSC algorithm: Find stable matching
      */
+    @Override
     public List<MatchingTriplet> findStableMatching(List<Task> tasks,
                                                     List<UAVEntity> uavs,
                                                     List<MECServer> servers,
@@ -71,12 +113,14 @@ public class RTMSCMatcher {
 
         // Reset UAV loads
         uavs.forEach(UAVEntity::resetLoad);
+        if (interference != null) interference.clear();
 
         // Step 1: Generate preference lists
         PreferenceLists prefs = generatePreferenceLists(tasks, uavs, servers, iotPositions);
 
         // Step 2: Initialize matching
-        Set<MatchingTriplet> matchingSet = new HashSet<>();
+        // List (not HashSet) keeps match order deterministic across runs
+        List<MatchingTriplet> matchingSet = new ArrayList<>();
         Map<String, MatchingTriplet> currentMatches = new HashMap<>();
 
         // Step 3: Iterative matching with convergence detection
@@ -93,51 +137,40 @@ public class RTMSCMatcher {
                     continue;
                 }
 
-                // Get available UAVs in preference order
-                List<UAVEntity> availableUAVs = prefs.iotPreferences.get(iot.getId())
-                    .stream()
-                    .filter(UAVEntity::hasCapacity)
-                    .collect(Collectors.toList());
+                double[] iotPos = iotPositions.get(iot.getId());
 
-                if (availableUAVs.isEmpty()) {
+                // Select top-preferred UAV with capacity (and SINR under current interference)
+                UAVCandidate selected = null;
+                double sinr = 0;
+                LazyPreferenceList<UAVCandidate> candidates = prefs.iotPreferences.get(iot.getId());
+                for (int k = 0; k < candidates.size(); k++) {
+                    UAVCandidate c = candidates.get(k);
+                    if (!c.uav.hasCapacity()) continue;
+                    sinr = admissionSINR(c, iotPos);
+                    if (sinr >= sinrThreshold) {
+                        selected = c;
+                        break;
+                    }
+                }
+
+                if (selected == null) {
                     logger.trace("No available UAVs for task {}", iot.getId());
                     continue;
                 }
+                UAVEntity selectedUAV = selected.uav;
 
-                // Select top-preferred UAV
-                UAVEntity selectedUAV = availableUAVs.get(0);
-
-                // Get available ES for this UAV, feasible for task
-                List<MECServer> availableES = prefs.uavPreferences.get(selectedUAV.getUavId())
-                    .stream()
-                    .filter(es -> canAcceptTask(iot, es, iotPositions))
-                    .collect(Collectors.toList());
+                // Select top-preferred ES for this UAV, feasible for task
+                MECServer selectedES = firstFeasibleServer(prefs.serverPreference, iot);
 
-                if (availableES.isEmpty()) {
+                if (selectedES == null) {
                     logger.trace("No available ES for UAV {} and task {}", 
                             selectedUAV.getUavId(), iot.getId());
                     continue;
                 }
 
-                // Select top-preferred ES
-                MECServer selectedES = availableES.get(0);
-
-                // Calculate metrics
-                double[] iotPos = iotPositions.get(iot.getId());
-                double dist3D = selectedUAV.getDistance3D(iotPos[0], iotPos[1]);
-                double elevAngle = selectedUAV.getElevationAngle(iotPos[0], iotPos[1]);
-                double sinr = CommunicationModel.calculateSINR(dist3D, elevAngle, 0);
-
-                // SINR threshold check
-                if (sinr < sinrThreshold) {
-                    logger.trace("SINR {:.2f} below threshold {:.2f} for task {}", 
-                            sinr, sinrThreshold, iot.getId());
-                    continue;
-                }
-
                 // Calculate latency and profit
-                double latency = calculateTotalLatency(iot, selectedUAV, selectedES, iotPos);
-                double profit = calculateProfit(iot, selectedUAV, selectedES, iotPos, sinr);
+                double latency = RTMSCObjective.latency(iot, selectedES, sinr);
+                double profit = objective.profit(iot, selectedES, sinr);
 
                 // Check deadline constraint
                 if (latency > iot.getDeadline()) {
@@ -152,6 +185,7 @@ public class RTMSCMatcher {
                 matchingSet.add(match);
                 currentMatches.put(iot.getId(), match);
                 selectedUAV.incrementLoad();
+                if (interference != null) interference.add(iot.getId(), iotPos[0], iotPos[1], selectedUAV);
 
                 logger.trace("Matched: {}", match);
                 converged = false;
@@ -160,103 +194,253 @@ public class RTMSCMatcher {
 
         logger.info("R-TMSC converged after {} iterations with {} matches", 
                    iteration, matchingSet.size());
-        return new ArrayList<>(matchingSet);
+        return matchingSet;
+    }
+
+    /**
+     * Open an incremental matching session over a fixed UAV fleet and server pool
+     * UAV loads are reset once here; later task batches extend the existing matching.
+     */
+    public MatchingSession openSession(List<UAVEntity> uavs, List<MECServer> servers) {
+        uavs.forEach(UAVEntity::resetLoad);
+        if (interference != null) interference.clear();
+        return new MatchingSession(uavs, servers);
+    }
+
+    /**
+     * Unmatched task on the session worklist, with a cursor into its UAV preferences
+     * UAV loads and interference only grow between releases, so candidates before the cursor
+     * stay unusable.
+     */
+    private static class PendingTask {
+        final Task task;
+        final double[] position;
+        final LazyPreferenceList<UAVCandidate> preferences;
+        int cursor = 0;
+
+        PendingTask(Task task, double[] position, LazyPreferenceList<UAVCandidate> preferences) {
+            this.task = task;
+            this.position = position;
+            this.preferences = preferences;
+        }
+    }
+
+    /**
+     * Worklist-driven R-TMSC: each pass visits only unmatched tasks and resumes each task's
+     * preference scan from its cursor. New arrivals are matched against the remaining capacity
+     * without disturbing earlier matches; releasing a match frees its UAV slot for waiting tasks.
+     * Adding a single batch to a fresh session yields the same matching as findStableMatching.
+     */
+    public class MatchingSession {
+        private final UAVSpatialIndex index;
+        private final double radius;
+        private final LazyPreferenceList<MECServer> serverPreference;
+
+        private final Map<String, MatchingTriplet> matches = new LinkedHashMap<>();
+        private List<PendingTask> worklist = new ArrayList<>();
+        // Tasks whose candidate UAVs are all full; revived when a match is released
+        private final List<PendingTask> blocked = new ArrayList<>();
+        private int rejected = 0;
+
+        private MatchingSession(List<UAVEntity> uavs, List<MECServer> servers) {
+            this.radius = UAVSpatialIndex.coverageRadius(uavs, sinrThreshold);
+            this.index = new UAVSpatialIndex(uavs, radius);
+
+            // UAV→ES preference is the same for every UAV: ascending MIPS
+            this.serverPreference = new LazyPreferenceList<>(servers, BY_MIPS);
+        }
+
+        /**
+         * Add newly arrived tasks and extend the matching
+         * @return Matches created by this call, in creation order
+         */
+        @SuppressWarnings("unchecked")
+        public List<MatchingTriplet> addTasks(List<Task> arrivals, Map<String, double[]> iotPositions) {
+            LazyPreferenceList<UAVCandidate>[] ranked = (LazyPreferenceList<UAVCandidate>[]) new LazyPreferenceList<?>[arrivals.size()];
+            workers.forEach(arrivals.size(), (from, to) -> {
+                int[] nearby = new int[index.size()];
+                for (int i = from; i < to; i++) {
+                    ranked[i] = rankCandidates(index, radius, iotPositions.get(arrivals.get(i).getId()), nearby);
+                }
+            });
+
+            for (int i = 0; i < arrivals.size(); i++) {
+                Task task = arrivals.get(i);
+                if (ranked[i].isEmpty() || firstFeasibleServer(task) == null) {
+                    rejected++; // No reachable UAV or no server fast enough: never matchable
+                    continue;
+                }
+                worklist.add(new PendingTask(task, iotPositions.get(task.getId()), ranked[i]));
+            }
+            return drainWorklist();
+        }
+
+        /**
+         * Release a task's match (e.g. task finished), freeing its UAV slot
+         * @return Matches created for waiting tasks that could use the freed capacity
+         */
+        public List<MatchingTriplet> release(String taskId) {
+            MatchingTriplet match = matches.remove(taskId);
+            if (match == null) return Collections.emptyList();
+            match.uav.decrementLoad();
+            if (interference != null) interference.remove(taskId);
+
+            // Freed capacity invalidates cursors: rescan waiting tasks from their best candidate
+            worklist.addAll(blocked);
+            blocked.clear();
+            worklist.forEach(p -> p.cursor = 0);
+            return drainWorklist();
+        }
+
+        private List<MatchingTriplet> drainWorklist() {
+            List<MatchingTriplet> created = new ArrayList<>();
+            int iteration = 0;
+            boolean converged = false;
+
+            while (!converged && iteration < maxIterations && !worklist.isEmpty()) {
+                converged = true;
+                iteration++;
+
+                List<PendingTask> stillPending = new ArrayList<>(worklist.size());
+                for (PendingTask pending : worklist) {
+                    MatchingTriplet match = tryMatch(pending);
+                    if (match == null) {
+                        if (pending.cursor == pending.preferences.size()) {
+                            blocked.add(pending);
+                        } else {
+                            stillPending.add(pending);
+                        }
+                        continue;
+                    }
+                    matches.put(pending.task.getId(), match);
+                    created.add(match);
+                    converged = false;
+                }
+                worklist = stillPending;
+            }
+
+            logger.debug("R-TMSC session: {} new matches in {} passes, {} pending, {} blocked",
+                    created.size(), iteration, worklist.size(), blocked.size());
+            return created;
+        }
+
+        private MatchingTriplet tryMatch(PendingTask pending) {
+            // Advance past UAVs that filled up (or lost SINR to interference) since the last visit
+            LazyPreferenceList<UAVCandidate> prefs = pending.preferences;
+            double sinr = 0;
+            while (pending.cursor < prefs.size()) {
+                UAVCandidate c = prefs.get(pending.cursor);
+                if (c.uav.hasCapacity()) {
+                    sinr = admissionSINR(c, pending.position);
+                    if (sinr >= sinrThreshold) break;
+                }
+                pending.cursor++;
+            }
+            if (pending.cursor == prefs.size()) return null;
+
+            Task iot = pending.task;
+            UAVCandidate candidate = prefs.get(pending.cursor);
+            MECServer selectedES = firstFeasibleServer(iot);
+
+            double latency = RTMSCObjective.latency(iot, selectedES, sinr);
+            if (latency > iot.getDeadline()) return null;
+
+            double profit = objective.profit(iot, selectedES, sinr);
+            candidate.uav.incrementLoad();
+            if (interference != null) {
+                interference.add(iot.getId(), pending.position[0], pending.position[1], candidate.uav);
+            }
+            return new MatchingTriplet(iot, candidate.uav, selectedES, sinr, latency, profit);
+        }
+
+        private MECServer firstFeasibleServer(Task task) {
+            return RTMSCMatcher.this.firstFeasibleServer(serverPreference, task);
+        }
+
+        public List<MatchingTriplet> getMatches() { return new ArrayList<>(matches.values()); }
+        public int getMatchCount() { return matches.size(); }
+        public int getPendingCount() { return worklist.size() + blocked.size(); }
+        public int getRejectedCount() { return rejected; }
     }
 
     /**
      * Generate preference lists for all three agent types
+     * Each IoT list is computed independently into an index-aligned slot, then published into
+     * the map in input order, so sequential and parallel runs produce identical preferences.
      */
+    @SuppressWarnings("unchecked")
     private PreferenceLists generatePreferenceLists(List<Task> tasks,
                                                     List<UAVEntity> uavs,
                                                     List<MECServer> servers,
                                                     Map<String, double[]> iotPositions) {
-        PreferenceLists prefs = new PreferenceLists();
-
-        // IoT→UAV preference: descending SINR
-        for (Task iot : tasks) {
-            double[] pos = iotPositions.get(iot.getId());
-            List<UAVEntity> sortedUAVs = uavs.stream()
-                .sorted((u1, u2) -> {
-                    double sinr1 = calculateSINR(u1, pos[0], pos[1]);
-                    double sinr2 = calculateSINR(u2, pos[0], pos[1]);
-                    return Double.compare(sinr2, sinr1); // Descending SINR
-                })
-                .collect(Collectors.toList());
-            prefs.iotPreferences.put(iot.getId(), sortedUAVs);
-            logger.trace("IoT {} preferences: top UAV has SINR {:.2f}",
-                    iot.getId(), calculateSINR(sortedUAVs.get(0), pos[0], pos[1]));
-        }
-
-        // UAV→ES preference: ascending MIPS (lower cost for SP)
-        for (UAVEntity uav : uavs) {
-            List<MECServer> sortedES = servers.stream()
-                .sorted(Comparator.comparingInt(MECServer::getMipsCapacity))
-                .collect(Collectors.toList());
-            prefs.uavPreferences.put(uav.getUavId(), sortedES);
-        }
-
-        // ES→IoT preference: ascending task complexity (Dm * Cm)
-        for (MECServer es : servers) {
-            List<Task> sortedTasks = tasks.stream()
-                .sorted((t1, t2) -> {
-                    double complexity1 = t1.getDataSizeKB() * t1.getComputeMI();
-                    double complexity2 = t2.getDataSizeKB() * t2.getComputeMI();
-                    return Double.compare(complexity1, complexity2); // Ascending complexity
-                })
-                .collect(Collectors.toList());
-            prefs.esPreferences.put(es.getServerId(), sortedTasks);
+        PreferenceLists prefs = new PreferenceLists(servers);
+
+        // IoT→UAV preference: restricted to UAVs within coverage radius
+        double radius = UAVSpatialIndex.coverageRadius(uavs, sinrThreshold);
+        UAVSpatialIndex index = new UAVSpatialIndex(uavs, radius);
+        LazyPreferenceList<UAVCandidate>[] iotLists = (LazyPreferenceList<UAVCandidate>[]) new LazyPreferenceList<?>[tasks.size()];
+
+        workers.forEach(tasks.size(), (from, to) -> {
+            int[] nearby = new int[uavs.size()];
+            for (int i = from; i < to; i++) {
+                double[] pos = iotPositions.get(tasks.get(i).getId());
+                iotLists[i] = rankCandidates(index, radius, pos, nearby);
+            }
+        });
+        for (int i = 0; i < tasks.size(); i++) {
+            prefs.iotPreferences.put(tasks.get(i).getId(), iotLists[i]);
+            logger.trace("IoT {} preferences: {} UAVs above SINR threshold",
+                    tasks.get(i).getId(), iotLists[i].size());
         }
 
         return prefs;
     }
 
     /**
-     * Calculate SINR between IoT and UAV
+     * Rank UAVs near an IoT position by descending SINR, keeping only those above threshold
+     * @param nearby Scratch buffer of index.size() entries, owned by the calling worker
      */
-    private double calculateSINR(UAVEntity uav, double iotX, double iotY) {
-        double dist3D = uav.getDistance3D(iotX, iotY);
-        double elevAngle = uav.getElevationAngle(iotX, iotY);
-        return CommunicationModel.calculateSINR(dist3D, elevAngle, 0);
+    private LazyPreferenceList<UAVCandidate> rankCandidates(UAVSpatialIndex index, double radius,
+                                                            double[] pos, int[] nearby) {
+        int found = index.query(pos[0], pos[1], radius, nearby);
+
+        // Fleet order breaks SINR ties, matching the old stable sort over all UAVs
+        Arrays.sort(nearby, 0, found);
+        List<UAVCandidate> candidates = new ArrayList<>(found);
+        for (int k = 0; k < found; k++) {
+            UAVEntity uav = index.get(nearby[k]);
+            double sinr = calculateSINR(uav, pos[0], pos[1]);
+            if (sinr >= sinrThreshold) {
+                candidates.add(new UAVCandidate(uav, sinr));
+            }
+        }
+        return new LazyPreferenceList<>(candidates, BY_SINR); // Sorted as the matching reads it
     }
 
     /**
-     * Check if ES can accept task within deadline
+     * Most preferred server that can process the task within its deadline, or null
      */
-    private boolean canAcceptTask(Task task, MECServer es, Map<String, double[]> iotPositions) {
-        double procDelay = CommunicationModel.calculateProcessingDelay(
-                task.getComputeMI(), es.getMipsCapacity());
-        return procDelay < task.getDeadline();
+    private MECServer firstFeasibleServer(LazyPreferenceList<MECServer> serverPreference, Task task) {
+        for (int i = 0; i < serverPreference.size(); i++) {
+            MECServer es = serverPreference.get(i);
+            if (RTMSCObjective.canProcess(task, es)) return es;
+        }
+        return null;
     }
 
     /**
-     * Calculate total latency: transmission + processing
+     * Calculate SINR between IoT and UAV
      */
-    private double calculateTotalLatency(Task task, UAVEntity uav, MECServer es, double[] iotPos) {
-        double dist3D = uav.getDistance3D(iotPos[0], iotPos[1]);
-        double elevAngle = uav.getElevationAngle(iotPos[0], iotPos[1]);
-        double sinr = CommunicationModel.calculateSINR(dist3D, elevAngle, 0);
-        double dataRate = CommunicationModel.calculateDataRate(sinr, 1); // 1 PRB
-
-        double txDelay = CommunicationModel.calculateTransmissionDelay(task.getDataSizeKB(), dataRate);
-        double procDelay = CommunicationModel.calculateProcessingDelay(
-                task.getComputeMI(), es.getMipsCapacity());
-
-        return txDelay + procDelay;
+    private double calculateSINR(UAVEntity uav, double iotX, double iotY) {
+        return CommunicationModel.calculateSINRAt(uav.getDistance2D(iotX, iotY), uav.getAltitude(), 0);
     }
 
     /**
-     * Calculate SP profit: Revenue - Cost
-     * Profit = v*Dm*ρm - w*Dm*t_proc (from paper)
+     * SINR used to admit a match: the interference-free preference SINR, or the SINR under
+     * interference from the matches made so far when an interference field is set
      */
-    private double calculateProfit(Task iot, UAVEntity uav, MECServer es, 
-                                   double[] iotPos, double sinr) {
-        double dataRate = CommunicationModel.calculateDataRate(sinr, 1); // bits/sec
-        double procTime = CommunicationModel.calculateProcessingDelay(
-                iot.getComputeMI(), es.getMipsCapacity());
-
-        double revenue = revenueParameter * iot.getDataSizeKB() * dataRate / 1e6; // Mbps
-        double cost = costParameter * iot.getDataSizeKB() * procTime;
-
-        return revenue - cost;
+    private double admissionSINR(UAVCandidate candidate, double[] iotPos) {
+        if (interference == null) return candidate.sinr;
+        return interference.calculateSINR(candidate.uav, iotPos[0], iotPos[1]);
     }
 }
\ No newline at end of file
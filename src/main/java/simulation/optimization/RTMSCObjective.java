@@ -0,0 +1,53 @@
+package simulation.optimization;
+
+import simulation.model.*;
+
+/**
+ * R-TMSC Objective: latency and SP profit of offloading a task through a UAV and a server
+ * Shared by the R-TMSC and auction matchers so that both price a match the same way.
+ */
+final class RTMSCObjective {
+    private final double revenueParameter;
+    private final double costParameter;
+
+    RTMSCObjective(double revenueParam, double costParam) {
+        this.revenueParameter = revenueParam;
+        this.costParameter = costParam;
+    }
+
+    /**
+     * Check if ES can process the task within its deadline
+     */
+    static boolean canProcess(Task task, MECServer es) {
+        return CommunicationModel.calculateProcessingDelay(task.getComputeMI(), es.getMipsCapacity())
+                < task.getDeadline();
+    }
+
+    /**
+     * Calculate total latency: transmission + processing
+     */
+    static double latency(Task task, MECServer es, double sinr) {
+        double dataRate = CommunicationModel.calculateDataRate(sinr, 1); // 1 PRB
+
+        double txDelay = CommunicationModel.calculateTransmissionDelay(task.getDataSizeKB(), dataRate);
+        double procDelay = CommunicationModel.calculateProcessingDelay(
+                task.getComputeMI(), es.getMipsCapacity());
+
+        return txDelay + procDelay;
+    }
+
+    /**
+     * Calculate SP profit: Revenue - Cost
+     * Profit = v*Dm*ρm - w*Dm*t_proc (from paper)
+     */
+    double profit(Task task, MECServer es, double sinr) {
+        double dataRate = CommunicationModel.calculateDataRate(sinr, 1); // bits/sec
+        double procTime = CommunicationModel.calculateProcessingDelay(
+                task.getComputeMI(), es.getMipsCapacity());
+
+        double revenue = revenueParameter * task.getDataSizeKB() * dataRate / 1e6; // Mbps
+        double cost = costParameter * task.getDataSizeKB() * procTime;
+
+        return revenue - cost;
+    }
+}
@@ -0,0 +1,143 @@
+package simulation.optimization;
+
+import simulation.model.CommunicationModel;
+import simulation.model.UAVEntity;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid index over UAV ground positions
+ * Answers "which UAVs lie within radius r of (x, y)" by visiting only nearby cells
+ * instead of scanning the whole fleet. Read-only after construction.
+ */
+public class UAVSpatialIndex {
+
+    private final List<UAVEntity> uavs;
+    private final double minX;
+    private final double minY;
+    private final double cellSize;
+    private final int cols;
+    private final int rows;
+
+    // Compressed cell layout: UAV indices of cell c are cellItems[cellStart[c] .. cellStart[c+1])
+    private final int[] cellStart;
+    private final int[] cellItems;
+    private final double[] itemX; // Ground position of cellItems[k], copied at construction
+    private final double[] itemY;
+
+    /**
+     * @param uavs UAVs to index (positions are snapshotted at construction; rebuild after moves)
+     * @param radius Expected query radius, used as the cell size
+     */
+    public UAVSpatialIndex(List<UAVEntity> uavs, double radius) {
+        this.uavs = uavs;
+        int n = uavs.size();
+
+        double loX = Double.POSITIVE_INFINITY, loY = Double.POSITIVE_INFINITY;
+        double hiX = Double.NEGATIVE_INFINITY, hiY = Double.NEGATIVE_INFINITY;
+        for (UAVEntity uav : uavs) {
+            loX = Math.min(loX, uav.getXPosition());
+            loY = Math.min(loY, uav.getYPosition());
+            hiX = Math.max(hiX, uav.getXPosition());
+            hiY = Math.max(hiY, uav.getYPosition());
+        }
+        if (n == 0) {
+            loX = loY = hiX = hiY = 0;
+        }
+        this.minX = loX;
+        this.minY = loY;
+
+        // Cell size = query radius, coarsened so the grid never has more than ~4 cells per UAV
+        double extent = Math.max(1.0, Math.max(hiX - loX, hiY - loY));
+        double minCell = extent / Math.max(1, Math.ceil(Math.sqrt(4.0 * n)));
+        double size = (radius > 0 && !Double.isInfinite(radius)) ? radius : extent;
+        this.cellSize = Math.min(extent, Math.max(size, minCell));
+
+        this.cols = (int) ((hiX - loX) / cellSize) + 1;
+        this.rows = (int) ((hiY - loY) / cellSize) + 1;
+
+        // Counting sort of UAV indices by cell
+        int[] cellOf = new int[n];
+        this.cellStart = new int[cols * rows + 1];
+        for (int i = 0; i < n; i++) {
+            UAVEntity uav = uavs.get(i);
+            cellOf[i] = cellIndex(col(uav.getXPosition()), row(uav.getYPosition()));
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cols * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        this.cellItems = new int[n];
+        this.itemX = new double[n];
+        this.itemY = new double[n];
+        int[] fill = new int[cols * rows];
+        for (int i = 0; i < n; i++) {
+            int c = cellOf[i];
+            int k = cellStart[c] + fill[c]++;
+            cellItems[k] = i;
+            itemX[k] = uavs.get(i).getXPosition();
+            itemY[k] = uavs.get(i).getYPosition();
+        }
+    }
+
+    /**
+     * Largest coverage radius over the fleet's altitudes; UAVs beyond it cannot reach the threshold
+     * @return radius in meters, or -1 if no UAV can reach the threshold at all
+     */
+    public static double coverageRadius(List<UAVEntity> uavs, double sinrThreshold) {
+        Map<Double, Double> radiusByAltitude = new HashMap<>();
+        double radius = -1;
+        for (UAVEntity uav : uavs) {
+            radius = Math.max(radius, radiusByAltitude.computeIfAbsent(uav.getAltitude(),
+                    alt -> CommunicationModel.calculateCoverageRadius(alt, sinrThreshold)));
+        }
+        return radius;
+    }
+
+    /**
+     * Collect indices of UAVs whose ground distance to (x, y) is at most radius
+     * @param out Buffer of at least size() entries; filled in ascending cell order
+     * @return Number of indices written to out
+     */
+    public int query(double x, double y, double radius, int[] out) {
+        if (uavs.isEmpty() || radius < 0) return 0;
+
+        boolean unbounded = Double.isInfinite(radius);
+        int c0 = unbounded ? 0 : Math.max(0, col(x - radius));
+        int c1 = unbounded ? cols - 1 : Math.min(cols - 1, col(x + radius));
+        int r0 = unbounded ? 0 : Math.max(0, row(y - radius));
+        int r1 = unbounded ? rows - 1 : Math.min(rows - 1, row(y + radius));
+        double radiusSq = radius * radius;
+
+        int count = 0;
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = cellIndex(c, r);
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    double dx = itemX[k] - x;
+                    double dy = itemY[k] - y;
+                    if (unbounded || dx * dx + dy * dy <= radiusSq) {
+                        out[count++] = cellItems[k];
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    public UAVEntity get(int index) { return uavs.get(index); }
+    public int size() { return uavs.size(); }
+
+    private int col(double x) {
+        return (int) Math.floor((x - minX) / cellSize);
+    }
+
+    private int row(double y) {
+        return (int) Math.floor((y - minY) / cellSize);
+    }
+
+    private int cellIndex(int c, int r) {
+        return r * cols + c;
+    }
+}
@@ -0,0 +1,165 @@
+package simulation;
+
+import org.junit.After;
+import org.junit.Test;
+import simulation.model.ChannelBatch;
+import simulation.model.CommunicationModel;
+import simulation.model.CommunicationModel.PathLossMode;
+import simulation.model.UAVEntity;
+import static org.junit.Assert.*;
+import java.util.Random;
+
+public class CommunicationModelTest {
+
+    @After
+    public void tearDown() {
+        CommunicationModel.configurePathLoss(PathLossMode.EXACT, 1e-3);
+        ChannelBatch.setVectorEnabled(false);
+    }
+
+    private static double exactPathLoss(double dist2D, double altitude) {
+        double dist3D = Math.sqrt(dist2D * dist2D + altitude * altitude);
+        double elevAngle = dist2D == 0 ? 90.0 : Math.toDegrees(Math.atan(altitude / dist2D));
+        return CommunicationModel.calculatePathLoss(dist3D, elevAngle);
+    }
+
+    private static double maxRelativeError(PathLossMode mode, double bound) {
+        Random rnd = new Random(11);
+        double[] altitudes = {30.0, 100.0, 150.0, 400.0};
+        double worst = 0;
+
+        for (double altitude : altitudes) {
+            for (int i = 0; i < 20_000; i++) {
+                double dist2D = i == 0 ? 0 : rnd.nextDouble() * 5000;
+
+                CommunicationModel.configurePathLoss(PathLossMode.EXACT, bound);
+                double exact = exactPathLoss(dist2D, altitude);
+
+                CommunicationModel.configurePathLoss(mode, bound);
+                double approx = CommunicationModel.calculatePathLossAt(dist2D, altitude);
+
+                worst = Math.max(worst, Math.abs(approx - exact) / exact);
+            }
+        }
+        return worst;
+    }
+
+    @Test
+    public void testTableRespectsErrorBound() {
+        for (double bound : new double[]{1e-2, 1e-3, 1e-5}) {
+            double worst = maxRelativeError(PathLossMode.TABLE, bound);
+            assertTrue("Table max relative error " + worst + " should be within " + bound, worst <= bound);
+        }
+    }
+
+    @Test
+    public void testTableKeepsErrorBoundAcrossManyAltitudes() {
+        CommunicationModel.configurePathLoss(PathLossMode.TABLE, 1e-3);
+        for (int round = 0; round < 2; round++) {
+            for (int a = 0; a < 20; a++) {
+                double altitude = 50.0 + 10 * a;
+                double approx = CommunicationModel.calculatePathLossAt(1234.5, altitude);
+                double exact = exactPathLoss(1234.5, altitude);
+                assertEquals("Evicted altitude " + altitude + " should be rebuilt to the same bound",
+                        exact, approx, exact * 1e-3);
+            }
+        }
+    }
+
+    @Test
+    public void testUnreachableTableBoundFails() {
+        CommunicationModel.configurePathLoss(PathLossMode.TABLE, 1e-16);
+        try {
+            CommunicationModel.calculatePathLossAt(1234.5, 100.0);
+            fail("A bound below floating-point resolution should not be silently loosened");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("above the configured bound"));
+        }
+    }
+
+    @Test
+    public void testCachedMatchesExactFormulation() {
+        double worst = maxRelativeError(PathLossMode.CACHED, 1e-3);
+        assertTrue("Cached constants should agree with the exact formula to rounding, got " + worst, worst < 1e-12);
+    }
+
+    @Test
+    public void testExactModeMatchesEntityGeometry() {
+        CommunicationModel.configurePathLoss(PathLossMode.EXACT, 1e-3);
+        UAVEntity uav = new UAVEntity("UAV_0", 120, 340, 100.0, 10);
+
+        double viaEntity = CommunicationModel.calculateSINR(
+                uav.getDistance3D(500, 700), uav.getElevationAngle(500, 700), 0);
+        double viaGround = CommunicationModel.calculateSINRAt(uav.getDistance2D(500, 700), uav.getAltitude(), 0);
+
+        assertEquals("Ground-distance API should reproduce the 3D/elevation API exactly", viaEntity, viaGround, 0.0);
+    }
+
+    /**
+     * {iotX, iotY, uavX, uavY, uavAltitude}; IoT 0 sits directly below UAV 0
+     */
+    private static double[][] randomGeometry(int iots, int uavCount) {
+        Random rnd = new Random(5);
+        double[][] in = {new double[iots], new double[iots],
+                new double[uavCount], new double[uavCount], new double[uavCount]};
+        for (int i = 0; i < iots; i++) {
+            in[0][i] = i == 0 ? 500 : rnd.nextDouble() * 3000;
+            in[1][i] = i == 0 ? 500 : rnd.nextDouble() * 3000;
+        }
+        for (int u = 0; u < uavCount; u++) {
+            in[2][u] = u == 0 ? 500 : rnd.nextDouble() * 3000;
+            in[3][u] = u == 0 ? 500 : rnd.nextDouble() * 3000;
+            in[4][u] = 50 + rnd.nextDouble() * 250;
+        }
+        return in;
+    }
+
+    private static ChannelBatch compute(double[][] in) {
+        ChannelBatch batch = new ChannelBatch();
+        batch.compute(in[0], in[1], in[0].length, in[2], in[3], in[4], in[2].length);
+        return batch;
+    }
+
+    @Test
+    public void testScalarBatchMatchesPairwiseAPI() {
+        for (int uavCount : new int[]{1, 13}) {
+            double[][] in = randomGeometry(257, uavCount);
+            ChannelBatch batch = compute(in);
+            for (int i = 0; i < 257; i++) {
+                for (int u = 0; u < uavCount; u++) {
+                    UAVEntity uav = new UAVEntity("UAV_" + u, in[2][u], in[3][u], in[4][u], 1);
+                    double d3 = uav.getDistance3D(in[0][i], in[1][i]);
+                    double elev = uav.getElevationAngle(in[0][i], in[1][i]);
+                    double sinr = CommunicationModel.calculateSINR(d3, elev, 0);
+
+                    assertEquals(d3, batch.getDistance3D(i, u), 0.0);
+                    assertEquals(elev, batch.getElevation(i, u), 0.0);
+                    assertEquals(sinr, batch.getSINR(i, u), 0.0);
+                    assertEquals(CommunicationModel.calculateDataRate(sinr, 1), batch.getDataRate(i, u), 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testVectorBatchAgreesWithScalar() {
+        ChannelBatch.setVectorEnabled(true);
+        if (!ChannelBatch.isVectorEnabled()) return; // jdk.incubator.vector not resolved
+
+        for (int uavCount : new int[]{1, 13}) {
+            double[][] in = randomGeometry(257, uavCount);
+            ChannelBatch.setVectorEnabled(false);
+            ChannelBatch scalar = compute(in);
+            ChannelBatch.setVectorEnabled(true);
+            ChannelBatch vector = compute(in);
+
+            for (int i = 0; i < 257; i++) {
+                for (int u = 0; u < uavCount; u++) {
+                    assertEquals(scalar.getElevation(i, u), vector.getElevation(i, u), 1e-9);
+                    assertEquals(1.0, vector.getSINR(i, u) / scalar.getSINR(i, u), 1e-9);
+                    assertEquals(1.0, vector.getDataRate(i, u) / scalar.getDataRate(i, u), 1e-9);
+                }
+            }
+        }
+    }
+}
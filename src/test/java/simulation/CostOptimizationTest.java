@@ -8,6 +8,7 @@ import simulation.optimization.CostOptimizer;
 import static org.junit.Assert.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 public class CostOptimizationTest {
 
@@ -71,6 +72,70 @@ public class CostOptimizationTest {
         }
     }
 
+    @Test
+    public void testServerPruningMatchesExhaustiveSearch() {
+        Random rnd = new Random(7);
+        for (int u = 0; u < 6; u++) {
+            optimizer.registerUAV(new UAVEntity("UAV_" + u, rnd.nextDouble() * 1000, rnd.nextDouble() * 1000, 100, 3));
+        }
+        // Repeated capacities form classes; equal-capacity servers tie on profit
+        List<MECServer> mixed = new ArrayList<>();
+        int[] mips = {4000, 10000, 2500, 10000, 4000, 8000, 2500, 1};
+        for (int i = 0; i < mips.length; i++) mixed.add(new MECServer("ES_" + i, mips[i], 4096, 100000));
+
+        for (int i = 0; i < 500; i++) {
+            Task task = new Task("T_" + i, 0, 100 + rnd.nextInt(20000), 10 + rnd.nextInt(2000), 0.05 + rnd.nextDouble() * 5);
+            optimizer.registerIoTPosition(task.getId(), rnd.nextDouble() * 1000, rnd.nextDouble() * 1000);
+
+            optimizer.setServerPruning(false);
+            CostOptimizer.OffloadingDecision exhaustive = optimizer.optimizeTaskOffloading(task, mixed);
+            optimizer.setServerPruning(true);
+            CostOptimizer.OffloadingDecision pruned = optimizer.optimizeTaskOffloading(task, mixed);
+
+            assertSame(exhaustive.selectedUAV, pruned.selectedUAV);
+            assertSame(exhaustive.selectedServer, pruned.selectedServer);
+            assertEquals(exhaustive.expectedProfit, pruned.expectedProfit, 0);
+            assertEquals(exhaustive.estimatedLatency, pruned.estimatedLatency, 0);
+            assertEquals(exhaustive.estimatedCost, pruned.estimatedCost, 0);
+            assertEquals(exhaustive.isDeadlineSafe, pruned.isDeadlineSafe);
+        }
+    }
+
+    @Test
+    public void testChannelMatrixMatchesPairwiseModel() {
+        Random rnd = new Random(11);
+        List<UAVEntity> uavs = new ArrayList<>();
+        for (int u = 0; u < 5; u++) {
+            UAVEntity uav = new UAVEntity("UAV_" + u, rnd.nextDouble() * 1000, rnd.nextDouble() * 1000, 80 + 40 * u, 3);
+            uavs.add(uav);
+            optimizer.registerUAV(uav);
+        }
+        List<Task> tasks = new ArrayList<>();
+        double[][] positions = new double[8][];
+        for (int i = 0; i < 8; i++) {
+            Task task = new Task("T_" + i, 0, 1000, 100, 10);
+            tasks.add(task);
+            positions[i] = i == 7 ? new double[]{0, 0} : new double[]{rnd.nextDouble() * 1000, rnd.nextDouble() * 1000};
+            if (i < 7) optimizer.registerIoTPosition(task.getId(), positions[i][0], positions[i][1]);
+        }
+
+        ChannelBatch batch = optimizer.evaluateChannelMatrix(tasks);
+        assertEquals(8, batch.getIoTCount());
+        assertEquals(5, batch.getUAVCount());
+        for (int i = 0; i < 8; i++) {
+            double x = positions[i][0];
+            double y = positions[i][1]; // Unregistered task: origin
+            for (int u = 0; u < 5; u++) {
+                UAVEntity uav = uavs.get(u);
+                double sinr = CommunicationModel.calculateSINRAt(uav.getDistance2D(x, y), uav.getAltitude(), 0);
+                assertEquals(uav.getDistance3D(x, y), batch.getDistance3D(i, u), 1e-9);
+                assertEquals(uav.getElevationAngle(x, y), batch.getElevation(i, u), 1e-9);
+                assertEquals(sinr, batch.getSINR(i, u), 0);
+                assertEquals(CommunicationModel.calculateDataRate(sinr, 1), batch.getDataRate(i, u), 0);
+            }
+        }
+    }
+
     @Test
     public void testCostModelParameters() {
         assertEquals("Compute cost should match", 0.0001, costModel.getComputeCost(), 0.00001);
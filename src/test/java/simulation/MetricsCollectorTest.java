@@ -2,10 +2,22 @@ package simulation;
 
 import org.junit.Before;
 import org.junit.Test;
+import simulation.analysis.BinaryMetricsReader;
+import simulation.analysis.MetricsExporter;
+import simulation.analysis.MetricsStreamWriter;
+import simulation.analysis.StatisticalAnalyzer;
 import simulation.events.MetricsCollector;
 import simulation.model.MetricEntry;
+import simulation.model.MetricStore;
 import static org.junit.Assert.*;
-import java.util.List;
+import java.io.*;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
 
 public class MetricsCollectorTest {
 
@@ -66,4 +78,177 @@ public class MetricsCollectorTest {
         List<MetricEntry> allMetrics = collector.getAllMetrics();
         assertTrue("Should have collected metrics", allMetrics.size() >= 3);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testDropPolicyCountsRejectedMetrics() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<MetricEntry> received = Collections.synchronizedList(new ArrayList<>());
+        MetricsCollector stalled = new MetricsCollector(8, MetricsCollector.Backpressure.DROP, 4, batch -> {
+            try {
+                release.await(); // Consumer stuck: the ring fills up
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.addAll(batch);
+        });
+
+        for (int i = 0; i < 100; i++) stalled.recordMetric("TASK_COMPLETION", i, true);
+        release.countDown();
+        stalled.shutdown();
+
+        assertTrue("Full ring should drop metrics", stalled.getDroppedCount() > 0);
+        assertEquals(100, received.size() + stalled.getDroppedCount());
+        assertEquals(received.size(), stalled.getDeliveredCount());
+    }
+
+    @Test
+    public void testBlockPolicyLosesNothing() throws InterruptedException {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        MetricsCollector blocking = new MetricsCollector(4, MetricsCollector.Backpressure.BLOCK, 3,
+                batch -> batchSizes.add(batch.size()));
+
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            final int threadId = t;
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) blocking.recordMetric("TASK_SUBMISSION", threadId * 10_000 + i, true);
+            });
+            producers[t].start();
+        }
+        for (Thread p : producers) p.join();
+        blocking.shutdown();
+
+        assertEquals(0, blocking.getDroppedCount());
+        assertEquals(8000, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 3));
+    }
+
+    @Test
+    public void testSamplePolicyThinsUnderPressure() {
+        CountDownLatch release = new CountDownLatch(1);
+        MetricsCollector sampled = new MetricsCollector(64, MetricsCollector.Backpressure.SAMPLE, 64, batch -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        sampled.setSampleRate(4);
+
+        for (int i = 0; i < 1000; i++) sampled.recordMetric("VM_CREATION", i, true);
+        release.countDown();
+        sampled.shutdown();
+
+        assertTrue("Half-full ring should sample", sampled.getSampledOutCount() > 0);
+        assertEquals(1000, sampled.getDeliveredCount() + sampled.getDroppedCount());
+    }
+
+    @Test(timeout = 10_000)
+    public void testParkedDrainerWakesOnRecord() throws InterruptedException {
+        for (int i = 0; i < 20; i++) {
+            collector.recordMetric("TASK_COMPLETION", i, true);
+            Thread.sleep(5); // Long past the spin phase: the drain thread parks without a timeout
+            collector.flush(); // Hangs if the record did not unpark it
+            assertEquals(i + 1, collector.getDeliveredCount());
+        }
+        collector.shutdown();
+    }
+
+    @Test
+    public void testMetricStoreMatchesEntries() throws Exception {
+        Random rnd = new Random(3);
+        String[] types = {"VM_CREATION", "TASK_SUBMISSION", "TASK_COMPLETION"};
+        List<MetricEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 70_000; i++) { // Spans two storage chunks
+            MetricEntry e = new MetricEntry(types[rnd.nextInt(3)], i, rnd.nextBoolean(), 1000L + i);
+            e.setCost(rnd.nextDouble());
+            e.setLatency(rnd.nextDouble() * 100);
+            entries.add(e);
+        }
+        MetricStore store = MetricStore.of(entries);
+
+        assertEquals(entries.size(), store.size());
+        assertEquals(3, store.getTypeCount());
+        for (int i = 0; i < entries.size(); i += 997) {
+            assertEquals(entries.get(i).toString(), store.toEntry(i).toString());
+        }
+
+        List<Double> latencies = new ArrayList<>();
+        entries.forEach(e -> latencies.add(e.getLatency()));
+        assertEquals(StatisticalAnalyzer.analyzeMetric(latencies).toString(),
+                StatisticalAnalyzer.analyzeMetric(store, MetricStore.Column.LATENCY).toString());
+
+        // Streamed JSON is what Gson writes for the entry list
+        File json = File.createTempFile("metrics", ".json");
+        json.deleteOnExit();
+        MetricsExporter.exportToJSON(json.getPath(), store);
+        String expected = new com.google.gson.GsonBuilder().setPrettyPrinting().create()
+                .toJson(entries);
+        assertEquals(expected, new String(Files.readAllBytes(json.toPath())));
+    }
+
+    @Test
+    public void testStreamingGzipExportRoundTrip() throws IOException {
+        File csv = File.createTempFile("metrics", ".csv.gz");
+        File json = File.createTempFile("analysis", ".json.gz");
+        csv.deleteOnExit();
+        json.deleteOnExit();
+
+        List<MetricEntry> entries = new ArrayList<>();
+        try (MetricsStreamWriter writer = new MetricsStreamWriter(csv.getPath(), json.getPath(), true, false)) {
+            for (int i = 0; i < 5000; i++) {
+                MetricEntry e = new MetricEntry("CLOUDLET_FINISHED", i, i % 3 != 0, 10L * i);
+                e.setCost(i * 0.001);
+                e.setLatency(i % 97);
+                writer.write(e);
+                entries.add(e);
+            }
+            assertEquals(5000, writer.getRowCount());
+        }
+
+        try (Reader in = new InputStreamReader(new GZIPInputStream(new FileInputStream(json)), StandardCharsets.UTF_8)) {
+            MetricEntry[] parsed = new com.google.gson.Gson().fromJson(in, MetricEntry[].class);
+            assertEquals(entries.size(), parsed.length);
+            for (int i = 0; i < parsed.length; i += 499) {
+                assertEquals(entries.get(i).toString(), parsed[i].toString());
+            }
+        }
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(csv)), StandardCharsets.UTF_8))) {
+            assertTrue(in.readLine().contains("Timestamp"));
+            assertEquals(5000, in.lines().count());
+        }
+    }
+
+    @Test
+    public void testBinaryExportMemoryMappedRoundTrip() throws IOException {
+        MetricStore store = new MetricStore();
+        Random rnd = new Random(5);
+        for (int i = 0; i < 3000; i++) {
+            store.append(i % 4 == 0 ? "VM_CREATION" : "CLOUDLET_FINISHED", 7L * i, rnd.nextBoolean(),
+                    1000L + i, rnd.nextDouble(), 5 + rnd.nextDouble() * 50, 0.0);
+        }
+        File bin = File.createTempFile("metrics", ".bin");
+        bin.deleteOnExit();
+        MetricsExporter.exportToBinary(bin.getPath(), store);
+
+        try (BinaryMetricsReader reader = new BinaryMetricsReader(bin.getPath())) {
+            assertEquals(store.size(), reader.getRowCount());
+            DoubleBuffer latency = reader.getDoubleColumn("latency");
+            IntBuffer types = reader.getTypeCodes();
+            for (int i = 0; i < store.size(); i++) {
+                assertEquals(store.getLatency(i), latency.get(i), 0.0);
+                assertEquals(store.getType(i), reader.getTypeName(types.get(i)));
+                assertEquals(store.isSuccess(i), reader.getSuccess().get(i) == 1);
+                assertEquals(store.getTargetId(i), reader.getLongColumn("targetId").get(i));
+            }
+
+            StatisticalAnalyzer.Statistics expected =
+                    StatisticalAnalyzer.analyzeMetric(store, MetricStore.Column.LATENCY);
+            assertEquals(expected.toString(), StatisticalAnalyzer.analyzeMetric(latency).toString());
+            assertEquals(expected.min, reader.getMin("latency"), 0.0);
+            assertEquals(expected.max, reader.getMax("latency"), 0.0);
+            assertEquals(0, latency.position()); // Analysis leaves the view untouched
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package simulation;
+
+import org.junit.Before;
+import org.junit.Test;
+import simulation.model.*;
+import simulation.optimization.AuctionMatcher;
+import simulation.optimization.IndexedRTMSCMatcher;
+import simulation.optimization.LazyPreferenceList;
+import simulation.optimization.RTMSCMatcher;
+import simulation.optimization.UAVSpatialIndex;
+import static org.junit.Assert.*;
+import java.util.*;
+
+public class RTMSCMatcherTest {
+
+    private List<Task> tasks;
+    private List<UAVEntity> uavs;
+    private List<MECServer> servers;
+    private Map<String, double[]> iotPositions;
+
+    @Before
+    public void setUp() {
+        Random rnd = new Random(7);
+        tasks = new ArrayList<>();
+        iotPositions = new HashMap<>();
+        for (int i = 0; i < 400; i++) {
+            Task t = new Task("TASK_" + i, i, 1000 + rnd.nextInt(8000), 100 + rnd.nextInt(5000),
+                    1.0 + rnd.nextDouble() * 29.0);
+            tasks.add(t);
+            iotPositions.put(t.getId(), new double[]{rnd.nextDouble() * 2000, rnd.nextDouble() * 2000});
+        }
+
+        uavs = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            uavs.add(new UAVEntity("UAV_" + i, rnd.nextDouble() * 2000, rnd.nextDouble() * 2000, 100.0, 20));
+        }
+
+        servers = new ArrayList<>();
+        servers.add(new MECServer("MEC_0", 20000, 32768, 1_000_000));
+        servers.add(new MECServer("MEC_1", 5000, 8192, 500_000));
+    }
+
+    @Test
+    public void testSpatialIndexMatchesBruteForce() {
+        double radius = CommunicationModel.calculateCoverageRadius(100.0, 10.0);
+        UAVSpatialIndex index = new UAVSpatialIndex(uavs, radius);
+        int[] out = new int[uavs.size()];
+
+        for (double[] pos : iotPositions.values()) {
+            int found = index.query(pos[0], pos[1], radius, out);
+            Set<Integer> indexed = new HashSet<>();
+            for (int k = 0; k < found; k++) indexed.add(out[k]);
+
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < uavs.size(); i++) {
+                if (uavs.get(i).getDistance2D(pos[0], pos[1]) <= radius) expected.add(i);
+            }
+            assertEquals("Grid query should return exactly the UAVs within radius", expected, indexed);
+        }
+    }
+
+    @Test
+    public void testSpatialIndexSnapshotsPositions() {
+        UAVEntity uav = new UAVEntity("UAV_0", 100, 100, 100.0, 10);
+        UAVSpatialIndex index = new UAVSpatialIndex(Collections.singletonList(uav), 50);
+        int[] out = new int[1];
+
+        uav.updatePosition(5000, 5000);
+        assertEquals("Query should use the position indexed, not the live one", 1, index.query(110, 90, 50, out));
+        assertEquals(0, index.query(5000, 5000, 50, out));
+    }
+
+    @Test
+    public void testLazyPreferenceListMatchesStableSort() {
+        Random rnd = new Random(3);
+        List<int[]> items = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) items.add(new int[]{rnd.nextInt(50), i}); // Many ties
+        Comparator<int[]> descending = (a, b) -> Integer.compare(b[0], a[0]);
+
+        List<int[]> expected = new ArrayList<>(items);
+        expected.sort(descending);
+        LazyPreferenceList<int[]> lazy = new LazyPreferenceList<>(items, descending);
+
+        assertSame(expected.get(0), lazy.get(0));
+        assertEquals("Only the read prefix is sorted", 1, lazy.getMaterialized());
+        for (int i = 0; i < expected.size(); i++) {
+            // Identity, not equality: ties must keep input order like the stable sort
+            assertSame("Entry " + i, expected.get(i), lazy.get(i));
+        }
+        assertSame("Read entries can be revisited", expected.get(3), lazy.get(3));
+    }
+
+    @Test
+    public void testCoverageRadiusBoundsSINR() {
+        double radius = CommunicationModel.calculateCoverageRadius(100.0, 10.0);
+        UAVEntity uav = new UAVEntity("UAV_X", 0, 0, 100.0, 1);
+
+        double inside = CommunicationModel.calculateSINR(
+                uav.getDistance3D(radius * 0.99, 0), uav.getElevationAngle(radius * 0.99, 0), 0);
+        double outside = CommunicationModel.calculateSINR(
+                uav.getDistance3D(radius * 1.01, 0), uav.getElevationAngle(radius * 1.01, 0), 0);
+
+        assertTrue("SINR just inside the radius should meet the threshold", inside >= 10.0);
+        assertTrue("SINR just outside the radius should miss the threshold", outside < 10.0);
+    }
+
+    @Test
+    public void testMatchesRespectSINRAndCapacity() {
+        RTMSCMatcher matcher = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        List<RTMSCMatcher.MatchingTriplet> matching = matcher.findStableMatching(tasks, uavs, servers, iotPositions);
+
+        assertFalse("Some tasks should be matched", matching.isEmpty());
+        Map<String, Integer> load = new HashMap<>();
+        for (RTMSCMatcher.MatchingTriplet m : matching) {
+            assertTrue("Matched SINR should meet threshold", m.sinrIotUav >= 10.0);
+            assertTrue("Matched latency should meet deadline", m.latency <= m.iot.getDeadline());
+            load.merge(m.uav.getUavId(), 1, Integer::sum);
+        }
+        load.values().forEach(l -> assertTrue("UAV capacity should not be exceeded", l <= 20));
+    }
+
+    @Test
+    public void testParallelMatchingIdenticalToSequential() {
+        RTMSCMatcher sequential = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        RTMSCMatcher parallel = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        parallel.setParallelism(4);
+
+        List<String> expected = new ArrayList<>();
+        sequential.findStableMatching(tasks, uavs, servers, iotPositions).forEach(m -> expected.add(m + "@" + m.latency));
+        List<String> actual = new ArrayList<>();
+        parallel.findStableMatching(tasks, uavs, servers, iotPositions).forEach(m -> actual.add(m + "@" + m.latency));
+
+        assertEquals("Parallel preference generation should reproduce the sequential matching", expected, actual);
+    }
+
+    @Test
+    public void testIndexedBackendMatchesObjectBackend() {
+        RTMSCMatcher objectMatcher = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        IndexedRTMSCMatcher indexedMatcher = new IndexedRTMSCMatcher(0.1, 0.01, 10.0, 100);
+
+        List<String> expected = new ArrayList<>();
+        objectMatcher.findStableMatching(tasks, uavs, servers, iotPositions).forEach(m -> expected.add(m + "@" + m.latency));
+        int[] expectedLoads = uavs.stream().mapToInt(UAVEntity::getCurrentLoad).toArray();
+
+        List<String> actual = new ArrayList<>();
+        indexedMatcher.findStableMatching(tasks, uavs, servers, iotPositions).forEach(m -> actual.add(m + "@" + m.latency));
+        int[] actualLoads = uavs.stream().mapToInt(UAVEntity::getCurrentLoad).toArray();
+
+        assertEquals("Indexed backend should reproduce the object backend's matching", expected, actual);
+        assertArrayEquals("UAV loads should be synced back to the entities", expectedLoads, actualLoads);
+    }
+
+    @Test
+    public void testSessionSingleBatchMatchesOfflineMatching() {
+        RTMSCMatcher matcher = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+
+        List<String> expected = new ArrayList<>();
+        matcher.findStableMatching(tasks, uavs, servers, iotPositions).forEach(m -> expected.add(m + "@" + m.latency));
+
+        RTMSCMatcher.MatchingSession session = matcher.openSession(uavs, servers);
+        List<String> actual = new ArrayList<>();
+        session.addTasks(tasks, iotPositions).forEach(m -> actual.add(m + "@" + m.latency));
+
+        assertEquals("Worklist matching should reproduce the offline matching", expected, actual);
+    }
+
+    @Test
+    public void testSessionKeepsExistingMatchesOnArrival() {
+        RTMSCMatcher matcher = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        RTMSCMatcher.MatchingSession session = matcher.openSession(uavs, servers);
+
+        List<RTMSCMatcher.MatchingTriplet> first = session.addTasks(tasks.subList(0, 200), iotPositions);
+        List<RTMSCMatcher.MatchingTriplet> second = session.addTasks(tasks.subList(200, 400), iotPositions);
+
+        List<RTMSCMatcher.MatchingTriplet> all = session.getMatches();
+        assertEquals("All matches should be retained", first.size() + second.size(), all.size());
+        assertEquals("First batch matches should be unchanged", first, all.subList(0, first.size()));
+        for (UAVEntity uav : uavs) {
+            long assigned = all.stream().filter(m -> m.uav == uav).count();
+            assertEquals("UAV load should equal its assigned matches", assigned, uav.getCurrentLoad());
+        }
+    }
+
+    @Test
+    public void testSessionReleaseFreesCapacity() {
+        List<UAVEntity> single = Collections.singletonList(new UAVEntity("UAV_S", 1000, 1000, 100.0, 1));
+        Map<String, double[]> positions = new HashMap<>();
+        List<Task> nearby = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Task t = new Task("NEAR_" + i, i, 1000, 100, 30.0);
+            nearby.add(t);
+            positions.put(t.getId(), new double[]{1000 + i, 1000});
+        }
+
+        RTMSCMatcher matcher = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        RTMSCMatcher.MatchingSession session = matcher.openSession(single, servers);
+
+        assertEquals("Only one task fits the UAV", 1, session.addTasks(nearby, positions).size());
+        assertEquals("Second task should wait", 1, session.getPendingCount());
+
+        List<RTMSCMatcher.MatchingTriplet> revived = session.release("NEAR_0");
+        assertEquals("Waiting task should take the freed slot", 1, revived.size());
+        assertEquals("NEAR_1", revived.get(0).iot.getId());
+    }
+
+    @Test
+    public void testInterferenceSummaryMatchesDirectSum() {
+        InterferenceField field = new InterferenceField(uavs, 5);
+        Random rnd = new Random(3);
+        for (Task t : tasks) {
+            double[] pos = iotPositions.get(t.getId());
+            field.add(t.getId(), pos[0], pos[1], uavs.get(rnd.nextInt(uavs.size())));
+        }
+        for (int i = 0; i < tasks.size(); i += 3) {
+            field.remove(tasks.get(i).getId());
+        }
+
+        for (UAVEntity uav : uavs) {
+            double exact = field.interferenceAtExact(uav);
+            assertTrue("Interference should be positive", exact > 0);
+            assertEquals(1.0, field.interferenceAt(uav) / exact, 1e-9);
+        }
+    }
+
+    @Test
+    public void testAuctionRespectsConstraintsAndMatchesProfit() {
+        RTMSCMatcher rtmsc = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        double stableProfit = rtmsc.findStableMatching(tasks, uavs, servers, iotPositions)
+                .stream().mapToDouble(m -> m.profit).sum();
+
+        AuctionMatcher sequential = new AuctionMatcher(0.1, 0.01, 10.0);
+        List<RTMSCMatcher.MatchingTriplet> matching = sequential.findStableMatching(tasks, uavs, servers, iotPositions);
+        assertFalse("Some tasks should be matched", matching.isEmpty());
+        Map<String, Integer> load = new HashMap<>();
+        for (RTMSCMatcher.MatchingTriplet m : matching) {
+            assertTrue("Matched SINR should meet threshold", m.sinrIotUav >= 10.0);
+            assertTrue("Matched latency should meet deadline", m.latency <= m.iot.getDeadline());
+            load.merge(m.uav.getUavId(), 1, Integer::sum);
+        }
+        load.values().forEach(l -> assertTrue("UAV capacity should not be exceeded", l <= 20));
+        for (UAVEntity uav : uavs) {
+            assertEquals("UAV loads should reflect the assignment",
+                    (int) load.getOrDefault(uav.getUavId(), 0), uav.getCurrentLoad());
+        }
+
+        double auctionProfit = matching.stream().mapToDouble(m -> m.profit).sum();
+        assertTrue("Auction should not earn less than the stable matching: " + auctionProfit + " < " + stableProfit,
+                auctionProfit >= stableProfit * (1 - 1e-6));
+
+        AuctionMatcher parallel = new AuctionMatcher(0.1, 0.01, 10.0);
+        parallel.setParallelism(4);
+        List<String> expected = new ArrayList<>();
+        matching.forEach(m -> expected.add(m + "@" + m.latency));
+        List<String> actual = new ArrayList<>();
+        parallel.findStableMatching(tasks, uavs, servers, iotPositions).forEach(m -> actual.add(m + "@" + m.latency));
+        assertEquals("Parallel bidding should reproduce the sequential auction", expected, actual);
+    }
+
+    @Test
+    public void testInterferenceAwareMatching() {
+        RTMSCMatcher plain = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        int plainCount = plain.findStableMatching(tasks, uavs, servers, iotPositions).size();
+
+        RTMSCMatcher objectMatcher = new RTMSCMatcher(new CostModel(0.05, 0.01, 0.001, 0.02), 0.1, 0.01, 10.0, 100);
+        InterferenceField field = new InterferenceField(uavs, 1);
+        objectMatcher.setInterference(field);
+        List<RTMSCMatcher.MatchingTriplet> matching = objectMatcher.findStableMatching(tasks, uavs, servers, iotPositions);
+
+        assertTrue("Interference should not admit more matches", matching.size() <= plainCount);
+        assertEquals("Every match should be registered as a transmitter", matching.size(), field.size());
+        for (RTMSCMatcher.MatchingTriplet m : matching) {
+            double[] pos = iotPositions.get(m.iot.getId());
+            double free = CommunicationModel.calculateSINRAt(m.uav.getDistance2D(pos[0], pos[1]), m.uav.getAltitude(), 0);
+            assertTrue("Admitted SINR should meet threshold", m.sinrIotUav >= 10.0);
+            assertTrue("Interference should not raise SINR", m.sinrIotUav <= free);
+        }
+
+        IndexedRTMSCMatcher indexedMatcher = new IndexedRTMSCMatcher(0.1, 0.01, 10.0, 100);
+        indexedMatcher.setInterference(new InterferenceField(uavs, 1));
+        List<String> expected = new ArrayList<>();
+        matching.forEach(m -> expected.add(m + "@" + m.latency));
+        List<String> actual = new ArrayList<>();
+        indexedMatcher.findStableMatching(tasks, uavs, servers, iotPositions).forEach(m -> actual.add(m + "@" + m.latency));
+        assertEquals("Backends should agree under interference", expected, actual);
+    }
+}
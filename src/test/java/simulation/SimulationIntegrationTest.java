@@ -1,12 +1,23 @@
 package simulation;
 
 import org.junit.Test;
+import simulation.core.ParameterSweep;
+import simulation.core.ReplicationRunner;
 import simulation.core.SimulationConfig;
 import simulation.core.UAVMECSimulation;
 import simulation.events.MetricsCollector;
+import simulation.model.CommunicationModel;
 import simulation.model.MetricEntry;
 import static org.junit.Assert.*;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 public class SimulationIntegrationTest {
 
@@ -49,4 +60,254 @@ public class SimulationIntegrationTest {
         assertTrue("VM count should be positive", config.getVmCount() > 0);
         assertTrue("Task count should be positive", config.getTaskCount() > 0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReplicationRunnerRunsEverySeedInIsolation() throws Exception {
+        File dir = Files.createTempDirectory("replications").toFile();
+        File a = new File(dir, "small.yaml");
+        File b = new File(dir, "large.yaml");
+        String common = "simulationTime: 10\nresultsDirectory: " + dir.getPath().replace('\\', '/') + "\n"
+                + "vms:\n  count: 2\n";
+        Files.write(a.toPath(), (common + "randomSeed: 1\nworkload:\n  taskCount: 5\n").getBytes());
+        Files.write(b.toPath(), (common + "randomSeed: 100\nworkload:\n  taskCount: 10\n").getBytes());
+
+        List<ReplicationRunner.Summary> summaries = new ReplicationRunner(4)
+                .run(Arrays.asList(a.getPath(), b.getPath()), 3);
+
+        assertEquals(2, summaries.size());
+        assertEquals("small", summaries.get(0).getConfig());
+        long[] firstSeeds = {1, 100};
+        for (int c = 0; c < 2; c++) {
+            ReplicationRunner.Summary summary = summaries.get(c);
+            assertEquals(3, summary.getRuns().size());
+            assertEquals(3, summary.getMetric("averageCost").getCount());
+            for (int s = 0; s < 3; s++) {
+                long seed = firstSeeds[c] + s;
+                assertEquals(seed, summary.getRuns().get(s).seed);
+                assertTrue("Own results directory per run",
+                        new File(dir, summary.getConfig() + "/seed_" + seed).isDirectory());
+            }
+        }
+
+        ReplicationRunner.exportSummaries(dir.getPath(), summaries);
+        assertEquals(1 + 2 * 5, Files.readAllLines(new File(dir, "replication_summary.csv").toPath()).size());
+    }
+
+    @Test
+    public void testSweepExpandsListsAndRanges() throws Exception {
+        File dir = Files.createTempDirectory("sweep").toFile();
+        File yaml = new File(dir, "sweep.yaml");
+        Files.write(yaml.toPath(), ("workload:\n  taskCount: [10, 20, 30]\n"
+                + "  arrivalRate: {from: 0.1, to: 0.5, step: 0.1}\n").getBytes());
+
+        ParameterSweep sweep = ParameterSweep.loadFromYAML(yaml.getPath());
+        assertEquals(Arrays.asList(0.1, 0.2, 0.3, 0.4, 0.5), sweep.getDimensions().get(1).getValues());
+        assertEquals(15, sweep.getPoints().size());
+        SimulationConfig last = sweep.configFor(sweep.getPoints().get(14));
+        assertEquals(30, last.getTaskCount());
+        assertEquals(0.5, last.getArrivalRate(), 0);
+
+        Files.write(yaml.toPath(), ("workload:\n  taskCount: {from: 1, to: 100, step: 1}\n"
+                + "  arrivalRate: {from: 1, to: 100, step: 1}\n"
+                + "sweep:\n  design: latin\n  samples: 10\n").getBytes());
+        sweep = ParameterSweep.loadFromYAML(yaml.getPath());
+        assertEquals(10, sweep.getPoints().size());
+        for (int d = 0; d < 2; d++) {
+            Set<Long> strata = new HashSet<>();
+            for (ParameterSweep.Point p : sweep.getPoints()) strata.add(((Long) p.getValues().get(d) - 1) / 10);
+            assertEquals("One sample per stratum", 10, strata.size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSweepRejectsUnknownParameter() throws Exception {
+        File yaml = new File(Files.createTempDirectory("sweep").toFile(), "sweep.yaml");
+        Files.write(yaml.toPath(), "workload:\n  taskCount: [10, 20]\n  taskCnt: [10, 20]\n".getBytes());
+        ParameterSweep.loadFromYAML(yaml.getPath());
+    }
+
+    @Test
+    public void testSweepResumesFromResultsFile() throws Exception {
+        File dir = Files.createTempDirectory("sweep").toFile();
+        File yaml = new File(dir, "sweep.yaml");
+        Files.write(yaml.toPath(), ("simulationTime: 10\nresultsDirectory: " + dir.getPath().replace('\\', '/') + "\n"
+                + "vms:\n  count: 2\nworkload:\n  taskCount: [5, 10]\n").getBytes());
+        File results = new File(dir, ParameterSweep.RESULTS_FILE);
+
+        assertEquals(2, ParameterSweep.loadFromYAML(yaml.getPath()).run(new ReplicationRunner(2), 2));
+        assertEquals(3, Files.readAllLines(results.toPath()).size());
+
+        // Drop one finished point as if the sweep had been interrupted
+        List<String> lines = Files.readAllLines(results.toPath());
+        Files.write(results.toPath(), lines.subList(0, 2));
+        assertEquals(1, ParameterSweep.loadFromYAML(yaml.getPath()).run(new ReplicationRunner(2), 2));
+        assertEquals(0, ParameterSweep.loadFromYAML(yaml.getPath()).run(new ReplicationRunner(2), 2));
+        assertEquals(3, Files.readAllLines(results.toPath()).size());
+    }
+
+
+    @Test
+    public void testStreamingWorkloadCompletesSameTasks() throws Exception {
+        int[] completed = new int[2];
+        for (int mode = 0; mode < 2; mode++) {
+            SimulationConfig config = new SimulationConfig();
+            config.setSimulationTime(10_000);
+            config.setVmCount(4);
+            config.setTaskCount(50);
+            config.setRandomSeed(7);
+            config.setStreamingWorkload(mode == 1);
+            config.setResultsDirectory(Files.createTempDirectory("workload").toString());
+
+            UAVMECSimulation sim = new UAVMECSimulation(config);
+            sim.run();
+            completed[mode] = sim.getTasksCompleted();
+        }
+        assertTrue(completed[0] > 0);
+        assertEquals("Lazy arrivals run the same workload", completed[0], completed[1]);
+    }
+
+    @Test
+    public void testParallelPlacementAndMatchingKeepResults() throws Exception {
+        UAVMECSimulation[] sims = new UAVMECSimulation[2];
+        for (int mode = 0; mode < 2; mode++) {
+            SimulationConfig config = new SimulationConfig();
+            config.setSimulationTime(10_000);
+            config.setVmCount(4);
+            config.setTaskCount(50);
+            config.setRandomSeed(7);
+            config.setParallelMatching(mode == 1);
+            config.setMatchingParallelism(4);
+            config.setResultsDirectory(Files.createTempDirectory("parallel").toString());
+
+            sims[mode] = new UAVMECSimulation(config);
+            sims[mode].run();
+        }
+        assertTrue(sims[0].getTasksCompleted() > 0);
+        assertEquals(sims[0].getTasksCompleted(), sims[1].getTasksCompleted());
+        assertEquals("Worker count should not change placement or matching",
+                sims[0].getTotalCost(), sims[1].getTotalCost(), 0.0);
+        assertEquals(sims[0].getAverageLatency(), sims[1].getAverageLatency(), 0.0);
+    }
+
+    @Test
+    public void testStreamingWorkloadBoundsInFlightTasks() throws Exception {
+        SimulationConfig config = new SimulationConfig();
+        config.setSimulationTime(100_000);
+        config.setVmCount(4);
+        config.setTaskCount(200); // ~10 s between arrivals, under 2 s of compute each
+        config.setStreamingWorkload(true);
+        config.setResultsDirectory(Files.createTempDirectory("inflight").toString());
+
+        UAVMECSimulation sim = new UAVMECSimulation(config);
+        sim.run();
+        assertEquals(200, sim.getTasksCompleted());
+        assertTrue("Peak in flight " + sim.getPeakInFlight() + " should stay far below the task count",
+                sim.getPeakInFlight() > 0 && sim.getPeakInFlight() <= 20);
+    }
+
+    @Test
+    public void testPolicyBrokerDecidesEveryTask() throws Exception {
+        SimulationConfig config = new SimulationConfig();
+        config.setSimulationTime(10_000);
+        config.setHostCount(3);
+        config.setVmCount(6);
+        config.setTaskCount(40);
+        // Every device within UAV coverage and every deadline reachable: each decision is valid
+        config.setAreaWidth(200);
+        config.setAreaHeight(200);
+        config.setDeadlineMin(500);
+        config.setDeadlineMax(1000);
+        config.setOffloadingPolicy("adaptive");
+        config.setStreamingWorkload(true);
+        config.setResultsDirectory(Files.createTempDirectory("policy").toString());
+
+        UAVMECSimulation sim = new UAVMECSimulation(config);
+        sim.run();
+        assertEquals(40, sim.getTasksCompleted());
+        assertEquals("One timed decision per task", 40,
+                sim.getResultHistograms().get("decisionMicros").getTotalCount());
+        assertEquals("Every task mapped by the policy", 0, sim.getPolicyFallbackCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOffloadingPolicyRequiresStreamingWorkload() {
+        SimulationConfig config = new SimulationConfig();
+        config.setOffloadingPolicy("adaptive");
+        new UAVMECSimulation(config);
+    }
+
+    @Test
+    public void testEpochMatchingDispatchesEveryTask() throws Exception {
+        SimulationConfig config = new SimulationConfig();
+        config.setSimulationTime(10_000);
+        config.setHostCount(3);
+        config.setVmCount(6);
+        config.setTaskCount(40);
+        config.setEpochWindow(5.0);
+        config.setResultsDirectory(Files.createTempDirectory("epoch").toString());
+
+        UAVMECSimulation sim = new UAVMECSimulation(config);
+        sim.run();
+        assertEquals(40, sim.getTasksCompleted());
+        assertTrue("Batches matched", sim.getResultHistograms().get("epochMatchingMicros").getTotalCount() > 0);
+        assertEquals("One matching call per batch",
+                sim.getResultHistograms().get("epochBatchSize").getTotalCount(),
+                sim.getResultHistograms().get("epochMatchingMicros").getTotalCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEpochMatchingRejectsOffloadingPolicy() {
+        SimulationConfig config = new SimulationConfig();
+        config.setEpochWindow(5.0);
+        config.setOffloadingPolicy("adaptive");
+        new UAVMECSimulation(config);
+    }
+
+    @Test
+    public void testRejectedConfigLeavesNoSideEffects() {
+        CommunicationModel.PathLossMode mode = CommunicationModel.getPathLossMode();
+        long drainers = drainThreads();
+        SimulationConfig config = new SimulationConfig();
+        config.setPathLossMode(mode == CommunicationModel.PathLossMode.EXACT ? "table" : "exact");
+        config.setOffloadingPolicy("adaptive"); // Without a streaming workload
+        try {
+            new UAVMECSimulation(config);
+            fail("Policy without streaming workload should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // Rejected before touching shared state
+        }
+        assertEquals(mode, CommunicationModel.getPathLossMode());
+        assertEquals("No metrics drain thread left behind", drainers, drainThreads());
+    }
+
+    @Test
+    public void testFailedRunClosesResultStream() throws Exception {
+        File dir = Files.createTempDirectory("failed").toFile();
+        SimulationConfig config = new SimulationConfig();
+        config.setResultsDirectory(dir.getPath());
+        config.setStreamingWorkload(true);
+        config.setExportGzip(true);
+        config.setTaskComputeMin(5000);
+        config.setTaskComputeMax(5000); // Empty range: the first arrival fails, after the stream opened
+        long drainers = drainThreads();
+        try {
+            new UAVMECSimulation(config).run();
+            fail("Empty compute range should fail the run");
+        } catch (IllegalArgumentException expected) {
+            // Thrown from the workload generator
+        }
+        File[] written = dir.listFiles((d, name) -> name.endsWith(".gz"));
+        assertEquals(2, written.length);
+        for (File f : written) {
+            try (InputStream in = new GZIPInputStream(new FileInputStream(f))) {
+                while (in.read() >= 0) { } // Truncated gzip would throw EOFException
+            }
+        }
+        assertEquals("No metrics drain thread left behind", drainers, drainThreads());
+    }
+
+    private static long drainThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().equals("metrics-drain")).count();
+    }
+}
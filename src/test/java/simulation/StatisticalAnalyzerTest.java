@@ -0,0 +1,109 @@
+package simulation;
+
+import org.junit.Test;
+import simulation.analysis.LogHistogram;
+import simulation.analysis.MetricsExporter;
+import simulation.analysis.StatisticalAnalyzer;
+import simulation.analysis.StreamingStatistics;
+import static org.junit.Assert.*;
+import java.io.File;
+import java.util.*;
+
+public class StatisticalAnalyzerTest {
+
+    @Test
+    public void testSmallSampleMatchesExactStatistics() {
+        double[] values = {4.0, 1.5, 9.25, 3.0, 7.5, 2.0};
+        StatisticalAnalyzer.Statistics stats = StatisticalAnalyzer.analyzeMetric(values);
+
+        double mean = Arrays.stream(values).average().getAsDouble();
+        double variance = Arrays.stream(values).map(v -> (v - mean) * (v - mean)).average().getAsDouble();
+        assertEquals(mean, stats.mean, 1e-12);
+        assertEquals(Math.sqrt(variance), stats.stdDev, 1e-12);
+        assertEquals((3.0 + 4.0) / 2, stats.median, 1e-12);
+        assertEquals(1.5, stats.min, 0.0);
+        assertEquals(9.25, stats.max, 0.0);
+        assertEquals(6, stats.count);
+    }
+
+    @Test
+    public void testMergedAccumulatorsMatchSinglePass() {
+        Random rnd = new Random(11);
+        int n = 200_000;
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) values[i] = Math.exp(rnd.nextGaussian()); // Heavy right tail
+
+        StreamingStatistics single = new StreamingStatistics();
+        single.addAll(values, 0, n);
+
+        // Per-thread style partitions merged afterwards
+        StreamingStatistics merged = new StreamingStatistics();
+        for (int p = 0; p < 8; p++) {
+            StreamingStatistics part = new StreamingStatistics();
+            part.addAll(values, p * n / 8, (p + 1) * n / 8);
+            merged.merge(part);
+        }
+
+        assertEquals(n, merged.getCount());
+        assertEquals(single.getMean(), merged.getMean(), 1e-9);
+        assertEquals(single.getVariance(), merged.getVariance(), 1e-9);
+        assertEquals(single.getMin(), merged.getMin(), 0.0);
+        assertEquals(single.getMax(), merged.getMax(), 0.0);
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : new double[]{0.5, 0.95, 0.99, 0.999}) {
+            for (StreamingStatistics s : new StreamingStatistics[]{single, merged}) {
+                double estimate = s.getQuantile(q);
+                int rank = Arrays.binarySearch(sorted, estimate);
+                if (rank < 0) rank = -rank - 1;
+                assertEquals("Rank of q" + q, q, rank / (double) n, 0.001);
+            }
+        }
+    }
+
+    @Test
+    public void testConfidenceIntervalUsesStudentT() {
+        StreamingStatistics stats = new StreamingStatistics();
+        stats.addAll(new double[]{1, 2, 3, 4, 5}, 0, 5);
+        assertEquals(2.5, stats.getSampleVariance(), 1e-12);
+        assertEquals(2.776 * Math.sqrt(2.5 / 5), stats.getConfidenceHalfWidth95(), 1e-12);
+    }
+
+    @Test
+    public void testHistogramPercentilesAndLosslessMerge() throws Exception {
+        Random rnd = new Random(5);
+        int n = 100_000;
+        double[] values = new double[n];
+        LogHistogram combined = new LogHistogram(1e-3, 1e7, 3);
+        List<LogHistogram> runs = new ArrayList<>();
+        for (int r = 0; r < 4; r++) runs.add(combined.copyConfiguration());
+        for (int i = 0; i < n; i++) {
+            values[i] = Math.exp(2 * rnd.nextGaussian());
+            combined.record(values[i]);
+            runs.get(i % 4).record(values[i]);
+        }
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double p : new double[]{50, 95, 99, 99.9}) {
+            double exact = sorted[(int) Math.ceil(p / 100 * n) - 1];
+            assertEquals("p" + p, exact, combined.getValueAtPercentile(p), exact * 1e-3);
+        }
+
+        // Per-run histograms written to disk, read back and merged give identical counts
+        LogHistogram merged = combined.copyConfiguration();
+        for (LogHistogram run : runs) {
+            File file = File.createTempFile("histograms", ".json");
+            file.deleteOnExit();
+            MetricsExporter.exportHistograms(file.getPath(), Collections.singletonMap("latency", run));
+            merged.add(MetricsExporter.importHistograms(file.getPath()).get("latency"));
+        }
+        assertEquals(n, merged.getTotalCount());
+        assertEquals(combined.getMin(), merged.getMin(), 0.0);
+        assertEquals(combined.getMax(), merged.getMax(), 0.0);
+        for (double p = 0; p <= 100; p += 0.5) {
+            assertEquals(combined.getValueAtPercentile(p), merged.getValueAtPercentile(p), 0.0);
+        }
+    }
+}
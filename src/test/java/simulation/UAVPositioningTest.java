@@ -0,0 +1,151 @@
+package simulation;
+
+import org.junit.Before;
+import org.junit.Test;
+import simulation.model.UAVEntity;
+import simulation.optimization.KMeans;
+import simulation.optimization.UAVPositioningOptimizer;
+import static org.junit.Assert.*;
+import java.util.*;
+
+public class UAVPositioningTest {
+
+    private static final int N = 5000;
+    private double[] xs;
+    private double[] ys;
+
+    @Before
+    public void setUp() {
+        // Gaussian hotspots over a 5 km field
+        Random rnd = new Random(17);
+        xs = new double[N];
+        ys = new double[N];
+        double[][] hotspots = new double[12][];
+        for (int h = 0; h < hotspots.length; h++) {
+            hotspots[h] = new double[]{rnd.nextDouble() * 5000, rnd.nextDouble() * 5000};
+        }
+        for (int i = 0; i < N; i++) {
+            double[] h = hotspots[rnd.nextInt(hotspots.length)];
+            xs[i] = h[0] + rnd.nextGaussian() * 250;
+            ys[i] = h[1] + rnd.nextGaussian() * 250;
+        }
+    }
+
+    @Test
+    public void testAcceleratedVariantsMatchLloyd() {
+        KMeans.Result lloyd = new KMeans(KMeans.Algorithm.LLOYD, 100, 42).cluster(xs, ys, N, 20);
+
+        for (KMeans.Algorithm algorithm : new KMeans.Algorithm[]{KMeans.Algorithm.HAMERLY, KMeans.Algorithm.ELKAN}) {
+            KMeans.Result fast = new KMeans(algorithm, 100, 42).cluster(xs, ys, N, 20);
+            assertArrayEquals(algorithm + " assignment should match Lloyd", lloyd.assignment, fast.assignment);
+            assertArrayEquals(lloyd.centroidX, fast.centroidX, 1e-9);
+            assertArrayEquals(lloyd.centroidY, fast.centroidY, 1e-9);
+            assertEquals(lloyd.iterations, fast.iterations);
+            assertTrue(algorithm + " should prune distance evaluations",
+                    fast.distanceEvaluations < lloyd.distanceEvaluations / 2);
+        }
+    }
+
+    @Test
+    public void testMiniBatchCloseToLloyd() {
+        KMeans.Result lloyd = new KMeans(KMeans.Algorithm.LLOYD, 100, 42).cluster(xs, ys, N, 12);
+        KMeans miniBatch = new KMeans(KMeans.Algorithm.MINI_BATCH, 200, 42);
+        miniBatch.setBatchSize(256);
+        KMeans.Result approx = miniBatch.cluster(xs, ys, N, 12);
+
+        double ratio = approx.inertia(xs, ys, N) / lloyd.inertia(xs, ys, N);
+        assertTrue("Mini-batch inertia should be within 10% of Lloyd, got ratio " + ratio, ratio < 1.10);
+    }
+
+    @Test
+    public void testSeedingIsDeterministic() {
+        KMeans.Result a = new KMeans(KMeans.Algorithm.HAMERLY, 100, 7).cluster(xs, ys, N, 15);
+        KMeans.Result b = new KMeans(KMeans.Algorithm.HAMERLY, 100, 7).cluster(xs, ys, N, 15);
+        assertArrayEquals(a.centroidX, b.centroidX, 0.0);
+        assertArrayEquals(a.assignment, b.assignment);
+    }
+
+    @Test
+    public void testParallelResultsIndependentOfThreadCount() {
+        // Large enough to span many reduction blocks
+        Random rnd = new Random(23);
+        int n = 60_000;
+        double[] px = new double[n];
+        double[] py = new double[n];
+        for (int i = 0; i < n; i++) {
+            px[i] = xs[i % N] + rnd.nextGaussian() * 50;
+            py[i] = ys[i % N] + rnd.nextGaussian() * 50;
+        }
+
+        for (KMeans.Algorithm algorithm : KMeans.Algorithm.values()) {
+            KMeans sequential = new KMeans(algorithm, 50, 42);
+            KMeans.Result expected = sequential.cluster(px, py, n, 30);
+            for (int threads : new int[]{2, 3, 8}) {
+                KMeans parallel = new KMeans(algorithm, 50, 42);
+                parallel.setParallelism(threads);
+                KMeans.Result actual = parallel.cluster(px, py, n, 30);
+
+                assertArrayEquals(algorithm + " x " + threads, expected.centroidX, actual.centroidX, 0.0);
+                assertArrayEquals(algorithm + " x " + threads, expected.centroidY, actual.centroidY, 0.0);
+                assertArrayEquals(algorithm + " x " + threads, expected.assignment, actual.assignment);
+                assertEquals(expected.distanceEvaluations, actual.distanceEvaluations);
+            }
+        }
+    }
+
+    @Test
+    public void testCapacitatedClustersRespectCapacity() {
+        int capacity = 20;
+        int k = (N + capacity - 1) / capacity;
+        KMeans kMeans = new KMeans(KMeans.Algorithm.HAMERLY, 50, 42);
+        KMeans.Result unconstrained = kMeans.cluster(xs, ys, N, k);
+        KMeans.Result balanced = kMeans.clusterCapacitated(xs, ys, N, k, capacity);
+
+        int[] load = new int[k];
+        for (int a : balanced.assignment) {
+            assertTrue("Every point should be assigned when k * capacity >= n", a >= 0);
+            load[a]++;
+        }
+        for (int l : load) assertTrue("Cluster load " + l + " exceeds capacity", l <= capacity);
+
+        int[] freeLoad = new int[k];
+        for (int a : unconstrained.assignment) freeLoad[a]++;
+        assertTrue("Unconstrained K-means should overflow some cluster here",
+                Arrays.stream(freeLoad).max().getAsInt() > capacity);
+
+        // On uniform devices balanced clusters cost little over unconstrained ones
+        Random rnd = new Random(29);
+        double[] ux = new double[N];
+        double[] uy = new double[N];
+        for (int i = 0; i < N; i++) {
+            ux[i] = rnd.nextDouble() * 5000;
+            uy[i] = rnd.nextDouble() * 5000;
+        }
+        double ratio = kMeans.clusterCapacitated(ux, uy, N, k, capacity).inertia(ux, uy, N)
+                / kMeans.cluster(ux, uy, N, k).inertia(ux, uy, N);
+        assertTrue("Balanced inertia should stay close to unconstrained, got ratio " + ratio, ratio < 1.3);
+
+        // Too few clusters: the surplus stays unassigned, nobody overflows
+        KMeans.Result short_ = kMeans.clusterCapacitated(xs, ys, N, 100, capacity);
+        int[] shortLoad = new int[100];
+        int unassigned = 0;
+        for (int a : short_.assignment) {
+            if (a < 0) unassigned++;
+            else shortLoad[a]++;
+        }
+        assertEquals(N - 100 * capacity, unassigned);
+        for (int l : shortLoad) assertEquals(capacity, l);
+    }
+
+    @Test
+    public void testPositionsOneUAVPerCapacityBlock() {
+        Map<String, double[]> positions = new LinkedHashMap<>();
+        for (int i = 0; i < 95; i++) {
+            positions.put("IOT_" + i, new double[]{xs[i], ys[i]});
+        }
+        List<UAVEntity> uavs = UAVPositioningOptimizer.optimizeUAVPositions(positions, 10, 100.0, 10);
+
+        assertEquals("K should be ceil(M / capacity)", 10, uavs.size());
+        uavs.forEach(u -> assertEquals(100.0, u.getAltitude(), 0.0));
+    }
+}